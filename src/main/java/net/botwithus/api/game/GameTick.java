@@ -0,0 +1,81 @@
+package net.botwithus.api.game;
+
+import com.google.common.flogger.FluentLogger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * A game tick counter used to scope per-tick caches.
+ * <p>
+ * {@link net.botwithus.api.game.script.v2.base.DelayableScript} and
+ * {@link net.botwithus.api.game.script.treescript.TreeTickingScript} advance it at the start of every tick.
+ * Scripts that extend neither should call {@link #advance()} from their own {@code onTick}.
+ */
+public final class GameTick {
+    /**
+     * The length of a game tick in milliseconds.
+     */
+    public static final long TICK_MILLIS = 600;
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final AtomicLong TICK = new AtomicLong();
+    private static final List<LongConsumer> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private GameTick() {
+    }
+
+    /**
+     * Gets the current tick.
+     *
+     * @return the number of ticks advanced since the library was loaded
+     */
+    public static long current() {
+        return TICK.get();
+    }
+
+    /**
+     * Gets the ticks since a point in time, falling back to wall time for scripts that do not advance the counter.
+     *
+     * @param tick   the tick at that point
+     * @param millis the wall time at that point
+     * @return the ticks counted since then, or the ticks of wall time since then if that is more
+     */
+    public static long ticksSince(long tick, long millis) {
+        return Math.max(current() - tick, (System.currentTimeMillis() - millis) / TICK_MILLIS);
+    }
+
+    /**
+     * Advances the tick counter, invalidating anything cached for the previous tick, and notifies the tick listeners.
+     *
+     * @return the new tick
+     */
+    public static long advance() {
+        long tick = TICK.incrementAndGet();
+        for (LongConsumer listener : LISTENERS) {
+            try {
+                listener.accept(tick);
+            } catch (Exception e) {
+                log.atSevere().withCause(e).log("Tick listener failed on tick " + tick);
+            }
+        }
+        return tick;
+    }
+
+    /**
+     * Registers a listener that is called with the new tick every time the counter advances.
+     *
+     * @param listener the listener
+     */
+    public static void addListener(LongConsumer listener) {
+        if (!LISTENERS.contains(listener)) {
+            LISTENERS.add(listener);
+        }
+    }
+
+    public static void removeListener(LongConsumer listener) {
+        LISTENERS.remove(listener);
+    }
+}
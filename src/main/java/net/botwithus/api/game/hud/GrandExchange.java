@@ -1,6 +1,10 @@
 package net.botwithus.api.game.hud;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import net.botwithus.api.game.GameTick;
+import net.botwithus.api.game.hud.inventories.InventorySnapshots;
 import net.botwithus.rs3.game.Item;
 import net.botwithus.rs3.game.cs2.ScriptBuilder;
 import net.botwithus.rs3.game.cs2.layouts.Layout;
@@ -26,45 +30,90 @@ public class GrandExchange {
     private static final int CONFIRM_BUTTON_UID = 6881605;
     private static final Map<Integer, Integer> SLOT_QUERY_MAP;
 
+    private static final int[] SLOT_COMPONENTS = {7, 28, 49, 70, 94, 118, 142, 166};
+    private static final int[] BUY_COMPONENTS = {15, 36, 57, 78, 102, 126, 150, 174};
+    private static final int INPUT_VARC = 2235;
+    private static final int CANCEL_INPUT_CODE = 4;
+    private static final int SLOT_TEXT_SUB_COMPONENT = 5;
+
+    private static volatile boolean offerStateCached = false;
+    private static volatile OfferState offerState;
+    private static volatile SlotScan slotScan;
+
     public GrandExchange() {
     }
 
+    /**
+     * Gets the state of the offer being edited, read at most once per {@link GameTick}.
+     *
+     * @return the offer state for the current tick
+     */
+    public static OfferState getOfferState() {
+        long tick = GameTick.current();
+        var state = offerState;
+        if (state == null || state.getTick() != tick) {
+            state = OfferState.read(tick);
+            offerState = state;
+        }
+        return state;
+    }
+
+    /**
+     * Gets the state of the offer being edited straight from the varps.
+     *
+     * @return the offer state
+     */
+    public static OfferState readOfferState() {
+        return OfferState.read(GameTick.current());
+    }
+
+    public static boolean isOfferStateCached() {
+        return offerStateCached;
+    }
+
+    /**
+     * Makes the offer getters below answer from {@link #getOfferState()} instead of reading the varps on every
+     * call. Only worth enabling in scripts that advance {@link GameTick}, since the state is not re-read until
+     * the tick changes.
+     *
+     * @param cached whether to cache the offer state per tick
+     */
+    public static void setOfferStateCached(boolean cached) {
+        offerStateCached = cached;
+        offerState = null;
+    }
+
+    private static OfferState currentOfferState() {
+        return offerStateCached ? getOfferState() : readOfferState();
+    }
+
     public static int getCurrentItemID() {
-        return VarManager.getVarpValue(139) != -1
-                ? VarManager.getVarpValue(135)
-                : -1;
+        return currentOfferState().getItemId();
     }
 
     public static int getCurrentQuantity() {
-        return VarManager.getVarpValue(139) != -1
-                ? VarManager.getVarpValue(136)
-                : -1;
+        return currentOfferState().getQuantity();
     }
 
     public static int getCurrentPrice() {
-        return VarManager.getVarpValue(139) != -1
-                ? VarManager.getVarpValue(137)
-                : -1;
+        return currentOfferState().getPrice();
     }
 
     public static int getSelectedSlot() {
-        return VarManager.getVarpValue(139) != -1
-                ? VarManager.getVarpValue(138) + 1
-                : -1;
+        return currentOfferState().getSelectedSlot();
     }
 
     public static int getTotalPrice() {
-        return VarManager.getVarpValue(139) != -1
-                ? getCurrentQuantity() * getCurrentPrice()
-                : -1;
+        var state = currentOfferState();
+        return state.isInsideOffer() ? (int) state.getTotalPrice() : -1;
     }
 
     public static boolean isBuyOffer() {
-        return VarManager.getVarpValue(139) == 0;
+        return currentOfferState().isBuyOffer();
     }
 
     public static boolean isSellOffer() {
-        return VarManager.getVarpValue(139) == 1;
+        return currentOfferState().isSellOffer();
     }
 
     public static boolean collectToInventory() {
@@ -88,7 +137,7 @@ public class GrandExchange {
     }
 
     public static boolean isInsideOffer() {
-        return VarManager.getVarpValue(139) != -1;
+        return currentOfferState().isInsideOffer();
     }
 
     /**
@@ -122,12 +171,11 @@ public class GrandExchange {
      * Replaced do‐while loop with a simple for‐each
      */
     public static SlotStatus getSlotStatus(int slot) {
-        int[] baseIndices = {7, 28, 49, 70, 94, 118, 142, 166};
-        if (slot < 1 || slot > baseIndices.length) {
+        if (slot < 1 || slot > SLOT_COMPONENTS.length) {
             return SlotStatus.EMPTY_OFFER;
         }
 
-        int idx = baseIndices[slot - 1];
+        int idx = SLOT_COMPONENTS[slot - 1];
         Component comp = ComponentQuery
                 .newQuery(new int[]{GE_INTERFACE})
                 .componentIndex(new int[]{idx})
@@ -139,6 +187,10 @@ public class GrandExchange {
                 .subComponentIndex(new int[]{5})
                 .results().first();
 
+        return getSlotStatus(comp, textComp);
+    }
+
+    private static SlotStatus getSlotStatus(Component comp, Component textComp) {
         if (comp == null || textComp == null) {
             return SlotStatus.EMPTY_OFFER;
         }
@@ -156,26 +208,152 @@ public class GrandExchange {
         return SlotStatus.EMPTY_OFFER;
     }
 
+    /**
+     * Reads all eight offer slots with one component query and one read of each slot's collection inventory.
+     * The result is cached for the current {@link GameTick}, and records which slots differ from the scan before it.
+     *
+     * @return the scan for the current tick
+     */
+    public static synchronized SlotScan scanSlots() {
+        long tick = GameTick.current();
+        var previous = slotScan;
+        if (previous != null && previous.getTick() == tick) {
+            return previous;
+        }
+        var scan = SlotScan.read(tick, previous);
+        slotScan = scan;
+        return scan;
+    }
+
+    /**
+     * Discards the cached scan so the next {@link #scanSlots()} reads the interface again, for example straight
+     * after placing or collecting an offer.
+     */
+    public static synchronized void invalidateSlotScan() {
+        if (slotScan != null) {
+            slotScan = slotScan.expire();
+        }
+    }
+
     public static boolean setItemByID(int itemID) {
-        if (!isInsideOffer() || itemID == -1) return false;
-        if (getCurrentItemID() == itemID) return true;
+        var state = readOfferState();
+        if (!state.isInsideOffer() || itemID == -1) return false;
+        if (state.getItemId() == itemID) return true;
 
         GRAND_EXCHANGE_SELECT.invokeExact(new Object[]{itemID});
         Execution.delay(RandomGenerator.nextInt(1200, 2400));
-        return getCurrentItemID() == itemID;
+        return readOfferState().getItemId() == itemID;
+    }
+
+    /**
+     * Selects the item of the open offer. Does not wait for the offer to update.
+     *
+     * @param itemID the item id
+     * @return false if no offer is open
+     */
+    public static boolean selectItem(int itemID) {
+        if (!readOfferState().isInsideOffer() || itemID == -1) return false;
+        GRAND_EXCHANGE_SELECT.invokeExact(new Object[]{itemID});
+        return true;
+    }
+
+    /**
+     * Opens the input box for a field of the open offer, unless it is already open. Does not wait for it to open.
+     *
+     * @param field the field to edit
+     * @return true if the box is open or was clicked
+     */
+    public static boolean openInput(OfferField field) {
+        return isInputOpen(field) || MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, -1, field.interactComponent);
+    }
+
+    public static boolean isInputOpen(OfferField field) {
+        return VarManager.getVarc(INPUT_VARC) == field.expectedValue;
+    }
+
+    /**
+     * Types a value into the open input box of a field. Call {@link #closeInput()} on a later tick to apply it.
+     *
+     * @param field  the field being edited
+     * @param amount the value
+     */
+    public static void sendInput(OfferField field, long amount) {
+        SEND_INPUT.invokeExact(field.inputComponent, Long.toString(amount));
+    }
+
+    public static void closeInput() {
+        CANCEL_INPUT.invokeExact(CANCEL_INPUT_CODE);
+    }
+
+    /**
+     * Clicks the buy button of an offer slot. Does not wait for the offer to open.
+     *
+     * @param slot the slot, from 1 to 8
+     * @return true if the button was clicked
+     */
+    public static boolean openBuyOffer(int slot) {
+        if (slot < 1 || slot > BUY_COMPONENTS.length) return false;
+        return MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, -1, GE_INTERFACE << 16 | BUY_COMPONENTS[slot - 1]);
+    }
+
+    /**
+     * Clicks the sell button of an offer slot, found by its "Sell" option among the slot's components. Does not
+     * wait for the offer to open.
+     *
+     * @param slot the slot, from 1 to 8
+     * @return true if the button was clicked
+     */
+    public static boolean openSellOffer(int slot) {
+        var button = findSlotComponent(slot, "Sell");
+        return button != null && button.interact("Sell");
+    }
+
+    /**
+     * Aborts the offer in a slot. Does not wait for the slot to update.
+     *
+     * @param slot the slot, from 1 to 8
+     * @return true if the abort option was clicked
+     */
+    public static boolean abortOffer(int slot) {
+        if (slot < 1 || slot > SLOT_COMPONENTS.length) return false;
+        Component comp = ComponentQuery
+                .newQuery(new int[]{GE_INTERFACE})
+                .componentIndex(new int[]{SLOT_COMPONENTS[slot - 1]})
+                .subComponentIndex(new int[]{-1})
+                .results().first();
+        if (comp == null) return false;
+        for (String option : comp.getOptions()) {
+            if (option.contains("Abort")) {
+                return comp.interact(option);
+            }
+        }
+        return false;
+    }
+
+    private static Component findSlotComponent(int slot, String option) {
+        if (slot < 1 || slot > SLOT_COMPONENTS.length) return null;
+        int first = SLOT_COMPONENTS[slot - 1];
+        int last = slot < SLOT_COMPONENTS.length ? SLOT_COMPONENTS[slot] : Integer.MAX_VALUE;
+        for (Component comp : ComponentQuery.newQuery(GE_INTERFACE).option(option).results()) {
+            if (comp.getComponentIndex() >= first && comp.getComponentIndex() < last) {
+                return comp;
+            }
+        }
+        return null;
     }
 
     public static boolean setQuantity(long amount) {
         ScriptConsole.println("Setting Quantity: " + amount);
-        if (!isInsideOffer()) {
+        var state = readOfferState();
+        if (!state.isInsideOffer()) {
             ScriptConsole.println("Not inside an offer..");
             return false;
         }
-        if (getCurrentQuantity() == amount) {
+        if (state.getQuantity() == amount) {
             ScriptConsole.println("Quantity == " + amount);
             return true;
         }
-        if (interactWithInputComponent(6881517, 6881514, 6881515, amount)) {
+        if (interactWithInputComponent(OfferField.QUANTITY, amount)) {
             ScriptConsole.println("Quantity set.");
             return true;
         }
@@ -185,15 +363,16 @@ public class GrandExchange {
 
     public static boolean setPrice(long amount) {
         ScriptConsole.println("Setting Price: " + amount);
-        if (!isInsideOffer()) {
+        var state = readOfferState();
+        if (!state.isInsideOffer()) {
             ScriptConsole.println("Not inside an offer.");
             return false;
         }
-        if (getCurrentPrice() == amount) {
+        if (state.getPrice() == amount) {
             ScriptConsole.println("Price set");
             return true;
         }
-        if (interactWithInputComponent(6881558, 6881555, 6881556, amount)) {
+        if (interactWithInputComponent(OfferField.PRICE, amount)) {
             ScriptConsole.println("Price set.");
             return true;
         }
@@ -202,28 +381,22 @@ public class GrandExchange {
     }
 
     private static boolean interactWithInputComponent(
-            int interactComponent,
-            int expectedValue,
-            int inputComponent,
+            OfferField field,
             long amount
     ) {
-        if (VarManager.getVarc(2235) != expectedValue) {
-            if (!MiniMenu.interact(
-                    ComponentAction.COMPONENT.getType(),
-                    1, -1,
-                    interactComponent
-            )) {
+        if (!isInputOpen(field)) {
+            if (!openInput(field)) {
                 ScriptConsole.println("Failed to interact with input component");
                 return false;
             }
-            if (!waitForComponent(2235, expectedValue, 3000)) {
+            if (!waitForComponent(INPUT_VARC, field.expectedValue, 3000)) {
                 return false;
             }
             Execution.delay(RandomGenerator.nextInt(700, 1200));
         } else {
             Execution.delay(RandomGenerator.nextInt(700, 1200));
         }
-        sendInputAndCancel(Long.toString(amount), inputComponent, 4);
+        sendInputAndCancel(Long.toString(amount), field.inputComponent, CANCEL_INPUT_CODE);
         return true;
     }
 
@@ -268,12 +441,12 @@ public class GrandExchange {
             return false;
         }
 
-        if (!isInsideOffer() && !clickBuyComponent()) {
+        if (!readOfferState().isInsideOffer() && !clickBuyComponent()) {
             ScriptConsole.println("Failed to enter buy offer...");
             return false;
         }
         Execution.delay(RandomGenerator.nextInt(1200, 1800));
-        if (!isInsideOffer()) {
+        if (!readOfferState().isInsideOffer()) {
             ScriptConsole.println("Failed to enter the offer interface.");
             return false;
         }
@@ -283,7 +456,7 @@ public class GrandExchange {
         boolean okQty = Execution.delayUntil(10000L, () -> setQuantity(quantity));
 
         if (okItem && okPrice && okQty && clickConfirm()) {
-            boolean completed = Execution.delayUntil(5000L, () -> !isInsideOffer());
+            boolean completed = Execution.delayUntil(5000L, () -> !readOfferState().isInsideOffer());
             if (completed) {
                 ScriptConsole.println("Buy offer complete");
                 return true;
@@ -300,7 +473,7 @@ public class GrandExchange {
             ScriptConsole.println("Grand Exchange is not open.");
             return false;
         }
-        if (isInsideOffer()) return true;
+        if (readOfferState().isInsideOffer()) return true;
 
         int empty = findEmptySlot();
         if (empty == -1) {
@@ -308,32 +481,18 @@ public class GrandExchange {
             return false;
         }
 
-        int[] compIdx = {15, 36, 57, 78, 102, 126, 150, 174};
-        int uid = ComponentQuery
-                .newQuery(new int[]{GE_INTERFACE})
-                .componentIndex(new int[]{compIdx[empty - 1]})
-                .results().first()
-                .getInterfaceIndex() << 16
-                | ComponentQuery
-                .newQuery(new int[]{GE_INTERFACE})
-                .componentIndex(new int[]{compIdx[empty - 1]})
-                .results().first()
-                .getComponentIndex();
-
-        if (MiniMenu.interact(
-                ComponentAction.COMPONENT.getType(),
-                1, -1,
-                uid
-        )) {
-            return Execution.delayUntil(3000L, GrandExchange::isInsideOffer);
+        if (openBuyOffer(empty)) {
+            return Execution.delayUntil(3000L, () -> readOfferState().isInsideOffer());
         }
         ScriptConsole.println("Failed to interact with buy component.");
         return false;
     }
 
     public static int findEmptySlot() {
+        invalidateSlotScan();
+        var scan = scanSlots();
         for (int i = 1; i <= 8; i++) {
-            if (getSlotStatus(i) == SlotStatus.EMPTY_OFFER) {
+            if (scan.getSlot(i).getStatus() == SlotStatus.EMPTY_OFFER) {
                 return i;
             }
         }
@@ -372,6 +531,325 @@ public class GrandExchange {
         );
     }
 
+    /**
+     * The offer being edited in the Grand Exchange, read from varps 135 to 139 in one pass.
+     */
+    public static final class OfferState {
+        private static final int TYPE_NONE = -1, TYPE_BUY = 0, TYPE_SELL = 1;
+
+        private final long tick;
+        private final int type;
+        private final int itemId;
+        private final int quantity;
+        private final int price;
+        private final int slot;
+
+        private OfferState(long tick, int type, int itemId, int quantity, int price, int slot) {
+            this.tick = tick;
+            this.type = type;
+            this.itemId = itemId;
+            this.quantity = quantity;
+            this.price = price;
+            this.slot = slot;
+        }
+
+        static OfferState read(long tick) {
+            int type = VarManager.getVarpValue(139);
+            return type == TYPE_NONE
+                    ? new OfferState(tick, TYPE_NONE, -1, -1, -1, -1)
+                    : new OfferState(tick, type, VarManager.getVarpValue(135), VarManager.getVarpValue(136),
+                    VarManager.getVarpValue(137), VarManager.getVarpValue(138) + 1);
+        }
+
+        /**
+         * Gets the tick the varps were read on.
+         *
+         * @return the tick
+         */
+        public long getTick() {
+            return tick;
+        }
+
+        public boolean isInsideOffer() {
+            return type != TYPE_NONE;
+        }
+
+        public boolean isBuyOffer() {
+            return type == TYPE_BUY;
+        }
+
+        public boolean isSellOffer() {
+            return type == TYPE_SELL;
+        }
+
+        /**
+         * Gets the item selected in the offer.
+         *
+         * @return the item id, or -1 if no offer is open
+         */
+        public int getItemId() {
+            return itemId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+
+        /**
+         * Gets the slot the offer is being placed in.
+         *
+         * @return the slot from 1 to 8, or -1 if no offer is open
+         */
+        public int getSelectedSlot() {
+            return slot;
+        }
+
+        /**
+         * Gets the price per item multiplied by the quantity.
+         *
+         * @return the total, or -1 if no offer is open
+         */
+        public long getTotalPrice() {
+            return isInsideOffer() ? (long) quantity * price : -1;
+        }
+
+        @Override
+        public String toString() {
+            return "OfferState{type=" + (isBuyOffer() ? "buy" : isSellOffer() ? "sell" : type == TYPE_NONE ? "none" : type)
+                    + ", itemId=" + itemId + ", quantity=" + quantity + ", price=" + price + ", slot=" + slot + "}";
+        }
+    }
+
+    /**
+     * All eight offer slots as read on one tick.
+     */
+    public static final class SlotScan {
+        private final long tick;
+        private final OfferSlot[] slots;
+        private final int changedMask;
+
+        private SlotScan(long tick, OfferSlot[] slots, int changedMask) {
+            this.tick = tick;
+            this.slots = slots;
+            this.changedMask = changedMask;
+        }
+
+        private static SlotScan read(long tick, SlotScan previous) {
+            var comps = new Component[SLOT_COMPONENTS.length];
+            var textComps = new Component[SLOT_COMPONENTS.length];
+            var itemComps = new Component[SLOT_COMPONENTS.length];
+            for (Component component : ComponentQuery.newQuery(GE_INTERFACE).componentIndex(SLOT_COMPONENTS).results()) {
+                int index = slotIndexOf(component.getComponentIndex());
+                if (index == -1) {
+                    continue;
+                }
+                int sub = component.getSubComponentIndex();
+                if (sub == -1) {
+                    comps[index] = component;
+                } else if (sub == SLOT_TEXT_SUB_COMPONENT) {
+                    textComps[index] = component;
+                } else if (itemComps[index] == null && component.getItemId() != -1) {
+                    itemComps[index] = component;
+                }
+            }
+            var slots = new OfferSlot[SLOT_COMPONENTS.length];
+            int changedMask = 0;
+            for (int i = 0; i < slots.length; i++) {
+                var status = getSlotStatus(comps[i], textComps[i]);
+                var itemComp = status == SlotStatus.EMPTY_OFFER ? null : itemComps[i];
+                var collection = InventorySnapshots.current(SLOT_QUERY_MAP.get(i + 1));
+                slots[i] = new OfferSlot(i + 1, status,
+                        itemComp != null ? itemComp.getItemId() : -1,
+                        itemComp != null ? itemComp.getItemAmount() : 0,
+                        textComps[i] != null ? textComps[i].getText() : null,
+                        collection.getItems());
+                if (previous == null || !slots[i].sameAs(previous.slots[i])) {
+                    changedMask |= 1 << i;
+                }
+            }
+            return new SlotScan(tick, slots, changedMask);
+        }
+
+        private static int slotIndexOf(int componentIndex) {
+            for (int i = 0; i < SLOT_COMPONENTS.length; i++) {
+                if (SLOT_COMPONENTS[i] == componentIndex) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private SlotScan expire() {
+            return new SlotScan(-1, slots, changedMask);
+        }
+
+        public long getTick() {
+            return tick;
+        }
+
+        /**
+         * Gets an offer slot.
+         *
+         * @param slot the slot, from 1 to 8
+         * @return the slot
+         */
+        public OfferSlot getSlot(int slot) {
+            return slots[slot - 1];
+        }
+
+        public List<OfferSlot> getSlots() {
+            return List.of(slots);
+        }
+
+        /**
+         * Checks whether a slot differs from the previous scan.
+         *
+         * @param slot the slot, from 1 to 8
+         * @return true if its status, item, quantity, text or collection box changed
+         */
+        public boolean hasChanged(int slot) {
+            return (changedMask & (1 << (slot - 1))) != 0;
+        }
+
+        public boolean hasChanges() {
+            return changedMask != 0;
+        }
+
+        /**
+         * Gets the slots that differ from the previous scan.
+         *
+         * @return the slot numbers, from 1 to 8
+         */
+        public int[] getChangedSlots() {
+            int[] changed = new int[Integer.bitCount(changedMask)];
+            for (int i = 0, n = 0; i < slots.length; i++) {
+                if ((changedMask & (1 << i)) != 0) {
+                    changed[n++] = i + 1;
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * One offer slot from a {@link SlotScan}.
+     */
+    public static final class OfferSlot {
+        private final int slot;
+        private final SlotStatus status;
+        private final int itemId;
+        private final int quantity;
+        private final String text;
+        private final List<Item> collection;
+
+        private OfferSlot(int slot, SlotStatus status, int itemId, int quantity, String text, List<Item> collection) {
+            this.slot = slot;
+            this.status = status;
+            this.itemId = itemId;
+            this.quantity = quantity;
+            this.text = text;
+            this.collection = collection;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public SlotStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Gets the item the offer is for.
+         *
+         * @return the item id, or -1 for an empty slot
+         */
+        public int getItemId() {
+            return itemId;
+        }
+
+        /**
+         * Gets the amount shown on the offer's item icon.
+         *
+         * @return the amount, or 0 for an empty slot
+         */
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Gets the items waiting to be collected from the slot.
+         *
+         * @return the items, the same as {@link GrandExchange#getItemsInSlot(int)}
+         */
+        public List<Item> getCollection() {
+            return collection;
+        }
+
+        /**
+         * Gets how much of the given item is waiting to be collected, such as the bought item for a buy offer or
+         * coins for a sell offer.
+         *
+         * @param itemId the item id
+         * @return the total stack size
+         */
+        public long getCollectable(int itemId) {
+            long amount = 0;
+            for (Item item : collection) {
+                if (item.getId() == itemId) {
+                    amount += item.getStackSize();
+                }
+            }
+            return amount;
+        }
+
+        private boolean sameAs(OfferSlot other) {
+            if (status != other.status || itemId != other.itemId || quantity != other.quantity
+                    || !Objects.equals(text, other.text) || collection.size() != other.collection.size()) {
+                return false;
+            }
+            for (int i = 0; i < collection.size(); i++) {
+                var a = collection.get(i);
+                var b = other.collection.get(i);
+                if (a.getId() != b.getId() || a.getStackSize() != b.getStackSize()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "OfferSlot{slot=" + slot + ", status=" + status + ", itemId=" + itemId + ", quantity=" + quantity + "}";
+        }
+    }
+
+    /**
+     * An editable field of the open offer, with the components used to type into it.
+     */
+    public enum OfferField {
+        QUANTITY(6881517, 6881514, 6881515),
+        PRICE(6881558, 6881555, 6881556);
+
+        private final int interactComponent;
+        private final int expectedValue;
+        private final int inputComponent;
+
+        OfferField(int interactComponent, int expectedValue, int inputComponent) {
+            this.interactComponent = interactComponent;
+            this.expectedValue = expectedValue;
+            this.inputComponent = inputComponent;
+        }
+    }
+
     public enum SlotStatus {
         SUCCESSFUL,
         FAILED,
@@ -0,0 +1,202 @@
+package net.botwithus.api.game.hud.grandexchange;
+
+/**
+ * A buy or sell order handled by a {@link GrandExchangePipeline}.
+ * <p>
+ * The pipeline may place an order more than once, for example after re-pricing it, so the filled amount is
+ * counted across every offer placed for it.
+ */
+public final class GrandExchangeOrder {
+    public enum Type {
+        BUY,
+        SELL
+    }
+
+    public enum State {
+        QUEUED,
+        PLACING,
+        ACTIVE,
+        FILLED,
+        ABORTING,
+        COMPLETE,
+        FAILED,
+        CANCELLED
+    }
+
+    private final Type type;
+    private final int itemId;
+    private final int quantity;
+
+    private int price;
+    private int nextPrice = -1;
+    private State state = State.QUEUED;
+    private int slot = -1;
+    private int filled;
+    private int slotFilled;
+    private int slotQuantity;
+    private int attempts;
+    private int repriceCount;
+    private boolean cancelRequested;
+    private long placedTick = -1;
+    private long completedMillis = -1;
+
+    private GrandExchangeOrder(Type type, int itemId, int quantity, int price) {
+        if (quantity <= 0 || price <= 0) {
+            throw new IllegalArgumentException("Quantity and price must be positive");
+        }
+        this.type = type;
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public static GrandExchangeOrder buy(int itemId, int quantity, int price) {
+        return new GrandExchangeOrder(Type.BUY, itemId, quantity, price);
+    }
+
+    public static GrandExchangeOrder sell(int itemId, int quantity, int price) {
+        return new GrandExchangeOrder(Type.SELL, itemId, quantity, price);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getItemId() {
+        return itemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public synchronized int getPrice() {
+        return price;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the slot the order is placed in.
+     *
+     * @return the slot from 1 to 8, or -1 if it is not placed
+     */
+    public synchronized int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Gets how much of the order has been bought or sold, as far as the slot's collection box shows.
+     *
+     * @return the filled amount
+     */
+    public synchronized int getFilled() {
+        return Math.min(quantity, filled + slotFilled);
+    }
+
+    public synchronized int getRemaining() {
+        return quantity - getFilled();
+    }
+
+    /**
+     * Gets the number of times the order was placed and failed before it reached its slot.
+     *
+     * @return the attempt count
+     */
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+
+    public synchronized int getRepriceCount() {
+        return repriceCount;
+    }
+
+    /**
+     * Gets the tick the current offer for this order was confirmed on.
+     *
+     * @return the tick, or -1 if it is not placed
+     */
+    public synchronized long getPlacedTick() {
+        return placedTick;
+    }
+
+    public synchronized long getCompletedMillis() {
+        return completedMillis;
+    }
+
+    public synchronized boolean isDone() {
+        return state == State.COMPLETE || state == State.FAILED || state == State.CANCELLED;
+    }
+
+    /**
+     * Cancels the order. A queued order is dropped straight away; a placed one is aborted and collected by the
+     * pipeline, keeping what was already filled.
+     */
+    public synchronized void cancel() {
+        if (state == State.QUEUED) {
+            state = State.CANCELLED;
+        } else if (!isDone()) {
+            cancelRequested = true;
+        }
+    }
+
+    synchronized boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    synchronized void setState(State state) {
+        this.state = state;
+        if (state == State.COMPLETE || state == State.FAILED || state == State.CANCELLED) {
+            completedMillis = System.currentTimeMillis();
+        }
+    }
+
+    synchronized void placed(int slot, long tick) {
+        this.slot = slot;
+        this.placedTick = tick;
+        this.slotFilled = 0;
+        this.slotQuantity = quantity - filled;
+        this.state = State.ACTIVE;
+    }
+
+    /**
+     * Gets the quantity the current offer was placed for, which is what was left of the order at the time.
+     */
+    synchronized int getSlotQuantity() {
+        return slotQuantity;
+    }
+
+    synchronized void setSlotFilled(int slotFilled) {
+        this.slotFilled = Math.max(0, slotFilled);
+    }
+
+    /**
+     * Moves the amount filled by the current offer into the total once its slot has been collected.
+     */
+    synchronized void released() {
+        filled = Math.min(quantity, filled + slotFilled);
+        slotFilled = 0;
+        slot = -1;
+        placedTick = -1;
+        if (nextPrice != -1) {
+            price = nextPrice;
+            nextPrice = -1;
+            repriceCount++;
+        }
+    }
+
+    synchronized void requestPrice(int nextPrice) {
+        this.nextPrice = nextPrice;
+    }
+
+    synchronized void failedAttempt() {
+        attempts++;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GrandExchangeOrder{" + type + " " + getFilled() + "/" + quantity + " x " + itemId + " @ " + price + ", " + state + "}";
+    }
+}
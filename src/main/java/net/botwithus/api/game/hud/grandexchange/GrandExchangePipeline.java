@@ -0,0 +1,438 @@
+package net.botwithus.api.game.hud.grandexchange;
+
+import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.GameTick;
+import net.botwithus.api.game.hud.GrandExchange;
+import net.botwithus.api.game.hud.GrandExchange.OfferField;
+import net.botwithus.api.game.hud.GrandExchange.SlotScan;
+import net.botwithus.api.game.hud.GrandExchange.SlotStatus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps the Grand Exchange slots busy with a queue of {@link GrandExchangeOrder}s without blocking the script.
+ * <p>
+ * Once started, the pipeline runs from {@link GameTick} and sends at most one action per tick. It places queued
+ * orders in free slots, tracks fills from {@link GrandExchange#scanSlots()}, collects finished slots in batches,
+ * and aborts and re-places offers that its {@link RepricePolicy} asks to re-price. The Grand Exchange must already
+ * be open; the pipeline waits while it is closed.
+ */
+public final class GrandExchangePipeline {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int COINS = 995;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int COLLECT_TIMEOUT_TICKS = 3;
+
+    private final Deque<GrandExchangeOrder> queue = new ArrayDeque<>();
+    private final GrandExchangeOrder[] slots = new GrandExchangeOrder[8];
+    private final LongConsumer listener = this::update;
+
+    private RepricePolicy repricePolicy = RepricePolicy.never();
+    private boolean collectToBank = true;
+    private int collectBatchSize = 2;
+    private int slotCount = 8;
+
+    private Placement placement;
+    private long collectTick = -1;
+    private long startedMillis = -1;
+    private int completed;
+
+    /**
+     * Queues an order behind the ones already waiting.
+     *
+     * @param order the order
+     * @return the order
+     */
+    public synchronized GrandExchangeOrder submit(GrandExchangeOrder order) {
+        queue.addLast(order);
+        return order;
+    }
+
+    public synchronized void start() {
+        if (startedMillis == -1) {
+            startedMillis = System.currentTimeMillis();
+        }
+        GameTick.addListener(listener);
+    }
+
+    /**
+     * Stops driving the pipeline. Placed offers are left in their slots and picked up again on the next start.
+     */
+    public synchronized void stop() {
+        GameTick.removeListener(listener);
+        if (placement != null) {
+            queue.addFirst(placement.order);
+            placement.order.setState(GrandExchangeOrder.State.QUEUED);
+            placement = null;
+        }
+    }
+
+    public synchronized void setRepricePolicy(RepricePolicy repricePolicy) {
+        this.repricePolicy = repricePolicy;
+    }
+
+    /**
+     * Sets where finished slots are collected to. Offers aborted to be re-priced are always collected to the
+     * backpack, so they can be placed again.
+     *
+     * @param collectToBank true for the bank, false for the backpack
+     */
+    public synchronized void setCollectToBank(boolean collectToBank) {
+        this.collectToBank = collectToBank;
+    }
+
+    /**
+     * Sets how many finished slots to wait for before collecting. Slots are collected sooner if a queued order
+     * needs one, if no other offers are still active, or if an offer is waiting to be re-priced.
+     *
+     * @param collectBatchSize the number of finished slots
+     */
+    public synchronized void setCollectBatchSize(int collectBatchSize) {
+        this.collectBatchSize = Math.max(1, collectBatchSize);
+    }
+
+    /**
+     * Limits the slots the pipeline uses, for accounts that only have the first three.
+     *
+     * @param slotCount the number of slots, from 1 to 8
+     */
+    public synchronized void setSlotCount(int slotCount) {
+        this.slotCount = Math.max(1, Math.min(8, slotCount));
+    }
+
+    public synchronized List<GrandExchangeOrder> getQueuedOrders() {
+        return new ArrayList<>(queue);
+    }
+
+    /**
+     * Gets the orders that are placed or being placed.
+     *
+     * @return the orders, by slot
+     */
+    public synchronized List<GrandExchangeOrder> getActiveOrders() {
+        List<GrandExchangeOrder> orders = new ArrayList<>();
+        if (placement != null) {
+            orders.add(placement.order);
+        }
+        for (GrandExchangeOrder order : slots) {
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    public synchronized boolean isIdle() {
+        return queue.isEmpty() && getActiveOrders().isEmpty();
+    }
+
+    public synchronized int getCompletedCount() {
+        return completed;
+    }
+
+    /**
+     * Gets the completed orders per hour since the pipeline was first started.
+     *
+     * @return the rate, or 0 if it has not been started
+     */
+    public synchronized double getOrdersPerHour() {
+        if (startedMillis == -1) {
+            return 0;
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedMillis);
+        return completed * 3_600_000.0 / elapsed;
+    }
+
+    synchronized void update(long tick) {
+        if (!GrandExchange.isGeOpen()) {
+            return;
+        }
+        if (placement != null) {
+            placement.poll(tick);
+            return;
+        }
+        var scan = GrandExchange.scanSlots();
+        track(scan);
+        if (collect(scan, tick) || reprice(tick) || place(scan)) {
+            GrandExchange.invalidateSlotScan();
+        }
+    }
+
+    private void track(SlotScan scan) {
+        for (int i = 0; i < slots.length; i++) {
+            var order = slots[i];
+            if (order == null) {
+                continue;
+            }
+            var slot = scan.getSlot(i + 1);
+            if (slot.getStatus() == SlotStatus.EMPTY_OFFER) {
+                // Collected, either by us or by the player
+                slots[i] = null;
+                release(order);
+                continue;
+            }
+            if (!scan.hasChanged(i + 1)) {
+                continue;
+            }
+            if (order.getType() == GrandExchangeOrder.Type.BUY) {
+                order.setSlotFilled((int) Math.min(Integer.MAX_VALUE, slot.getCollectable(order.getItemId())));
+            } else if (slot.getStatus() == SlotStatus.FAILED) {
+                // An aborted sell hands back whatever did not sell, so the difference is exact
+                order.setSlotFilled((int) Math.max(0, order.getSlotQuantity() - slot.getCollectable(order.getItemId())));
+            } else {
+                // Sales above the asking price pay more, so this is only an upper bound until the offer ends
+                order.setSlotFilled((int) Math.min(order.getSlotQuantity(), slot.getCollectable(COINS) / order.getPrice()));
+            }
+            if (slot.getStatus() == SlotStatus.SUCCESSFUL) {
+                order.setSlotFilled(order.getQuantity());
+                order.setState(GrandExchangeOrder.State.FILLED);
+            } else if (slot.getStatus() == SlotStatus.FAILED) {
+                order.setState(GrandExchangeOrder.State.ABORTING);
+            }
+        }
+    }
+
+    private void release(GrandExchangeOrder order) {
+        int price = order.getPrice(), filled = order.getFilled();
+        order.released();
+        if (order.getFilled() > filled || order.getRemaining() == 0) {
+            // The offer traded at this price, which makes it a better observation than the guide price
+            ItemPrices.observe(order.getItemId(), price, ItemPrices.Source.GRAND_EXCHANGE);
+        }
+        if (order.getRemaining() == 0) {
+            order.setState(GrandExchangeOrder.State.COMPLETE);
+            completed++;
+            log.atInfo().log("[GrandExchange] Completed " + order);
+        } else if (order.isCancelRequested()) {
+            order.setState(GrandExchangeOrder.State.CANCELLED);
+        } else {
+            // Aborted for a new price, so place the rest before anything else
+            order.setState(GrandExchangeOrder.State.QUEUED);
+            queue.addFirst(order);
+        }
+    }
+
+    private boolean collect(SlotScan scan, long tick) {
+        if (collectTick != -1 && tick - collectTick < COLLECT_TIMEOUT_TICKS) {
+            return false;
+        }
+        int finished = 0, active = 0;
+        boolean replacing = false;
+        for (GrandExchangeOrder order : slots) {
+            if (order == null) {
+                continue;
+            }
+            if (order.getState() == GrandExchangeOrder.State.FILLED || order.getState() == GrandExchangeOrder.State.ABORTING
+                    && scan.getSlot(order.getSlot()).getStatus() == SlotStatus.FAILED) {
+                finished++;
+                replacing |= order.getState() == GrandExchangeOrder.State.ABORTING && !order.isCancelRequested();
+            } else {
+                active++;
+            }
+        }
+        // Wait for a batch unless nothing else is going to finish, a queued order needs the slot, or an aborted
+        // offer is waiting to be placed again
+        if (finished == 0 || finished < collectBatchSize && active > 0 && !replacing
+                && (queue.isEmpty() || freeSlot(scan) != -1)) {
+            return false;
+        }
+        collectTick = tick;
+        // A re-placed sell needs its items back in the backpack, and a re-placed buy its coins in the money pouch
+        return collectToBank && !replacing ? GrandExchange.collectToBank() : GrandExchange.collectToInventory();
+    }
+
+    private boolean reprice(long tick) {
+        for (GrandExchangeOrder order : slots) {
+            if (order == null || order.getState() != GrandExchangeOrder.State.ACTIVE) {
+                continue;
+            }
+            if (order.isCancelRequested()) {
+                return abort(order);
+            }
+            int price = repricePolicy.reprice(order, tick - order.getPlacedTick());
+            if (price > 0 && price != order.getPrice()) {
+                log.atInfo().log("[GrandExchange] Re-pricing " + order + " to " + price);
+                order.requestPrice(price);
+                return abort(order);
+            }
+        }
+        return false;
+    }
+
+    private boolean abort(GrandExchangeOrder order) {
+        if (GrandExchange.abortOffer(order.getSlot())) {
+            order.setState(GrandExchangeOrder.State.ABORTING);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean place(SlotScan scan) {
+        GrandExchangeOrder order;
+        while ((order = queue.peekFirst()) != null && order.isDone()) {
+            queue.removeFirst();
+        }
+        if (order == null) {
+            return false;
+        }
+        int slot = freeSlot(scan);
+        if (slot == -1) {
+            return false;
+        }
+        queue.removeFirst();
+        if (order.getType() == GrandExchangeOrder.Type.BUY && (long) order.getPrice() * order.getRemaining() > GrandExchange.getMoneyPouchValue()) {
+            log.atInfo().log("[GrandExchange] Can't afford " + order);
+            order.setState(GrandExchangeOrder.State.FAILED);
+            return false;
+        }
+        order.setState(GrandExchangeOrder.State.PLACING);
+        placement = new Placement(order, slot);
+        placement.poll(GameTick.current());
+        return true;
+    }
+
+    private int freeSlot(SlotScan scan) {
+        for (int i = 0; i < slotCount; i++) {
+            if (slots[i] == null && scan.getSlot(i + 1).getStatus() == SlotStatus.EMPTY_OFFER) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private enum Phase {
+        OPEN,
+        ITEM,
+        PRICE,
+        PRICE_SEND,
+        PRICE_CLOSE,
+        QUANTITY,
+        QUANTITY_SEND,
+        QUANTITY_CLOSE,
+        CONFIRM
+    }
+
+    /**
+     * Fills in and confirms one offer, one interaction per tick.
+     */
+    private final class Placement {
+        private final GrandExchangeOrder order;
+        private final int slot;
+        private final int amount;
+        private Phase phase = Phase.OPEN;
+        private boolean acted;
+        private boolean guideObserved;
+        private long phaseTick;
+        private int selectedSlot = -1;
+
+        private Placement(GrandExchangeOrder order, int slot) {
+            this.order = order;
+            this.slot = slot;
+            this.amount = order.getRemaining();
+        }
+
+        private void poll(long tick) {
+            while (placement == this) {
+                var state = GrandExchange.readOfferState();
+                if (phase == Phase.PRICE && !guideObserved && state.getItemId() == order.getItemId() && state.getPrice() > 0) {
+                    // The price starts at the guide price when the item is picked, before it is edited
+                    guideObserved = true;
+                    ItemPrices.observe(order.getItemId(), state.getPrice(), ItemPrices.Source.GUIDE);
+                }
+                boolean advanced = switch (phase) {
+                    case OPEN -> step(tick, state.isInsideOffer(), () -> order.getType() == GrandExchangeOrder.Type.BUY
+                            ? GrandExchange.openBuyOffer(slot) : GrandExchange.openSellOffer(slot), 5, Phase.ITEM);
+                    case ITEM -> step(tick, state.getItemId() == order.getItemId(), () -> GrandExchange.selectItem(order.getItemId()), 4, Phase.PRICE);
+                    case PRICE -> state.getPrice() == order.getPrice()
+                            ? next(Phase.QUANTITY)
+                            : step(tick, GrandExchange.isInputOpen(OfferField.PRICE), () -> GrandExchange.openInput(OfferField.PRICE), 3, Phase.PRICE_SEND);
+                    case PRICE_SEND -> send(OfferField.PRICE, order.getPrice(), Phase.PRICE_CLOSE);
+                    case PRICE_CLOSE -> step(tick, acted && state.getPrice() == order.getPrice(), this::close, 3, Phase.QUANTITY);
+                    case QUANTITY -> state.getQuantity() == amount
+                            ? next(Phase.CONFIRM)
+                            : step(tick, GrandExchange.isInputOpen(OfferField.QUANTITY), () -> GrandExchange.openInput(OfferField.QUANTITY), 3, Phase.QUANTITY_SEND);
+                    case QUANTITY_SEND -> send(OfferField.QUANTITY, amount, Phase.QUANTITY_CLOSE);
+                    case QUANTITY_CLOSE -> step(tick, acted && state.getQuantity() == amount, this::close, 3, Phase.CONFIRM);
+                    case CONFIRM -> step(tick, acted && !state.isInsideOffer(), () -> {
+                        selectedSlot = state.getSelectedSlot();
+                        return GrandExchange.clickConfirm();
+                    }, 5, null);
+                };
+                if (!advanced) {
+                    return;
+                }
+                if (phase == null) {
+                    finish();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Acts once, then waits for the condition.
+         *
+         * @return true if the phase is over and the next one can run this tick
+         */
+        private boolean step(long tick, boolean done, BooleanSupplier action, int timeoutTicks, Phase next) {
+            if (done) {
+                return next(next);
+            }
+            if (!acted) {
+                if (!action.getAsBoolean()) {
+                    fail();
+                    return false;
+                }
+                acted = true;
+                phaseTick = tick;
+            } else if (tick - phaseTick >= timeoutTicks) {
+                fail();
+            }
+            return false;
+        }
+
+        private boolean send(OfferField field, long value, Phase next) {
+            GrandExchange.sendInput(field, value);
+            // The input is applied when the box closes on the next tick
+            next(next);
+            return false;
+        }
+
+        private boolean close() {
+            GrandExchange.closeInput();
+            return true;
+        }
+
+        private boolean next(Phase next) {
+            phase = next;
+            acted = false;
+            return true;
+        }
+
+        private void finish() {
+            placement = null;
+            int placedSlot = selectedSlot > 0 ? selectedSlot : slot;
+            slots[placedSlot - 1] = order;
+            order.placed(placedSlot, GameTick.current());
+            GrandExchange.invalidateSlotScan();
+            log.atInfo().log("[GrandExchange] Placed " + order + " in slot " + placedSlot);
+        }
+
+        private void fail() {
+            placement = null;
+            order.failedAttempt();
+            if (order.getAttempts() >= MAX_ATTEMPTS) {
+                log.atInfo().log("[GrandExchange] Giving up on " + order + " in phase " + phase);
+                order.setState(GrandExchangeOrder.State.FAILED);
+            } else {
+                order.setState(GrandExchangeOrder.State.QUEUED);
+                queue.addFirst(order);
+            }
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package net.botwithus.api.game.hud.grandexchange;
+
+import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.util.collection.IntIntMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Observed item prices, kept in an append-only file and a small in-memory cache.
+ * <p>
+ * Every observation is appended to {@code prices.bin} in {@link #setDirectory(Path) the price directory}, and each
+ * record points back at the previous record for the same item, so an item's recent history is read without scanning
+ * the file. The file is read into memory in chunks when it is opened and each record is written through as it is
+ * appended, so the file is never mapped. Once the log grows past twice its live size it is compacted to the last
+ * {@value #WINDOW} records of every item and the file is rewritten, so memory follows the number of items rather than
+ * the number of observations. The last {@value #WINDOW} observations of recently used items are cached by
+ * item id with LRU and TTL eviction; {@link #getLatest(int)} and {@link #getMedian(int)} are answered from that cache
+ * in constant time. Everything works offline from the local file.
+ * <p>
+ * While {@link #setEnabled(boolean) enabled}, {@link GrandExchangePipeline} records the guide price shown when it
+ * picks the item for an offer and the price of every order it completes. If another process already holds the file,
+ * new prices are only kept in memory, on top of what was read from the file.
+ */
+public final class ItemPrices {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int MAGIC = 0x42575031; // "BWP1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    private static final int RECORD_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final int INITIAL_RECORDS = 4096;
+    private static final int WINDOW = 15;
+    private static final int COMPACT_RECORDS = 1 << 16;
+    private static final int READ_RECORDS = 4096;
+    private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    public enum Source {
+        GRAND_EXCHANGE,
+        GUIDE,
+        IMPORT,
+        MANUAL
+    }
+
+    private static volatile boolean enabled = false;
+    private static Path directory = Paths.get(System.getProperty("user.home"), "BotWithUs", "prices");
+    private static long ttlMillis = 10 * 60_000;
+    private static int cacheCapacity = 2048;
+
+    private static FileChannel channel;
+    private static FileLock lock;
+    private static ByteBuffer buffer;
+    private static boolean opened;
+    private static int count;
+    private static int compactAt = COMPACT_RECORDS;
+    private static boolean rewritePending;
+    private static final IntIntMap lastRecords = new IntIntMap();
+
+    private static final IntIntMap cacheSlots = new IntIntMap();
+    private static Series[] series = new Series[0];
+    private static int[] newer = new int[0];
+    private static int[] older = new int[0];
+    private static int newest = -1;
+    private static int oldest = -1;
+    private static int cacheSize;
+
+    private ItemPrices() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the automatic observations from the Grand Exchange on or off. {@link #record(int, int, Source)} works
+     * either way.
+     *
+     * @param enabled whether to record prices automatically
+     */
+    public static void setEnabled(boolean enabled) {
+        ItemPrices.enabled = enabled;
+    }
+
+    /**
+     * Sets the directory holding the price file, closing the current file.
+     *
+     * @param directory the directory
+     */
+    public static synchronized void setDirectory(Path directory) {
+        close();
+        ItemPrices.directory = directory;
+    }
+
+    /**
+     * Sets how long a cached item stays in memory without being read before it is read from the file again.
+     *
+     * @param ttlMillis the time to live in milliseconds
+     */
+    public static synchronized void setTtlMillis(long ttlMillis) {
+        ItemPrices.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Sets how many items the cache holds before the least recently used one is dropped.
+     *
+     * @param cacheCapacity the number of items
+     */
+    public static synchronized void setCacheCapacity(int cacheCapacity) {
+        ItemPrices.cacheCapacity = Math.max(1, cacheCapacity);
+        clearCache();
+    }
+
+    /**
+     * Records an observed price.
+     *
+     * @param itemId the item id
+     * @param price  the price per item
+     * @param source where the price came from
+     */
+    public static synchronized void record(int itemId, int price, Source source) {
+        if (itemId < 0 || price <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        append(itemId, price, now, source);
+        int slot = cacheSlots.get(itemId, -1);
+        if (slot != -1) {
+            series[slot].add(price, now);
+        }
+    }
+
+    /**
+     * Records an observation only if automatic recording is enabled.
+     *
+     * @param itemId the item id
+     * @param price  the price per item
+     * @param source where the price came from
+     */
+    public static void observe(int itemId, int price, Source source) {
+        if (enabled) {
+            record(itemId, price, source);
+        }
+    }
+
+    /**
+     * Records a snapshot of prices from elsewhere, such as an exported price list.
+     *
+     * @param prices the item ids mapped to their prices
+     */
+    public static synchronized void importSnapshot(Map<Integer, Integer> prices) {
+        for (var entry : prices.entrySet()) {
+            record(entry.getKey(), entry.getValue(), Source.IMPORT);
+        }
+        if (lock != null) {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                log.atWarning().withCause(e).log("Failed to flush the price file");
+            }
+        }
+    }
+
+    /**
+     * Gets the most recent price observed for an item.
+     *
+     * @param itemId the item id
+     * @return the price, or -1 if none was observed
+     */
+    public static synchronized int getLatest(int itemId) {
+        var series = get(itemId);
+        return series != null ? series.latest : -1;
+    }
+
+    /**
+     * Gets when the most recent price for an item was observed.
+     *
+     * @param itemId the item id
+     * @return the time in epoch milliseconds, or -1 if none was observed
+     */
+    public static synchronized long getLatestMillis(int itemId) {
+        var series = get(itemId);
+        return series != null ? series.latestMillis : -1;
+    }
+
+    /**
+     * Gets the median of the last {@value #WINDOW} prices observed for an item, which ignores the odd outlier.
+     *
+     * @param itemId the item id
+     * @return the median price, or -1 if none was observed
+     */
+    public static synchronized int getMedian(int itemId) {
+        var series = get(itemId);
+        return series != null ? series.median : -1;
+    }
+
+    /**
+     * Gets the value of a stack at the median price.
+     *
+     * @param itemId the item id
+     * @param amount the stack size
+     * @return the value, or 0 if no price was observed
+     */
+    public static long getValue(int itemId, long amount) {
+        int median = getMedian(itemId);
+        return median > 0 ? median * amount : 0;
+    }
+
+    public static synchronized boolean contains(int itemId) {
+        return get(itemId) != null;
+    }
+
+    public static synchronized void clearCache() {
+        cacheSlots.clear();
+        series = new Series[cacheCapacity];
+        newer = new int[cacheCapacity];
+        older = new int[cacheCapacity];
+        newest = -1;
+        oldest = -1;
+        cacheSize = 0;
+    }
+
+    /**
+     * Flushes and closes the price file. It is opened again on the next read or write.
+     */
+    public static synchronized void close() {
+        try {
+            if (lock != null) {
+                channel.force(false);
+            }
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Failed to close the price file");
+        }
+        channel = null;
+        lock = null;
+        buffer = null;
+        opened = false;
+        count = 0;
+        lastRecords.clear();
+        clearCache();
+    }
+
+    private static Series get(int itemId) {
+        long now = System.currentTimeMillis();
+        int slot = cacheSlots.get(itemId, -1);
+        if (slot != -1) {
+            if (now - series[slot].loadedMillis <= ttlMillis) {
+                series[slot].loadedMillis = now;
+                touch(slot);
+                return series[slot];
+            }
+            evict(slot);
+        }
+        open();
+        int record = lastRecords.get(itemId, -1);
+        if (record == -1) {
+            return null;
+        }
+        var loaded = load(itemId, record);
+        loaded.loadedMillis = now;
+        insert(loaded);
+        return loaded;
+    }
+
+    private static Series load(int itemId, int record) {
+        int[] prices = new int[WINDOW];
+        long[] millis = new long[WINDOW];
+        int n = 0;
+        while (record != -1 && n < WINDOW) {
+            int offset = HEADER_SIZE + record * RECORD_SIZE;
+            prices[n] = buffer.getInt(offset + 4);
+            millis[n] = buffer.getLong(offset + 8);
+            record = buffer.getInt(offset + 16);
+            n++;
+        }
+        var loaded = new Series(itemId);
+        for (int i = n - 1; i >= 0; i--) {
+            loaded.add(prices[i], millis[i]);
+        }
+        return loaded;
+    }
+
+    private static void insert(Series loaded) {
+        if (series.length != cacheCapacity) {
+            clearCache();
+        }
+        int slot;
+        if (cacheSize < cacheCapacity) {
+            slot = cacheSize++;
+        } else {
+            slot = oldest;
+            unlink(slot);
+            cacheSlots.remove(series[slot].itemId);
+        }
+        series[slot] = loaded;
+        cacheSlots.put(loaded.itemId, slot);
+        linkNewest(slot);
+    }
+
+    private static void evict(int slot) {
+        unlink(slot);
+        cacheSlots.remove(series[slot].itemId);
+        int last = cacheSize - 1;
+        if (slot != last) {
+            // Move the last slot into the hole so slots stay packed
+            boolean wasNewest = newest == last, wasOldest = oldest == last;
+            series[slot] = series[last];
+            newer[slot] = newer[last];
+            older[slot] = older[last];
+            if (newer[slot] != -1) {
+                older[newer[slot]] = slot;
+            }
+            if (older[slot] != -1) {
+                newer[older[slot]] = slot;
+            }
+            if (wasNewest) {
+                newest = slot;
+            }
+            if (wasOldest) {
+                oldest = slot;
+            }
+            cacheSlots.put(series[slot].itemId, slot);
+        }
+        series[last] = null;
+        cacheSize--;
+    }
+
+    private static void touch(int slot) {
+        if (newest != slot) {
+            unlink(slot);
+            linkNewest(slot);
+        }
+    }
+
+    private static void linkNewest(int slot) {
+        older[slot] = newest;
+        newer[slot] = -1;
+        if (newest != -1) {
+            newer[newest] = slot;
+        }
+        newest = slot;
+        if (oldest == -1) {
+            oldest = slot;
+        }
+    }
+
+    private static void unlink(int slot) {
+        if (newer[slot] != -1) {
+            older[newer[slot]] = older[slot];
+        } else {
+            newest = older[slot];
+        }
+        if (older[slot] != -1) {
+            newer[older[slot]] = newer[slot];
+        } else {
+            oldest = newer[slot];
+        }
+    }
+
+    private static void append(int itemId, int price, long millis, Source source) {
+        open();
+        int offset = put(itemId, price, millis, source.ordinal());
+        if (offset == -1) {
+            log.atWarning().log("Price log is full, dropping a price for item " + itemId);
+            return;
+        }
+        if (lock == null) {
+            return;
+        }
+        try {
+            if (rewritePending) {
+                rewrite();
+            } else {
+                // The count is written last so a half-written record is never read back
+                write(offset, RECORD_SIZE);
+                write(8, 8);
+            }
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Failed to write the price file, prices will only be kept in memory");
+            closeChannel();
+        }
+    }
+
+    /**
+     * Adds a record to the in-memory log.
+     *
+     * @return the offset of the record, or -1 if the log cannot grow any further
+     */
+    private static int put(int itemId, int price, long millis, int source) {
+        if (!reserve()) {
+            return -1;
+        }
+        int offset = HEADER_SIZE + count * RECORD_SIZE;
+        buffer.putInt(offset, itemId);
+        buffer.putInt(offset + 4, price);
+        buffer.putLong(offset + 8, millis);
+        buffer.putInt(offset + 16, lastRecords.get(itemId, -1));
+        buffer.putInt(offset + 20, source);
+        lastRecords.put(itemId, count++);
+        buffer.putLong(8, count);
+        return offset;
+    }
+
+    /**
+     * Makes room for one more record, compacting the log before growing it so memory follows the number of items
+     * rather than the number of observations.
+     */
+    private static boolean reserve() {
+        if (HEADER_SIZE + (long) (count + 1) * RECORD_SIZE <= buffer.capacity()) {
+            return true;
+        }
+        if (count >= compactAt) {
+            compact();
+            if (HEADER_SIZE + (long) (count + 1) * RECORD_SIZE <= buffer.capacity()) {
+                return true;
+            }
+        }
+        if (count >= MAX_RECORDS) {
+            return false;
+        }
+        allocate((int) Math.min(MAX_RECORDS, count * 2L));
+        return true;
+    }
+
+    /**
+     * Drops all but the last {@value #WINDOW} records of every item, keeping the rest in their original order.
+     */
+    private static void compact() {
+        var kept = new IntIntMap();
+        int[] keep = new int[count];
+        int size = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            int itemId = buffer.getInt(HEADER_SIZE + i * RECORD_SIZE);
+            int n = kept.get(itemId, 0);
+            if (n < WINDOW) {
+                kept.put(itemId, n + 1);
+                keep[size++] = i;
+            }
+        }
+        lastRecords.clear();
+        for (int i = 0; i < size; i++) {
+            int from = HEADER_SIZE + keep[size - 1 - i] * RECORD_SIZE;
+            int to = HEADER_SIZE + i * RECORD_SIZE;
+            System.arraycopy(buffer.array(), from, buffer.array(), to, RECORD_SIZE);
+            int itemId = buffer.getInt(to);
+            buffer.putInt(to + 16, lastRecords.get(itemId, -1));
+            lastRecords.put(itemId, i);
+        }
+        count = size;
+        buffer.putLong(8, count);
+        compactAt = Math.max(COMPACT_RECORDS, count * 2);
+        rewritePending = true;
+    }
+
+    private static void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        clearCache();
+        buffer = null;
+        allocate(INITIAL_RECORDS);
+        count = 0;
+        lastRecords.clear();
+        compactAt = COMPACT_RECORDS;
+        rewritePending = false;
+        var file = directory.resolve("prices.bin");
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // Held by another class loader in this process
+                lock = null;
+            }
+            if (lock == null) {
+                log.atWarning().log("Price file is in use by another process, new prices will only be kept in memory: " + file);
+            }
+            long size = channel.size();
+            if (size >= HEADER_SIZE && !load()) {
+                if (lock == null) {
+                    // Only the process holding the lock may replace the file
+                    log.atWarning().log("Ignoring a price file with an unknown format: " + file);
+                    closeChannel();
+                    return;
+                }
+                log.atWarning().log("Moving aside a price file with an unknown format: " + file);
+                moveAside(file.resolveSibling("prices.bin.bad"), size);
+                buffer = null;
+                allocate(INITIAL_RECORDS);
+                count = 0;
+                lastRecords.clear();
+                rewritePending = true;
+            }
+            if (lock != null && (rewritePending || size != HEADER_SIZE + (long) count * RECORD_SIZE)) {
+                rewrite();
+            }
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Failed to open the price file " + file);
+            closeChannel();
+        }
+    }
+
+    /**
+     * Reads the file into memory a chunk of records at a time, compacting as it goes.
+     *
+     * @return false if the file has an unknown format
+     */
+    private static boolean load() throws IOException {
+        var chunk = ByteBuffer.allocate(READ_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        read(chunk.limit(HEADER_SIZE), 0);
+        if (chunk.getInt(0) != MAGIC || chunk.getInt(4) != VERSION) {
+            return false;
+        }
+        long stored = Math.min(chunk.getLong(8), (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+        long position = HEADER_SIZE;
+        while (stored > 0) {
+            int records = (int) Math.min(READ_RECORDS, stored);
+            read(chunk.clear().limit(records * RECORD_SIZE), position);
+            for (int i = 0; i < records; i++) {
+                int offset = i * RECORD_SIZE;
+                int itemId = chunk.getInt(offset);
+                if (itemId >= 0 && put(itemId, chunk.getInt(offset + 4), chunk.getLong(offset + 8), chunk.getInt(offset + 20)) == -1) {
+                    return true;
+                }
+            }
+            stored -= records;
+            position += (long) records * RECORD_SIZE;
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the locked file with the log in memory. The count is cleared first, so a crash part way through leaves
+     * an empty log rather than records pointing at the wrong history.
+     */
+    private static void rewrite() throws IOException {
+        buffer.putLong(8, 0);
+        write(0, HEADER_SIZE);
+        write(HEADER_SIZE, count * RECORD_SIZE);
+        buffer.putLong(8, count);
+        write(8, 8);
+        channel.truncate(HEADER_SIZE + (long) count * RECORD_SIZE);
+        channel.force(false);
+        rewritePending = false;
+    }
+
+    /**
+     * Copies the locked file aside through its own channel, since other handles may not read a locked file.
+     */
+    private static void moveAside(Path target, long size) throws IOException {
+        try (var copy = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, copy);
+            }
+        }
+    }
+
+    private static void allocate(int records) {
+        var grown = ByteBuffer.allocate(HEADER_SIZE + records * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer != null) {
+            grown.put(0, buffer, 0, Math.min(buffer.capacity(), grown.capacity()));
+        } else {
+            grown.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, 0);
+        }
+        buffer = grown;
+    }
+
+    private static void read(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) == -1) {
+                throw new IOException("Price file was truncated while reading");
+            }
+        }
+    }
+
+    private static void write(int offset, int length) throws IOException {
+        var source = buffer.slice(offset, length);
+        while (source.hasRemaining()) {
+            channel.write(source, offset + source.position());
+        }
+    }
+
+    /**
+     * Closes the file but keeps the log in memory, so prices are still recorded and read until {@link #close()}.
+     */
+    private static void closeChannel() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+        }
+        channel = null;
+        lock = null;
+    }
+
+    /**
+     * The last {@value #WINDOW} prices of one item, with the latest price and median kept up to date on every add.
+     */
+    private static final class Series {
+        private final int itemId;
+        private final int[] window = new int[WINDOW];
+        private final int[] sorted = new int[WINDOW];
+        private int size;
+        private int next;
+        private int latest = -1;
+        private long latestMillis = -1;
+        private int median = -1;
+        private long loadedMillis;
+
+        private Series(int itemId) {
+            this.itemId = itemId;
+        }
+
+        private void add(int price, long millis) {
+            window[next] = price;
+            next = (next + 1) % WINDOW;
+            if (size < WINDOW) {
+                size++;
+            }
+            latest = price;
+            latestMillis = millis;
+            System.arraycopy(window, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            median = size % 2 == 1 ? sorted[size / 2] : (int) (((long) sorted[size / 2 - 1] + sorted[size / 2]) / 2);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package net.botwithus.api.game.hud.grandexchange;
+
+/**
+ * Decides when a {@link GrandExchangePipeline} should abort an offer and place the rest of it at a new price.
+ */
+@FunctionalInterface
+public interface RepricePolicy {
+
+    /**
+     * Gets the price the order should be placed at.
+     *
+     * @param order       the placed order
+     * @param activeTicks the ticks since the current offer was confirmed
+     * @return the new price, or the order's current price to leave the offer alone
+     */
+    int reprice(GrandExchangeOrder order, long activeTicks);
+
+    /**
+     * Never re-prices.
+     *
+     * @return the policy
+     */
+    static RepricePolicy never() {
+        return (order, activeTicks) -> order.getPrice();
+    }
+
+    /**
+     * Moves the price towards the market by a percentage each time an offer has been waiting for the given number
+     * of ticks, up when buying and down when selling, by at least 1 coin.
+     *
+     * @param afterTicks the ticks an offer may wait before it is re-priced
+     * @param percent    the percentage to move the price by
+     * @param maxSteps   the most times an order is re-priced
+     * @return the policy
+     */
+    static RepricePolicy step(int afterTicks, double percent, int maxSteps) {
+        return (order, activeTicks) -> {
+            int price = order.getPrice();
+            if (activeTicks < afterTicks || order.getRepriceCount() >= maxSteps) {
+                return price;
+            }
+            if (order.getType() == GrandExchangeOrder.Type.BUY) {
+                return (int) Math.min(Integer.MAX_VALUE, Math.max(price + 1L, (long) Math.ceil(price * (100 + percent) / 100)));
+            }
+            return Math.max(1, Math.min(price - 1, (int) Math.floor(price * (100 - percent) / 100)));
+        };
+    }
+}
@@ -93,6 +93,10 @@ public final class Backpack {
         return BACKPACK.containsAllOf(pattern);
     }
 
+    public static boolean containsAllOf(int... ids) {
+        return BACKPACK.containsAllOf(ids);
+    }
+
     public static boolean containsAnyExcept(String... names) {
         return BACKPACK.containsAnyExcept(names);
     }
@@ -101,6 +105,14 @@ public final class Backpack {
         return BACKPACK.containsAnyExcept(patterns);
     }
 
+    public static boolean containsAnyExcept(int... ids) {
+        return BACKPACK.containsAnyExcept(ids);
+    }
+
+    public static int[] getItemIds(Pattern... patterns) {
+        return BACKPACK.getItemIds(patterns);
+    }
+
     public static boolean containsItemByCategory(int... categoryIds) {
         return BACKPACK.containsItemByCategory(categoryIds);
     }
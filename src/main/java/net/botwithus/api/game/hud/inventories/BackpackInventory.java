@@ -1,8 +1,6 @@
 package net.botwithus.api.game.hud.inventories;
 
 import net.botwithus.rs3.game.Item;
-import net.botwithus.rs3.game.hud.interfaces.Component;
-import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
 import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
 import net.botwithus.rs3.game.queries.results.ResultSet;
 import net.botwithus.rs3.script.ScriptConsole;
@@ -41,10 +39,7 @@ public class BackpackInventory extends Inventory {
         if (item != null) {
             ScriptConsole.println("[xApi][BackpackInventory#interact(String name, int option)]: Found item: " + item.getName());
             ScriptConsole.println("[xApi][BackpackInventory#interact(String name, int option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][BackpackInventory#interact(String name, int option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -56,10 +51,7 @@ public class BackpackInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][BackpackInventory#interact(Pattern name, int option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][BackpackInventory#interact(Pattern name, int option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -71,10 +63,7 @@ public class BackpackInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][BackpackInventory#interact(String name, String option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][BackpackInventory#interact(String name, String option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -86,10 +75,7 @@ public class BackpackInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][BackpackInventory#interact(int slot, int option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][BackpackInventory#interact(int slot, int option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -101,10 +87,7 @@ public class BackpackInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][BackpackInventory#interact(int slot, String option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][BackpackInventory#interact(int slot, String option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -0,0 +1,428 @@
+package net.botwithus.api.game.hud.inventories;
+
+import com.google.common.flogger.FluentLogger;
+import java.util.regex.Pattern;
+import net.botwithus.api.game.GameTick;
+import net.botwithus.rs3.game.Item;
+import net.botwithus.rs3.game.hud.interfaces.Component;
+import net.botwithus.rs3.game.minimenu.MiniMenu;
+import net.botwithus.rs3.game.minimenu.actions.ComponentAction;
+import net.botwithus.rs3.game.minimenu.actions.ObjectAction;
+import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
+import net.botwithus.rs3.game.vars.VarManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static net.botwithus.api.game.hud.inventories.BankOperation.act;
+import static net.botwithus.api.game.hud.inventories.BankOperation.await;
+import static net.botwithus.api.game.hud.inventories.BankOperation.completeIf;
+import static net.botwithus.api.game.hud.inventories.BankOperation.delay;
+import static net.botwithus.api.game.hud.inventories.BankOperation.delayIf;
+import static net.botwithus.api.game.hud.inventories.BankOperation.skipIf;
+
+/**
+ * Runs bank actions as tick-driven state machines shared by the blocking {@link Bank} and the script v2 bank.
+ * <p>
+ * Each action is queued as a {@link BankOperation} and advanced from {@link GameTick}, one step per tick, so
+ * nothing here sleeps. Operations run one at a time in the order they were submitted.
+ * <p>
+ * The reads and single interactions both facades offer, such as counting items with the {@link BankMirror}
+ * fallback or withdrawing the first match of a query, live here too, so the facades only differ in how they wait.
+ */
+public final class BankEngine {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int PRESET_BROWSING_VARBIT_ID = 49662;
+    private static final String LAST_PRESET_OPTION = "Load Last Preset from";
+    private static final ComponentIndex DEPOSIT_COMPONENTS = ComponentIndex.of(517, -1, 93, 95);
+    private static final Inventory BANK = new BankInventory();
+    private static final Pattern EQUIP_PATTERN = Pattern.compile("Wear|Wield|Equip");
+
+    private static final Deque<BankOperation> QUEUE = new ArrayDeque<>();
+    private static final LongConsumer TICK_LISTENER = tick -> update();
+
+    private static int previousLoadedPreset = -1;
+
+    private BankEngine() {
+    }
+
+    /**
+     * Queues an operation and runs its first steps straight away if nothing is ahead of it.
+     *
+     * @param operation the operation
+     * @return the operation
+     */
+    public static synchronized BankOperation submit(BankOperation operation) {
+        QUEUE.add(operation);
+        GameTick.addListener(TICK_LISTENER);
+        update();
+        return operation;
+    }
+
+    /**
+     * Advances the queued operations. Called on every game tick while anything is queued.
+     */
+    public static synchronized void update() {
+        BankOperation head;
+        while ((head = QUEUE.peekFirst()) != null) {
+            head.poll();
+            if (!head.isDone()) {
+                return;
+            }
+            QUEUE.removeFirst();
+        }
+        GameTick.removeListener(TICK_LISTENER);
+    }
+
+    /**
+     * Gets the operation currently running.
+     *
+     * @return the operation, or null if the engine is idle
+     */
+    public static synchronized BankOperation getCurrent() {
+        return QUEUE.peekFirst();
+    }
+
+    public static synchronized boolean isIdle() {
+        return QUEUE.isEmpty();
+    }
+
+    /**
+     * Cancels the running operation and everything queued behind it.
+     */
+    public static synchronized void cancelAll() {
+        for (BankOperation operation : QUEUE) {
+            operation.cancel();
+        }
+        QUEUE.clear();
+        GameTick.removeListener(TICK_LISTENER);
+    }
+
+    public static int getPreviousLoadedPreset() {
+        return previousLoadedPreset;
+    }
+
+    /**
+     * Opens the nearest bank. Completes at once if the bank is already open, and retries objects with their
+     * second option if the first one did not open the bank within 8 ticks.
+     *
+     * @return the queued operation
+     */
+    public static BankOperation open() {
+        return submit(new BankOperation("open", openSteps()));
+    }
+
+    static BankOperation.Step[] openSteps() {
+        var target = new BankLocator.Target[1];
+        return new BankOperation.Step[]{
+                skipIf(Bank::isOpen, 2),
+                act(() -> {
+                    target[0] = BankLocator.nearestBank();
+                    if (target[0] == null) {
+                        log.atInfo().log("[Bank] No bank nearby");
+                        return false;
+                    }
+                    log.atInfo().log("[Bank] Opening " + target[0]);
+                    return interact(target[0]);
+                }),
+                await(Bank::isOpen, 8).orElse(
+                        act(() -> target[0].getObject() != null && target[0].getObject().interact(ObjectAction.OBJECT2.getType())),
+                        await(Bank::isOpen, 6))};
+    }
+
+    /**
+     * Closes the bank interface.
+     *
+     * @return the queued operation
+     */
+    public static BankOperation close() {
+        return submit(new BankOperation("close",
+                completeIf(() -> !Bank.isOpen()),
+                act(() -> MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, -1, 33882429)),
+                await(() -> !Bank.isOpen(), 3)));
+    }
+
+    /**
+     * Loads the given preset from the open bank, switching the preset page first if needed.
+     *
+     * @param presetNumber the preset number to load
+     * @return the queued operation
+     */
+    public static BankOperation loadPreset(int presetNumber) {
+        return submit(new BankOperation("loadPreset(" + presetNumber + ")", presetSteps(presetNumber)));
+    }
+
+    static BankOperation.Step[] presetSteps(int presetNumber) {
+        var switched = new boolean[1];
+        return new BankOperation.Step[]{
+                act(() -> {
+                    int presetBrowsingValue = VarManager.getVarbitValue(PRESET_BROWSING_VARBIT_ID);
+                    if ((presetNumber >= 10 && presetBrowsingValue < 1) || (presetNumber < 10 && presetBrowsingValue > 0)) {
+                        MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, 100, 33882231);
+                        switched[0] = true;
+                    }
+                    return true;
+                }),
+                delayIf(() -> switched[0], 1),
+                act(() -> {
+                    var result = MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, ((presetNumber - 1) % 9) + 1, 33882231);
+                    if (result) {
+                        previousLoadedPreset = presetNumber;
+                    }
+                    return result;
+                })};
+    }
+
+    /**
+     * Loads the last preset from the nearest bank object or banker that offers it.
+     *
+     * @return the queued operation
+     */
+    public static BankOperation loadLastPreset() {
+        return submit(new BankOperation("loadLastPreset",
+                act(() -> {
+                    var target = BankLocator.nearest(LAST_PRESET_OPTION);
+                    if (target == null) {
+                        return false;
+                    }
+                    log.atInfo().log("[Bank] Loading last preset from " + target);
+                    if (target.getObject() != null) {
+                        return target.getObject().interact(LAST_PRESET_OPTION);
+                    }
+                    return target.getNpc() != null && target.getNpc().interact(LAST_PRESET_OPTION);
+                })));
+    }
+
+    /**
+     * Withdraws an item from the open bank and waits up to 3 ticks for it to reach the backpack.
+     *
+     * @param itemId the item id
+     * @param option the option to interact with
+     * @return the queued operation
+     */
+    public static BankOperation withdraw(int itemId, int option) {
+        var before = new long[1];
+        return submit(new BankOperation("withdraw(" + itemId + ")",
+                act(() -> {
+                    before[0] = carried(itemId);
+                    return withdrawFirst(itemId, option);
+                }),
+                await(() -> carried(itemId) > before[0], 3)));
+    }
+
+    /**
+     * Gets the total amount of an item in the backpack, over every slot holding it.
+     *
+     * @param itemId the item id
+     * @return the amount
+     */
+    static long carried(int itemId) {
+        return InventorySnapshots.current(Backpack.BACKPACK.getId()).sumStackSizes(i -> i.getId() == itemId);
+    }
+
+    /**
+     * Deposits the item shown by a component of the open bank.
+     *
+     * @param component the component
+     * @param option    the option to interact with
+     * @return the queued operation
+     */
+    public static BankOperation deposit(Component component, int option) {
+        return submit(new BankOperation("deposit",
+                act(() -> {
+                    Bank.setTransferOption(TransferOptionType.ALL);
+                    return component != null && component.interact(option);
+                }),
+                delay(1)));
+    }
+
+    /**
+     * Deposits every stack of the given items, one item per tick. Items that have already left the backpack by
+     * the time their turn comes are skipped. Every item is tried even if an earlier one fails, and the operation
+     * fails at the end if any of them did.
+     *
+     * @param itemIds the item ids
+     * @return the queued operation
+     */
+    public static BankOperation depositAll(int... itemIds) {
+        List<BankOperation.Step> steps = new ArrayList<>();
+        var failed = new boolean[1];
+        for (int itemId : itemIds) {
+            steps.add(act(() -> {
+                if (Backpack.contains(itemId) && !depositItem(itemId, 1)) {
+                    failed[0] = true;
+                }
+                return true;
+            }));
+            steps.add(delay(1));
+        }
+        steps.add(act(() -> !failed[0]));
+        return submit(new BankOperation("depositAll", steps.toArray(new BankOperation.Step[0])));
+    }
+
+    /**
+     * Gets the component of a backpack or worn item shown in the bank interface, which is what deposits it.
+     *
+     * @param itemId the item id
+     * @return the component, or null if the item is not shown or the bank is closed
+     */
+    public static Component getDepositComponent(int itemId) {
+        return DEPOSIT_COMPONENTS.forItem(itemId);
+    }
+
+    static boolean depositItem(int itemId, int option) {
+        Bank.setTransferOption(TransferOptionType.ALL);
+        var component = DEPOSIT_COMPONENTS.forItem(itemId);
+        return component != null && component.interact(option);
+    }
+
+    /**
+     * Interacts with an item in the bank using the given option as is, without touching the transfer option.
+     */
+    static boolean withdrawItem(int itemId, int option) {
+        var component = BANK.getComponents().forItem(itemId);
+        return component != null && component.interact(option);
+    }
+
+    /**
+     * Wears an item from the backpack shown in the bank interface.
+     */
+    static boolean equipItem(int itemId) {
+        for (Component component : DEPOSIT_COMPONENTS.getComponents()) {
+            var options = component.getOptions();
+            if (component.getItemId() != itemId || options == null) {
+                continue;
+            }
+            for (String option : options) {
+                if (option != null && EQUIP_PATTERN.matcher(option).matches()) {
+                    return component.interact(option);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the bank should be read from the {@link BankMirror}, that is the mirror is enabled and holds a
+     * copy while the real bank is not loaded.
+     *
+     * @return true if reads should use the mirror
+     */
+    public static boolean isMirrorInUse() {
+        return BankMirror.isEnabled() && BankMirror.isAvailable() && !InventorySnapshots.current(BANK.getId()).isLoaded();
+    }
+
+    public static boolean contains(String... itemNames) {
+        return isMirrorInUse() ? BankMirror.contains(itemNames) : BANK.contains(itemNames);
+    }
+
+    public static boolean contains(Pattern itemNamePattern) {
+        return isMirrorInUse() ? BankMirror.contains(itemNamePattern) : BANK.contains(itemNamePattern);
+    }
+
+    /**
+     * Gets the total amount of the named items in the bank, from the mirror while the bank is not loaded.
+     *
+     * @param itemNames the item names
+     * @return the summed stack sizes
+     */
+    public static int getCount(String... itemNames) {
+        if (isMirrorInUse()) {
+            return (int) BankMirror.getCount(itemNames);
+        }
+        var names = new HashSet<>(Arrays.asList(itemNames));
+        return sumStackSizes(i -> names.contains(i.getName()), InventoryItemQuery.newQuery(BANK.getId()).name(itemNames));
+    }
+
+    public static int getCount(Pattern namePattern) {
+        if (isMirrorInUse()) {
+            return (int) BankMirror.getCount(namePattern);
+        }
+        return sumStackSizes(PatternMatchCache.MATCHES.predicate(namePattern), InventoryItemQuery.newQuery(BANK.getId()).name(namePattern));
+    }
+
+    private static int sumStackSizes(Predicate<Item> filter, InventoryItemQuery query) {
+        if (InventorySnapshots.isEnabled()) {
+            return (int) InventorySnapshots.get(BANK.getId()).sumStackSizes(filter);
+        }
+        return query.results().stream().mapToInt(Item::getStackSize).sum();
+    }
+
+    /**
+     * Withdraws the first bank item the query finds, straight away and with the transfer option set to all.
+     *
+     * @param query  the query
+     * @param option the option to interact with
+     * @return true if the interaction was sent
+     */
+    public static boolean withdrawFirst(InventoryItemQuery query, int option) {
+        Bank.setTransferOption(TransferOptionType.ALL);
+        Item item = query.results().first();
+        return item != null && BANK.interact(item.getSlot(), option);
+    }
+
+    public static boolean withdrawFirst(String itemName, int option) {
+        return itemName != null && !itemName.isEmpty()
+                && withdrawFirst(InventoryItemQuery.newQuery().inventories(BANK.getId()).name(itemName), option);
+    }
+
+    public static boolean withdrawFirst(int itemId, int option) {
+        return itemId >= 0 && withdrawFirst(InventoryItemQuery.newQuery().inventories(BANK.getId()).ids(itemId), option);
+    }
+
+    public static boolean withdrawFirst(Pattern pattern, int option) {
+        if (pattern == null) {
+            return false;
+        }
+        var item = BANK.getItem(pattern);
+        return item != null && withdrawFirst(item.getId(), option);
+    }
+
+    /**
+     * Gets the ids of the depositable items shown in the bank interface, leaving out the backpack items with the
+     * given names.
+     *
+     * @param itemNames the names of the items to keep
+     * @return the distinct item ids to deposit
+     */
+    public static int[] depositableExcept(String... itemNames) {
+        var names = new HashSet<>(Arrays.asList(itemNames));
+        return depositableExcept(Backpack.getItems().stream().filter(i -> names.contains(i.getName()))
+                .map(Item::getId).collect(Collectors.toSet()));
+    }
+
+    public static int[] depositableExcept(int... itemIds) {
+        return depositableExcept(Arrays.stream(itemIds).boxed().collect(Collectors.toSet()));
+    }
+
+    public static int[] depositableExcept(Pattern... patterns) {
+        return depositableExcept(Arrays.stream(Backpack.getItemIds(patterns)).boxed().collect(Collectors.toSet()));
+    }
+
+    private static int[] depositableExcept(Set<Integer> kept) {
+        return DEPOSIT_COMPONENTS.getComponents().stream()
+                .filter(c -> !kept.contains(c.getItemId()) && c.getOptions() != null
+                        && (c.getOptions().contains("Deposit-All") || c.getOptions().contains("Deposit-1")))
+                .mapToInt(Component::getItemId)
+                .distinct()
+                .toArray();
+    }
+
+    private static boolean interact(BankLocator.Target target) {
+        var obj = target.getObject();
+        if (obj != null) {
+            var actions = target.getOptions();
+            return !actions.isEmpty() && (obj.interact(actions.get(0)) || obj.interact(ObjectAction.OBJECT2.getType()));
+        }
+        return target.getNpc() != null && target.getNpc().interact("Bank");
+    }
+}
@@ -1,9 +1,7 @@
 package net.botwithus.api.game.hud.inventories;
 
 import com.google.common.flogger.FluentLogger;
-import net.botwithus.rs3.game.hud.interfaces.Component;
 import net.botwithus.rs3.game.Item;
-import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
 import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
 import net.botwithus.rs3.game.queries.results.ResultSet;
 
@@ -31,10 +29,7 @@ public class BankInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             log.atInfo().log("[Inventory#interact(slot, option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            log.atInfo().log("[Inventory#interact(slot, option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -0,0 +1,266 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.api.game.script.v2.nav.MapArea;
+import net.botwithus.rs3.game.Client;
+import net.botwithus.rs3.game.Coordinate;
+import net.botwithus.rs3.game.queries.builders.characters.NpcQuery;
+import net.botwithus.rs3.game.queries.builders.objects.SceneObjectQuery;
+import net.botwithus.rs3.game.scene.entities.characters.npc.Npc;
+import net.botwithus.rs3.game.scene.entities.object.SceneObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Finds bank booths, chests, counters and bankers without scanning the whole scene on every call.
+ * <p>
+ * The first lookup in a region scans the scene once and files every bank target it finds under its own region
+ * id ({@link MapArea#getRegionId2(Coordinate)}), together with its options. Later lookups pick the nearest cached
+ * target in the player's region and the regions around it, and only check that this one target still exists.
+ * Targets that have gone are dropped, and a region is scanned again once it runs out of targets. A scan only
+ * covers part of the regions around the player, so targets filed under those regions do not count as a scan of
+ * them, and a region is scanned itself the first time the player is in it.
+ */
+public final class BankLocator {
+    private static final Pattern BANK_NAME_PATTERN = Pattern.compile("^(?!.*deposit).*(bank|counter).*$", Pattern.CASE_INSENSITIVE);
+    private static final String LAST_PRESET_OPTION = "Load Last Preset from";
+
+    private static final long EMPTY_REGION_RESCAN_MILLIS = 30_000;
+    private static final Map<Integer, Region> REGIONS = new ConcurrentHashMap<>();
+
+    private BankLocator() {
+    }
+
+    /**
+     * Gets the nearest target that opens the bank, that is a bank object with a "Use" or "Bank" option, the
+     * Shantay chest, or an npc with a "Bank" option.
+     *
+     * @return the target with its live entity resolved, or null if there is none nearby
+     */
+    public static Target nearestBank() {
+        return nearest(Target::isBank);
+    }
+
+    /**
+     * Gets the nearest target with the given option.
+     *
+     * @param option the option, such as {@code "Load Last Preset from"}
+     * @return the target with its live entity resolved, or null if there is none nearby
+     */
+    public static Target nearest(String option) {
+        return nearest(target -> target.hasOption(option));
+    }
+
+    /**
+     * Gets the nearest cached target that passes the filter and still exists, scanning the player's region first
+     * if it has not been scanned.
+     *
+     * @param filter the filter to apply
+     * @return the target with its live entity resolved, or null if there is none nearby
+     */
+    public static synchronized Target nearest(Predicate<Target> filter) {
+        var player = Client.getLocalPlayer();
+        var position = player != null ? player.getCoordinate() : null;
+        if (position == null) {
+            return null;
+        }
+        int regionId = MapArea.getRegionId2(position);
+        var region = REGIONS.get(regionId);
+        boolean scanned = false;
+        if (region == null || !region.isScanned() || region.isExpired()) {
+            scan(regionId);
+            scanned = true;
+        }
+        while (true) {
+            Target target;
+            while ((target = closest(position, filter)) != null) {
+                if (target.revalidate()) {
+                    return target;
+                }
+                REGIONS.get(target.regionId).targets.remove(target);
+            }
+            if (scanned) {
+                return null;
+            }
+            // Every cached target has gone, so the scene may have changed since the last scan
+            scan(regionId);
+            scanned = true;
+        }
+    }
+
+    /**
+     * Forgets every cached target.
+     */
+    public static synchronized void clear() {
+        REGIONS.clear();
+    }
+
+    private static Target closest(Coordinate position, Predicate<Target> filter) {
+        int regionX = position.getX() >> 6, regionY = position.getY() >> 6;
+        Target best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                var region = REGIONS.get(MapArea.getRegionId2((regionX + dx) << 6, (regionY + dy) << 6));
+                if (region == null) {
+                    continue;
+                }
+                for (Target target : region.targets) {
+                    if (target.coordinate.getZ() != position.getZ() || !filter.test(target)) {
+                        continue;
+                    }
+                    double distance = position.distanceTo(target.coordinate);
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        best = target;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static void scan(int playerRegionId) {
+        long now = System.currentTimeMillis();
+        REGIONS.computeIfAbsent(playerRegionId, k -> new Region()).scannedMillis = now;
+        for (SceneObject object : SceneObjectQuery.newQuery().name(BANK_NAME_PATTERN).option("Use")
+                .or(SceneObjectQuery.newQuery().name(BANK_NAME_PATTERN).option("Bank"))
+                .or(SceneObjectQuery.newQuery().name("Shantay chest"))
+                .or(SceneObjectQuery.newQuery().option(LAST_PRESET_OPTION)).results()) {
+            var coordinate = object.getCoordinate();
+            if (coordinate != null) {
+                var name = object.getName();
+                var options = object.getOptions();
+                boolean bank = "Shantay chest".equals(name) || name != null && BANK_NAME_PATTERN.matcher(name).matches()
+                        && options != null && (options.contains("Use") || options.contains("Bank"));
+                add(new Target(false, object.getId(), name, coordinate, options, bank));
+            }
+        }
+        for (Npc npc : NpcQuery.newQuery().option("Bank", LAST_PRESET_OPTION).results()) {
+            var coordinate = npc.getCoordinate();
+            if (coordinate != null) {
+                var options = npc.getOptions();
+                add(new Target(true, npc.getId(), npc.getName(), coordinate, options, options != null && options.contains("Bank")));
+            }
+        }
+    }
+
+    private static void add(Target target) {
+        var region = REGIONS.computeIfAbsent(target.regionId, k -> new Region());
+        region.targets.removeIf(t -> t.npc == target.npc && t.id == target.id && (target.npc || t.coordinate.equals(target.coordinate)));
+        region.targets.add(target);
+    }
+
+    private static final class Region {
+        private final List<Target> targets = new ArrayList<>();
+        private long scannedMillis;
+
+        private boolean isScanned() {
+            return scannedMillis != 0;
+        }
+
+        private boolean isExpired() {
+            return targets.isEmpty() && System.currentTimeMillis() - scannedMillis > EMPTY_REGION_RESCAN_MILLIS;
+        }
+    }
+
+    /**
+     * A cached bank object or banker npc.
+     */
+    public static final class Target {
+        private final boolean npc;
+        private final int id;
+        private final String name;
+        private final Coordinate coordinate;
+        private final List<String> options;
+        private final boolean bank;
+        private final int regionId;
+
+        private SceneObject object;
+        private Npc banker;
+
+        private Target(boolean npc, int id, String name, Coordinate coordinate, List<String> options, boolean bank) {
+            this.npc = npc;
+            this.id = id;
+            this.name = name;
+            this.coordinate = coordinate;
+            this.options = options != null ? List.copyOf(options.stream().filter(o -> o != null && !o.isEmpty()).toList()) : List.of();
+            this.bank = bank;
+            this.regionId = MapArea.getRegionId2(coordinate);
+        }
+
+        public boolean isNpc() {
+            return npc;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets where the target was seen. Bankers can wander, so for npcs this is only approximate.
+         *
+         * @return the coordinate
+         */
+        public Coordinate getCoordinate() {
+            return coordinate;
+        }
+
+        public List<String> getOptions() {
+            return options;
+        }
+
+        public boolean hasOption(String option) {
+            return options.contains(option);
+        }
+
+        /**
+         * Checks whether this target opens the bank, as opposed to only offering presets.
+         *
+         * @return true for bank objects and bankers
+         */
+        public boolean isBank() {
+            return bank;
+        }
+
+        /**
+         * Gets the live object found by the last revalidation.
+         *
+         * @return the object, or null for npc targets
+         */
+        public SceneObject getObject() {
+            return object;
+        }
+
+        /**
+         * Gets the live npc found by the last revalidation.
+         *
+         * @return the npc, or null for object targets
+         */
+        public Npc getNpc() {
+            return banker;
+        }
+
+        private boolean revalidate() {
+            if (npc) {
+                banker = NpcQuery.newQuery().id(id).results().nearest();
+                return banker != null;
+            }
+            object = SceneObjectQuery.newQuery().id(id).on(coordinate).results().first();
+            return object != null;
+        }
+
+        @Override
+        public String toString() {
+            return (npc ? "Npc" : "Object") + "{id=" + id + ", name=" + name + ", coordinate=" + coordinate + "}";
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package net.botwithus.api.game.hud.inventories;
+
+import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.GameTick;
+import net.botwithus.api.util.collection.IntIntMap;
+import net.botwithus.rs3.game.Client;
+import net.botwithus.rs3.game.hud.interfaces.Interfaces;
+import net.botwithus.rs3.game.js5.types.configs.ConfigManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * An offline copy of the bank (inventory 95) that can be queried while the bank is closed.
+ * <p>
+ * While enabled, the mirror copies the bank whenever it is loaded and its
+ * {@link InventorySnapshots#getContentStamp(int) contents} have changed, keeping one total per item however many
+ * slots it fills. While the bank is not loaded, items that leave the backpack or equipment within a few ticks of a
+ * {@link DepositBox} deposit are added to the mirror, noted items under their unnoted id. The mirror is saved per
+ * account to a small file, so it is available straight after startup. Saves are written on a
+ * background thread at most once every {@value #SAVE_DELAY} ms, so changes never wait on the disk.
+ * {@link #getSyncedMillis()} tells callers when the mirror last matched the real bank.
+ * <p>
+ * {@link Bank} falls back to the mirror for {@code contains} and {@code getCount} while the bank is not loaded.
+ */
+public final class BankMirror {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int BANK_INVENTORY = 95;
+    private static final int DEPOSIT_BOX_INTERFACE = 11;
+    private static final int MAGIC = 0x42574d31; // "BWM1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final int DEPOSIT_TICKS = 3;
+    private static final long SAVE_DELAY = 2_000;
+    private static final Object WRITE_LOCK = new Object();
+
+    private static final LongConsumer TICK_LISTENER = BankMirror::update;
+    private static final InventoryChangeListener DEPOSIT_LISTENER = BankMirror::onCarriedChange;
+
+    private static volatile boolean enabled = false;
+    private static Path directory = Paths.get(System.getProperty("user.home"), "BotWithUs", "bank");
+    private static String account;
+
+    private static int[] ids = new int[0];
+    private static int[] amounts = new int[0];
+    private static final IntIntMap positions = new IntIntMap();
+    private static long syncedMillis;
+    private static long modifiedMillis;
+    private static long syncedStamp = -1;
+    private static long depositTick;
+    private static long depositMillis;
+    private static ByteBuffer pending;
+    private static Path pendingFile;
+    private static Thread writer;
+
+    private BankMirror() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops mirroring. Enabling also starts tracking the backpack and equipment through
+     * {@link InventoryChanges} so deposit box deposits can be applied.
+     *
+     * @param enabled whether to mirror the bank
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        BankMirror.enabled = enabled;
+        if (enabled) {
+            GameTick.addListener(TICK_LISTENER);
+            InventoryChanges.addListener(Backpack.BACKPACK.getId(), DEPOSIT_LISTENER);
+            InventoryChanges.addListener(Equipment.EQUIPMENT.getId(), DEPOSIT_LISTENER);
+        } else {
+            GameTick.removeListener(TICK_LISTENER);
+            InventoryChanges.removeListener(Backpack.BACKPACK.getId(), DEPOSIT_LISTENER);
+            InventoryChanges.removeListener(Equipment.EQUIPMENT.getId(), DEPOSIT_LISTENER);
+        }
+    }
+
+    /**
+     * Sets the directory the per-account mirror files are kept in. Defaults to {@code ~/BotWithUs/bank}.
+     *
+     * @param directory the directory
+     */
+    public static synchronized void setDirectory(Path directory) {
+        BankMirror.directory = directory;
+        account = null;
+    }
+
+    /**
+     * Checks whether the mirror holds a copy of the bank, either captured this session or loaded from disk.
+     *
+     * @return true if the bank has been seen at least once
+     */
+    public static synchronized boolean isAvailable() {
+        return syncedMillis != 0;
+    }
+
+    /**
+     * Gets the time the mirror was last copied from the loaded bank, which happens whenever the bank's contents change.
+     *
+     * @return the epoch millis of the last full copy, or 0 if the bank has never been seen
+     */
+    public static synchronized long getSyncedMillis() {
+        return syncedMillis;
+    }
+
+    /**
+     * Gets the time the mirror last changed, either from a full copy or from a deposit while the bank was closed.
+     *
+     * @return the epoch millis of the last change, or 0 if the bank has never been seen
+     */
+    public static synchronized long getModifiedMillis() {
+        return modifiedMillis;
+    }
+
+    /**
+     * Gets how long ago the mirror last matched the real bank.
+     *
+     * @return the milliseconds since the last full copy, or {@link Long#MAX_VALUE} if the bank has never been seen
+     */
+    public static synchronized long getStaleness() {
+        return syncedMillis != 0 ? System.currentTimeMillis() - syncedMillis : Long.MAX_VALUE;
+    }
+
+    public static synchronized int getAmount(int itemId) {
+        int position = positions.get(itemId, -1);
+        return position != -1 ? amounts[position] : 0;
+    }
+
+    public static synchronized boolean contains(int... itemIds) {
+        for (int itemId : itemIds) {
+            if (getAmount(itemId) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static synchronized boolean contains(String... names) {
+        for (int i = 0; i < ids.length; i++) {
+            if (amounts[i] > 0 && nameIn(ids[i], names)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static synchronized boolean contains(Pattern namePattern) {
+        for (int i = 0; i < ids.length; i++) {
+            if (amounts[i] > 0 && PatternMatchCache.MATCHES.test(namePattern, ids[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static synchronized long getCount(int... itemIds) {
+        long total = 0;
+        for (int i = 0; i < itemIds.length; i++) {
+            if (!isRepeated(itemIds, i)) {
+                total += getAmount(itemIds[i]);
+            }
+        }
+        return total;
+    }
+
+    public static synchronized long getCount(String... names) {
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (nameIn(ids[i], names)) {
+                total += amounts[i];
+            }
+        }
+        return total;
+    }
+
+    public static synchronized long getCount(Pattern namePattern) {
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (PatternMatchCache.MATCHES.test(namePattern, ids[i])) {
+                total += amounts[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the ids of the mirrored items in bank order, followed by anything deposited since the last copy.
+     *
+     * @return the item ids with a positive amount
+     */
+    public static synchronized int[] getItemIds() {
+        int[] result = new int[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (amounts[i] > 0) {
+                result[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Adds an item that was put in the bank without the bank being loaded, such as through a familiar or a
+     * bank deposit from a skilling interface.
+     *
+     * @param itemId the item id
+     * @param amount the amount, negative for withdrawals
+     */
+    public static synchronized void recordDelta(int itemId, int amount) {
+        if (itemId == -1 || amount == 0 || !isAvailable()) {
+            return;
+        }
+        int position = positions.get(itemId, -1);
+        if (position == -1) {
+            position = ids.length;
+            ids = Arrays.copyOf(ids, position + 1);
+            amounts = Arrays.copyOf(amounts, position + 1);
+            ids[position] = itemId;
+            positions.put(itemId, position);
+        }
+        amounts[position] = Math.max(0, amounts[position] + amount);
+        modifiedMillis = System.currentTimeMillis();
+        save();
+    }
+
+    /**
+     * Copies the bank if it is loaded and has changed. Called on every {@link GameTick#advance()} while enabled.
+     *
+     * @param tick the current tick
+     */
+    public static synchronized void update(long tick) {
+        if (!ensureAccount()) {
+            return;
+        }
+        long stamp = InventorySnapshots.getContentStamp(BANK_INVENTORY);
+        if (stamp == syncedStamp) {
+            return;
+        }
+        syncedStamp = stamp;
+        var snapshot = InventorySnapshots.current(BANK_INVENTORY);
+        if (!snapshot.isLoaded()) {
+            return;
+        }
+        int count = snapshot.countOccupiedSlots();
+        int[] newIds = new int[count];
+        int[] newAmounts = new int[count];
+        int position = 0;
+        for (int slot = 0; slot < snapshot.capacity(); slot++) {
+            if (snapshot.getItemId(slot) != -1) {
+                newIds[position] = snapshot.getItemId(slot);
+                newAmounts[position++] = snapshot.getStackSize(slot);
+            }
+        }
+        int[] oldIds = ids, oldAmounts = amounts;
+        replace(newIds, newAmounts);
+        long now = System.currentTimeMillis();
+        syncedMillis = now;
+        if (!Arrays.equals(oldIds, ids) || !Arrays.equals(oldAmounts, amounts)) {
+            modifiedMillis = now;
+        }
+        save();
+    }
+
+    /**
+     * Notes that a {@link DepositBox} deposit was just sent, so items leaving the backpack or equipment over the next
+     * few ticks are added to the mirror.
+     */
+    static synchronized void expectDeposit() {
+        depositTick = GameTick.current();
+        depositMillis = System.currentTimeMillis();
+    }
+
+    private static synchronized boolean isDepositExpected() {
+        return depositMillis != 0 && GameTick.ticksSince(depositTick, depositMillis) <= DEPOSIT_TICKS;
+    }
+
+    private static void onCarriedChange(InventoryChangeEvent event) {
+        // Eating, dropping and the like also take items away, so only losses right after a deposit count
+        if (event.getDelta() >= 0 || !Interfaces.isOpen(DEPOSIT_BOX_INTERFACE) || !isDepositExpected()
+                || InventorySnapshots.current(BANK_INVENTORY).isLoaded()) {
+            return;
+        }
+        recordDelta(bankId(event.getItemId()), -event.getDelta());
+    }
+
+    /**
+     * Gets the id an item is stored under in the bank, which for a noted item is its unnoted id. Noted ids directly
+     * follow the unnoted id and share its name, and an item the mirror already holds by that name is used as it is.
+     */
+    private static int bankId(int itemId) {
+        if (positions.containsKey(itemId)) {
+            return itemId;
+        }
+        var name = nameOf(itemId);
+        if (name == null) {
+            return itemId;
+        }
+        for (int id : ids) {
+            if (name.equals(nameOf(id))) {
+                return id;
+            }
+        }
+        return name.equals(nameOf(itemId - 1)) ? itemId - 1 : itemId;
+    }
+
+    /**
+     * Sets the mirrored items, summing the amounts of an item that fills several slots into its first slot.
+     */
+    private static void replace(int[] newIds, int[] newAmounts) {
+        positions.clear();
+        int count = 0;
+        for (int i = 0; i < newIds.length; i++) {
+            int position = positions.get(newIds[i], -1);
+            if (position != -1) {
+                newAmounts[position] = (int) Math.min(Integer.MAX_VALUE, (long) newAmounts[position] + newAmounts[i]);
+                continue;
+            }
+            positions.put(newIds[i], count);
+            newIds[count] = newIds[i];
+            newAmounts[count++] = newAmounts[i];
+        }
+        ids = Arrays.copyOf(newIds, count);
+        amounts = Arrays.copyOf(newAmounts, count);
+    }
+
+    private static boolean ensureAccount() {
+        if (account != null) {
+            return true;
+        }
+        var player = Client.getLocalPlayer();
+        var name = player != null ? player.getName() : null;
+        if (name == null || name.isBlank()) {
+            return false;
+        }
+        account = name.replaceAll("[^A-Za-z0-9_-]", "_");
+        replace(new int[0], new int[0]);
+        syncedStamp = -1;
+        syncedMillis = 0;
+        modifiedMillis = 0;
+        load();
+        return true;
+    }
+
+    private static Path file() {
+        return directory.resolve(account + ".bank");
+    }
+
+    private static void load() {
+        var file = file();
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            // Read into the heap rather than mapping, a mapped file cannot be replaced on Windows until it is collected
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_SIZE) {
+                return;
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.atWarning().log("Ignoring bank mirror with an unknown format: " + file);
+                return;
+            }
+            long synced = buffer.getLong();
+            long modified = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0 || buffer.remaining() < count * 8L) {
+                log.atWarning().log("Ignoring truncated bank mirror: " + file);
+                return;
+            }
+            int[] loadedIds = new int[count];
+            int[] loadedAmounts = new int[count];
+            for (int i = 0; i < count; i++) {
+                loadedIds[i] = buffer.getInt();
+                loadedAmounts[i] = buffer.getInt();
+            }
+            replace(loadedIds, loadedAmounts);
+            syncedMillis = synced;
+            modifiedMillis = modified;
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Failed to read bank mirror " + file);
+        }
+    }
+
+    /**
+     * Queues the mirror to be written, starting the writer if it is not already waiting.
+     */
+    private static void save() {
+        if (account == null) {
+            return;
+        }
+        var buffer = ByteBuffer.allocate(HEADER_SIZE + ids.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(syncedMillis).putLong(modifiedMillis).putInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            buffer.putInt(ids[i]).putInt(amounts[i]);
+        }
+        pending = buffer.flip();
+        pendingFile = file();
+        if (writer == null) {
+            writer = Thread.ofVirtual().name("bank-mirror-writer").start(BankMirror::writePending);
+        }
+    }
+
+    private static void writePending() {
+        try {
+            Thread.sleep(SAVE_DELAY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ByteBuffer buffer;
+        Path file;
+        synchronized (BankMirror.class) {
+            buffer = pending;
+            file = pendingFile;
+            pending = null;
+            writer = null;
+        }
+        if (buffer != null) {
+            write(file, buffer);
+        }
+    }
+
+    private static void write(Path file, ByteBuffer buffer) {
+        var temp = file.resolveSibling(file.getFileName() + ".tmp");
+        synchronized (WRITE_LOCK) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.atWarning().withCause(e).log("Failed to write bank mirror " + file);
+            }
+        }
+    }
+
+    private static String nameOf(int itemId) {
+        var type = ConfigManager.getItemType(itemId);
+        return type != null ? type.getName() : null;
+    }
+
+    private static boolean nameIn(int itemId, String... names) {
+        var name = nameOf(itemId);
+        if (name == null) {
+            return false;
+        }
+        for (String n : names) {
+            if (name.equals(n)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRepeated(int[] values, int index) {
+        for (int i = 0; i < index; i++) {
+            if (values[i] == values[index]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
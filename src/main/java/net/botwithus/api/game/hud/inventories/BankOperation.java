@@ -0,0 +1,268 @@
+package net.botwithus.api.game.hud.inventories;
+
+import java.util.function.Supplier;
+import net.botwithus.api.game.GameTick;
+import net.botwithus.rs3.script.Execution;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A bank action queued on the {@link BankEngine}, made of steps that advance once per game tick.
+ * <p>
+ * Poll {@link #getState()} or {@link #isDone()} from {@code onTick} to find out how it went; the engine advances
+ * it from {@link GameTick} listeners, so the script never has to sleep. Blocking callers can use
+ * {@link #await(long)} instead.
+ */
+public final class BankOperation {
+
+    public enum State {
+        RUNNING,
+        COMPLETE,
+        FAILED,
+        TIMED_OUT,
+        CANCELLED
+    }
+
+    private final String name;
+    private final Deque<Step> steps;
+    private State state = State.RUNNING;
+    private boolean stepStarted;
+    private long stepStartTick;
+    private long stepStartMillis;
+    private long startedTick = -1;
+    private long finishedTick = -1;
+
+    BankOperation(String name, Step... steps) {
+        this.name = name;
+        this.steps = new ArrayDeque<>(Arrays.asList(steps));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isDone() {
+        return state != State.RUNNING;
+    }
+
+    public synchronized boolean isSuccessful() {
+        return state == State.COMPLETE;
+    }
+
+    /**
+     * Gets the tick the operation first ran on.
+     *
+     * @return the tick, or -1 if it is still queued
+     */
+    public synchronized long getStartedTick() {
+        return startedTick;
+    }
+
+    /**
+     * Gets the tick the operation finished on.
+     *
+     * @return the tick, or -1 if it is still running
+     */
+    public synchronized long getFinishedTick() {
+        return finishedTick;
+    }
+
+    public synchronized void cancel() {
+        finish(State.CANCELLED);
+    }
+
+    /**
+     * Blocks until the operation finishes, driving the engine while it waits. Gives up with
+     * {@link State#TIMED_OUT} if the operation has not finished in time.
+     *
+     * @param timeoutMillis how long to wait
+     * @return true if the operation completed
+     */
+    public boolean await(long timeoutMillis) {
+        Execution.delayUntil(timeoutMillis, () -> {
+            BankEngine.update();
+            return isDone();
+        });
+        synchronized (this) {
+            finish(State.TIMED_OUT);
+            return state == State.COMPLETE;
+        }
+    }
+
+    /**
+     * Runs as many steps as the game state allows.
+     *
+     * @return the state after polling
+     */
+    synchronized State poll() {
+        if (state != State.RUNNING) {
+            return state;
+        }
+        if (startedTick == -1) {
+            startedTick = GameTick.current();
+        }
+        try {
+            while (!steps.isEmpty()) {
+                if (!stepStarted) {
+                    stepStarted = true;
+                    stepStartTick = GameTick.current();
+                    stepStartMillis = System.currentTimeMillis();
+                }
+                var step = steps.peekFirst();
+                if (step.expansion != null) {
+                    steps.removeFirst();
+                    stepStarted = false;
+                    var expanded = step.expansion.get();
+                    for (int i = expanded.length - 1; i >= 0; i--) {
+                        steps.addFirst(expanded[i]);
+                    }
+                    continue;
+                }
+                long elapsed = GameTick.ticksSince(stepStartTick, stepStartMillis);
+                switch (step.poll(elapsed)) {
+                    case WAIT:
+                        return state;
+                    case NEXT:
+                        steps.removeFirst();
+                        stepStarted = false;
+                        break;
+                    case DONE:
+                        steps.clear();
+                        break;
+                    case SKIP:
+                        steps.removeFirst();
+                        stepStarted = false;
+                        for (int i = 0; i < step.skip && !steps.isEmpty(); i++) {
+                            steps.removeFirst();
+                        }
+                        break;
+                    case FAIL:
+                        finish(State.FAILED);
+                        return state;
+                    case TIMEOUT:
+                        steps.removeFirst();
+                        stepStarted = false;
+                        if (step.fallback.length == 0) {
+                            finish(State.TIMED_OUT);
+                            return state;
+                        }
+                        for (int i = step.fallback.length - 1; i >= 0; i--) {
+                            steps.addFirst(step.fallback[i]);
+                        }
+                        break;
+                }
+            }
+            finish(State.COMPLETE);
+        } catch (Exception e) {
+            finish(State.FAILED);
+            throw e;
+        }
+        return state;
+    }
+
+    private void finish(State state) {
+        if (this.state == State.RUNNING) {
+            this.state = state;
+            this.finishedTick = GameTick.current();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BankOperation{" + name + ", " + state + "}";
+    }
+
+    /**
+     * Runs an action once, failing the operation if it returns false.
+     */
+    static Step act(BooleanSupplier action) {
+        return new Step(elapsed -> action.getAsBoolean() ? Result.NEXT : Result.FAIL);
+    }
+
+    /**
+     * Waits until the condition holds, timing out after the given number of ticks.
+     */
+    static Step await(BooleanSupplier condition, int timeoutTicks) {
+        return new Step(elapsed -> condition.getAsBoolean() ? Result.NEXT : elapsed >= timeoutTicks ? Result.TIMEOUT : Result.WAIT);
+    }
+
+    /**
+     * Completes the operation straight away if the condition holds.
+     */
+    static Step completeIf(BooleanSupplier condition) {
+        return new Step(elapsed -> condition.getAsBoolean() ? Result.DONE : Result.NEXT);
+    }
+
+    /**
+     * Skips this step and the given number of steps after it if the condition holds.
+     */
+    static Step skipIf(BooleanSupplier condition, int count) {
+        var step = new Step(elapsed -> condition.getAsBoolean() ? Result.SKIP : Result.NEXT);
+        step.skip = count;
+        return step;
+    }
+
+    /**
+     * Replaces itself with the steps from the supplier when it is reached, for steps that depend on the game
+     * state at that point.
+     */
+    static Step expand(Supplier<Step[]> supplier) {
+        var step = new Step(null);
+        step.expansion = supplier;
+        return step;
+    }
+
+    static Step delay(int ticks) {
+        return new Step(elapsed -> elapsed >= ticks ? Result.NEXT : Result.WAIT);
+    }
+
+    /**
+     * Waits the given number of ticks, but only if the condition holds when the step starts.
+     */
+    static Step delayIf(BooleanSupplier condition, int ticks) {
+        return new Step(elapsed -> elapsed >= ticks || !condition.getAsBoolean() ? Result.NEXT : Result.WAIT);
+    }
+
+    enum Result {
+        WAIT,
+        NEXT,
+        DONE,
+        SKIP,
+        FAIL,
+        TIMEOUT
+    }
+
+    interface StepFunction {
+        Result poll(long elapsedTicks);
+    }
+
+    static final class Step {
+        private final StepFunction function;
+        private Step[] fallback = new Step[0];
+        private int skip;
+        private Supplier<Step[]> expansion;
+
+        private Step(StepFunction function) {
+            this.function = function;
+        }
+
+        /**
+         * Runs the given steps instead of timing out.
+         */
+        Step orElse(Step... fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        private Result poll(long elapsedTicks) {
+            return function.poll(elapsedTicks);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.api.game.GameTick;
+import net.botwithus.api.util.collection.IntIntMap;
+import net.botwithus.rs3.game.hud.interfaces.Component;
+import net.botwithus.rs3.game.hud.interfaces.Interfaces;
+import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item id to {@link Component} lookup for an interface that displays one or more inventories, such as the
+ * backpack (1473), bank (517), loot window (1622) or deposit box (11).
+ * <p>
+ * The interface is walked once and the item components are kept until the contents of the backing inventories
+ * change or the interface closes, so resolving the component for an item is a map lookup instead of a
+ * {@link ComponentQuery} per interaction. Changes are detected with {@link InventorySnapshots#getStamp(int)}, which
+ * reads each inventory at most once per tick however often the index is used.
+ * <p>
+ * Some interfaces move items around without their inventories changing, such as the bank when its tab or search
+ * changes, so the component found for an item is checked to still show it before it is used, and an item that is not
+ * found walks the interface again at most once a tick.
+ */
+public final class ComponentIndex {
+    private static final Map<Long, ComponentIndex> INDICES = new ConcurrentHashMap<>();
+
+    private final int interfaceIndex;
+    private final int componentIndex;
+    private final int[] inventoryIds;
+
+    private long[] stamps;
+    private long rebuiltTick;
+    private long rebuiltMillis;
+    private Component[] components = new Component[0];
+    private final IntIntMap byItem = new IntIntMap();
+
+    private ComponentIndex(int interfaceIndex, int componentIndex, int[] inventoryIds) {
+        this.interfaceIndex = interfaceIndex;
+        this.componentIndex = componentIndex;
+        this.inventoryIds = inventoryIds;
+    }
+
+    /**
+     * Gets the shared index for a component of an interface.
+     *
+     * @param interfaceIndex the interface
+     * @param componentIndex the component holding the items, or -1 for the whole interface
+     * @param inventoryIds   the inventories the interface displays; the index is rebuilt when any of them changes
+     * @return the index
+     * @throws IllegalArgumentException if the index was already made with other inventories
+     */
+    public static ComponentIndex of(int interfaceIndex, int componentIndex, int... inventoryIds) {
+        var index = INDICES.computeIfAbsent(((long) interfaceIndex << 32) | (componentIndex & 0xFFFFFFFFL),
+                k -> new ComponentIndex(interfaceIndex, componentIndex, inventoryIds.clone()));
+        if (!Arrays.equals(index.inventoryIds, inventoryIds)) {
+            throw new IllegalArgumentException("Component index " + interfaceIndex + ", " + componentIndex
+                    + " already watches inventories " + Arrays.toString(index.inventoryIds) + ", not "
+                    + Arrays.toString(inventoryIds));
+        }
+        return index;
+    }
+
+    public int getInterfaceIndex() {
+        return interfaceIndex;
+    }
+
+    public int getComponentIndex() {
+        return componentIndex;
+    }
+
+    /**
+     * Gets the first component showing the given item.
+     *
+     * @param itemId the item id
+     * @return the component, or null if the item is not shown or the interface is closed
+     */
+    public synchronized Component forItem(int itemId) {
+        if (!refresh()) {
+            return null;
+        }
+        int index = byItem.get(itemId, -1);
+        if (index != -1 ? !isShowing(components[index], itemId) : GameTick.ticksSince(rebuiltTick, rebuiltMillis) >= 1) {
+            // The layout moved without the inventories changing, or the interface was drawn after they changed
+            rebuild();
+            index = byItem.get(itemId, -1);
+        }
+        return index != -1 ? components[index] : null;
+    }
+
+    /**
+     * Gets the item components that have the given option.
+     *
+     * @param option the option text
+     * @return the matching components, in interface order
+     */
+    public synchronized List<Component> withOption(String option) {
+        List<Component> result = new ArrayList<>();
+        if (!refresh()) {
+            return result;
+        }
+        for (Component component : components) {
+            var options = component.getOptions();
+            if (options != null && options.contains(option)) {
+                result.add(component);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets every item component of the interface.
+     *
+     * @return the components, in interface order
+     */
+    public synchronized List<Component> getComponents() {
+        return refresh() ? List.of(components) : List.of();
+    }
+
+    public synchronized void invalidate() {
+        stamps = null;
+    }
+
+    private boolean refresh() {
+        if (!Interfaces.isOpen(interfaceIndex)) {
+            stamps = null;
+            return false;
+        }
+        boolean changed = stamps == null;
+        if (changed) {
+            stamps = new long[inventoryIds.length];
+        }
+        for (int i = 0; i < inventoryIds.length; i++) {
+            long stamp = InventorySnapshots.getStamp(inventoryIds[i]);
+            if (stamp != stamps[i]) {
+                stamps[i] = stamp;
+                changed = true;
+            }
+        }
+        if (changed) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a cached component still shows the item, reading only that component.
+     */
+    private boolean isShowing(Component component, int itemId) {
+        var live = ComponentQuery.newQuery(interfaceIndex).componentIndex(component.getComponentIndex())
+                .subComponentIndex(component.getSubComponentIndex()).results().first();
+        return live != null && live.getItemId() == itemId;
+    }
+
+    private void rebuild() {
+        rebuiltTick = GameTick.current();
+        rebuiltMillis = System.currentTimeMillis();
+        var query = ComponentQuery.newQuery(interfaceIndex);
+        if (componentIndex != -1) {
+            query = query.componentIndex(componentIndex);
+        }
+        List<Component> items = new ArrayList<>();
+        byItem.clear();
+        for (Component component : query.results()) {
+            int itemId = component.getItemId();
+            if (itemId == -1) {
+                continue;
+            }
+            if (!byItem.containsKey(itemId)) {
+                byItem.put(itemId, items.size());
+            }
+            items.add(component);
+        }
+        components = items.toArray(new Component[0]);
+    }
+}
@@ -22,6 +22,8 @@ import java.util.stream.Collectors;
 import static net.botwithus.api.game.hud.inventories.Backpack.BACKPACK;
 
 public final class DepositBox {
+    private static final ComponentIndex DEPOSIT_BOX_COMPONENTS = ComponentIndex.of(11, -1, 93);
+
     private DepositBox() {
     }
 
@@ -62,6 +64,7 @@ public final class DepositBox {
      */
     public static boolean depositAll() {
         var result = ComponentQuery.newQuery(11).option("Deposit Carried Items").results().first();
+        BankMirror.expectDeposit();
         return result != null && result.interact();
     }
 
@@ -71,17 +74,17 @@ public final class DepositBox {
                 return false;
             }
         }
-        ResultSet<Item> itemsToDeposit = InventoryItemQuery.newQuery(new int[]{93}).name(patterns).results();
-        if (itemsToDeposit.size() == 0) {
+        var slots = InventoryItemQuery.newQuery(93).results().stream().filter(PatternMatchCache.MATCHES.predicateAny(patterns)).mapToInt(Item::getSlot).toArray();
+        if (slots.length == 0) {
             return true;
         }
-        var slots = itemsToDeposit.stream().mapToInt(Item::getSlot).toArray();
 
         for (int slotNum : slots) {
             if (net.botwithus.rs3.game.inventories.Backpack.getSlot(slotNum) == null) {
                 continue;
             }
             // don't think I can use a ComponentQuery here
+            BankMirror.expectDeposit();
             if (!MiniMenu.interact(ComponentAction.COMPONENT.getType(), 4, slotNum, 720915)) { // deposit-all at slot_num
                 return false;
             }
@@ -102,9 +105,10 @@ public final class DepositBox {
 
     public static boolean depositAllExcept(int... ids) {
         var idSet = Arrays.stream(ids).boxed().collect(Collectors.toSet());
-        var items = ComponentQuery.newQuery(11).results().stream().filter(i -> !idSet.contains(i.getItemId())).toArray(Component[]::new);
+        var items = DEPOSIT_BOX_COMPONENTS.getComponents().stream().filter(i -> !idSet.contains(i.getItemId())).toArray(Component[]::new);
         var itemIds = Arrays.stream(items).map(Component::getItemId).distinct().toArray();
         ScriptConsole.println("[DepositBox#depositAllExcept] Items: " + Arrays.toString(itemIds));
+        BankMirror.expectDeposit();
         return !Arrays.stream(items).distinct().map(i -> {
             var result = i.interact(4);
             ScriptConsole.println("[DepositBox#depositAllExcept] Interact result: " + result);
@@ -113,9 +117,7 @@ public final class DepositBox {
     }
 
     public static boolean depositAllExcept(Pattern... patterns) {
-        var itemIds = InventoryItemQuery.newQuery(93).name(patterns).results().stream().mapToInt(Item::getId).toArray();
-        var itemIds2 = Backpack.getItems().stream().filter(i -> Arrays.stream(patterns).anyMatch(p -> i.getName() != null && p.matcher(i.getName()).matches())).mapToInt(Item::getId).toArray();
-        return depositAllExcept(itemIds2);
+        return depositAllExcept(Backpack.getItemIds(patterns));
     }
 
     /**
@@ -125,6 +127,7 @@ public final class DepositBox {
      */
     public static boolean depositWornItems() {
         var result = ComponentQuery.newQuery(11).option("Deposit Worn Items").results().first();
+        BankMirror.expectDeposit();
         return result != null && result.interact();
     }
 
@@ -1,7 +1,6 @@
 package net.botwithus.api.game.hud.inventories;
 
 import net.botwithus.rs3.game.Item;
-import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
 import net.botwithus.rs3.util.Regex;
 
 import java.util.Arrays;
@@ -11,6 +10,7 @@ import java.util.regex.Pattern;
 public final class Equipment {
 
     public static final Inventory EQUIPMENT = new EquipmentInventory();
+    private static final Pattern EQUIP_PATTERN = Regex.getPatternForExactStrings("Wear", "Wield", "Equip");
 
     private Equipment() {
     }
@@ -32,7 +32,7 @@ public final class Equipment {
      * @return true if the item is present in the inventory, false otherwise.
      */
     public static boolean contains(String name) {
-        return !InventoryItemQuery.newQuery(EQUIPMENT.getId()).name(name).results().isEmpty();
+        return EQUIPMENT.contains(name);
     }
 
     /**
@@ -42,7 +42,7 @@ public final class Equipment {
      * @return True if an item with a matching name is present in the inventory, false otherwise.
      */
     public static boolean contains(Pattern pattern) {
-        return !InventoryItemQuery.newQuery(EQUIPMENT.getId()).name(pattern).results().isEmpty();
+        return EQUIPMENT.contains(pattern);
     }
 
     /**
@@ -71,7 +71,7 @@ public final class Equipment {
     }
 
     public static boolean equip(Slot slot) {
-        return interact(slot, Regex.getPatternForExactStrings("Wear", "Wield", "Equip"));
+        return interact(slot, EQUIP_PATTERN);
     }
 
     /**
@@ -82,7 +82,7 @@ public final class Equipment {
      * @return The value of the varbit, or -1 if the varbit is not present.
      */
     public static int getVarbitValue(int slot, int varbitId) {
-        var item = InventoryItemQuery.newQuery(EQUIPMENT.getId()).slots(slot).results().first();
+        var item = EQUIPMENT.getSlot(slot);
         return item != null ? item.getVarbitValue(varbitId) :-1;
     }
 
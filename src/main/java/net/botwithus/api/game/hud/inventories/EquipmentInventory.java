@@ -1,8 +1,6 @@
 package net.botwithus.api.game.hud.inventories;
 
 import net.botwithus.rs3.game.Item;
-import net.botwithus.rs3.game.hud.interfaces.Component;
-import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
 import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
 import net.botwithus.rs3.game.queries.results.ResultSet;
 import net.botwithus.rs3.script.ScriptConsole;
@@ -29,10 +27,7 @@ public class EquipmentInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -43,10 +38,7 @@ public class EquipmentInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -64,10 +56,7 @@ public class EquipmentInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
@@ -85,10 +74,7 @@ public class EquipmentInventory extends Inventory {
         Item item = results.first();
         if (item != null) {
             ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(
-                    item.getId()).componentIndex(componentIndex).results();
-            ScriptConsole.println("[xApi][EquipmentInventory#interact(slot, option)]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
+            var result = getComponents().forItem(item.getId());
             return result != null && result.interact(option);
         }
         return false;
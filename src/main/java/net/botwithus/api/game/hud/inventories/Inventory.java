@@ -7,17 +7,14 @@ import net.botwithus.rs3.game.Item;
 import net.botwithus.rs3.game.js5.types.InventoryType;
 import net.botwithus.rs3.game.js5.types.ItemType;
 import net.botwithus.rs3.game.js5.types.configs.ConfigManager;
-import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
 import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
 import net.botwithus.rs3.game.queries.results.ResultSet;
 import net.botwithus.rs3.script.config.ScriptConfig;
-import net.botwithus.rs3.util.Regex;
 
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class Inventory implements Iterable<Item> {
     private final InventoryType type;
@@ -28,6 +25,7 @@ public class Inventory implements Iterable<Item> {
     protected final int componentIndex;
 
     private final Function<Integer, Integer> optionMapper;
+    private final ComponentIndex components;
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
     public Inventory(int id, int interfaceIndex, int componentIndex, Function<Integer, Integer> optionMapper) {
@@ -36,18 +34,60 @@ public class Inventory implements Iterable<Item> {
         this.componentIndex = componentIndex;
         this.type = ConfigManager.getInventoryType(id);
         this.optionMapper = optionMapper;
+        this.components = ComponentIndex.of(interfaceIndex, componentIndex, id);
+    }
+
+    /**
+     * Gets the snapshot of this inventory for the current tick.
+     *
+     * @return the snapshot, or null if {@link InventorySnapshots} is disabled
+     */
+    protected InventorySnapshot snapshot() {
+        return InventorySnapshots.isEnabled() ? InventorySnapshots.get(id) : null;
+    }
+
+    /**
+     * Gets the slot index of this inventory for the current tick.
+     *
+     * @return the index, or null if {@link InventorySnapshots} is disabled
+     */
+    protected InventoryIndex index() {
+        var snapshot = snapshot();
+        return snapshot != null ? snapshot.getIndex() : null;
+    }
+
+    /**
+     * Gets the component index of the interface this inventory is displayed in.
+     *
+     * @return the component index
+     */
+    public ComponentIndex getComponents() {
+        return components;
     }
 
     public Item getSlot(int slot) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.getItem(slot);
+        }
         return InventoryItemQuery.newQuery(id).slots(slot).results().first();
     }
 
     public Item getItem(String name) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.getItem(snapshot.firstSlot(i -> name.equals(i.getName())));
+        }
         return InventoryItemQuery.newQuery(id).name(name).results().first();
     }
 
     public Item getItem(Pattern pattern) {
-        return InventoryItemQuery.newQuery(id).name(pattern).results().first();
+        var index = index();
+        if (index == null) {
+            return InventoryItemQuery.newQuery(id).name(pattern).results().first();
+        }
+        int entry = firstEntry(index, pattern);
+        return entry != -1 ? entryItem(index, entry) : null;
     }
 
     /**
@@ -56,6 +96,10 @@ public class Inventory implements Iterable<Item> {
      * @return true if the inventory is full, false otherwise
      */
     public boolean isFull() {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.isLoaded() && snapshot.countFreeSlots() == 0;
+        }
         // Server does not send inventory items on login when empty, which is why this check is necessary.
         ResultSet<Item> results = InventoryItemQuery.newQuery(id).results();
         if (results.isEmpty()) {
@@ -70,6 +114,10 @@ public class Inventory implements Iterable<Item> {
      * @return true if the inventory is empty, false otherwise
      */
     public boolean isEmpty() {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.countOccupiedSlots() == 0;
+        }
         // Server does not send inventory items on login when empty, which is why this check is necessary.
         ResultSet<Item> results = InventoryItemQuery.newQuery(id).results();
         if (results.isEmpty()) {
@@ -84,6 +132,10 @@ public class Inventory implements Iterable<Item> {
      * @return the number of free slots
      */
     public int countFreeSlots() {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.isLoaded() ? snapshot.countFreeSlots() : 28;
+        }
         ResultSet<Item> results = InventoryItemQuery.newQuery(id).results();
         if (results.isEmpty()) {
             return 28;
@@ -92,89 +144,234 @@ public class Inventory implements Iterable<Item> {
     }
 
     public boolean contains(String... names) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.firstSlot(i -> nameIn(i, names)) != -1;
+        }
         return !InventoryItemQuery.newQuery(id).name(names).results().isEmpty();
     }
 
     public boolean contains(int... ids) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.firstSlotOf(ids) != -1;
+        }
         return !InventoryItemQuery.newQuery(id).ids(ids).results().isEmpty();
     }
 
     public boolean contains(Pattern itemNamePattern) {
-        return !InventoryItemQuery.newQuery(id).name(itemNamePattern).results().isEmpty();
+        var index = index();
+        if (index == null) {
+            return !InventoryItemQuery.newQuery(id).name(itemNamePattern).results().isEmpty();
+        }
+        return firstEntry(index, itemNamePattern) != -1;
     }
 
+    /**
+     * Checks if every name matches at least one item.
+     *
+     * @param names the item names
+     * @return true if all names are present
+     */
     public boolean containsAllOf(String... names) {
-        var items = InventoryItemQuery.newQuery(id).name(names).results();
-        var itemsSet = new HashSet<>(items.stream().map(Item::getName).distinct().toList());
-        return !Arrays.stream(names).map(itemsSet::contains).toList().contains(false);
+        var index = index();
+        if (index == null) {
+            var items = getItems();
+            return Arrays.stream(names).allMatch(name -> items.stream().anyMatch(i -> name.equals(i.getName())));
+        }
+        for (String name : names) {
+            if (firstEntry(index, name) == -1) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    // TODO: Need to fix
+    /**
+     * Checks if every id is present in at least one slot.
+     *
+     * @param ids the item ids
+     * @return true if all ids are present
+     */
     public boolean containsAllOf(int... ids) {
-        var items = InventoryItemQuery.newQuery(id).ids(ids).results();
-        var itemsSet = items.stream().map(Item::getId).collect(Collectors.toUnmodifiableSet());
-//        return !Arrays.stream(ids).map(i -> itemsSet.contains(i)).toList().contains(false);
-        return false;
+        var index = index();
+        if (index == null) {
+            var items = InventoryItemQuery.newQuery(id).ids(ids).results();
+            return Arrays.stream(ids).allMatch(i -> items.stream().anyMatch(item -> item.getId() == i));
+        }
+        return index.containsAll(ids);
     }
 
+    /**
+     * Checks if every pattern matches the name of at least one item.
+     *
+     * @param patterns the item name patterns
+     * @return true if all patterns have a match
+     */
     public boolean containsAllOf(Pattern... patterns) {
-        var items = InventoryItemQuery.newQuery(id).name(patterns).results();
-        var itemsList = items.stream().map(Item::getName).distinct().collect(Collectors.toSet());
-        return !itemsList.stream().map(i -> !Arrays.stream(patterns).map(j -> j.matcher(i)).toList().contains(false)).toList().contains(false);
+        var index = index();
+        if (index == null) {
+            var items = getItems();
+            return Arrays.stream(patterns).allMatch(p -> items.stream().anyMatch(i -> nameMatches(i, p)));
+        }
+        for (Pattern pattern : patterns) {
+            if (firstEntry(index, pattern) == -1) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean containsAnyExcept(String... names) {
-        var items = getItems();
-        var nameSet = new HashSet<>(Arrays.asList(names));
-
-        for (Item item : items) {
-            if (!nameSet.contains(item.getName())) {
+        var index = index();
+        if (index == null) {
+            return getItems().stream().anyMatch(i -> !nameIn(i, names));
+        }
+        for (int entry = 0; entry < index.entryCount(); entry++) {
+            if (index.entryId(entry) != -1 && !nameIn(entryItem(index, entry), names)) {
                 return true;
             }
         }
-
         return false;
     }
 
+    /**
+     * Checks if any slot holds an item other than the given ids.
+     *
+     * @param ids the item ids to ignore
+     * @return true if at least one other item is present
+     */
+    public boolean containsAnyExcept(int... ids) {
+        var index = index();
+        if (index == null) {
+            return getItems().stream().anyMatch(i -> Arrays.stream(ids).noneMatch(id -> id == i.getId()));
+        }
+        return index.containsAnyExcept(ids);
+    }
+
     public boolean containsAnyExcept(Pattern... patterns) {
-        return !getItems().stream().map(Item::getName).distinct().filter(i -> !Arrays.stream(patterns).map(p -> p.matcher(i).matches()).toList().contains(true)).toList().isEmpty();
+        var index = index();
+        if (index == null) {
+            return getItems().stream().anyMatch(i -> !PatternMatchCache.MATCHES.testAny(patterns, i));
+        }
+        for (int entry = 0; entry < index.entryCount(); entry++) {
+            if (index.entryId(entry) == -1) {
+                continue;
+            }
+            var item = entryItem(index, entry);
+            boolean matched = false;
+            for (Pattern pattern : patterns) {
+                if (nameMatches(item, pattern)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the distinct ids of the items whose names match any of the patterns, in slot order.
+     *
+     * @param patterns the item name patterns
+     * @return the matching item ids
+     */
+    public int[] getItemIds(Pattern... patterns) {
+        var index = index();
+        if (index == null) {
+            return getItems().stream().filter(i -> PatternMatchCache.MATCHES.testAny(patterns, i))
+                    .mapToInt(Item::getId).distinct().toArray();
+        }
+        int[] ids = new int[index.entryCount()];
+        int count = 0;
+        for (int entry = 0; entry < index.entryCount(); entry++) {
+            if (index.entryId(entry) != -1 && PatternMatchCache.MATCHES.testAny(patterns, entryItem(index, entry))) {
+                ids[count++] = index.entryId(entry);
+            }
+        }
+        return Arrays.copyOf(ids, count);
     }
 
     public boolean containsItemByCategory(int... categoryIds) {
-        return Arrays.stream(categoryIds).anyMatch(i -> !InventoryItemQuery.newQuery(id).category(i).results().isEmpty());
+        var index = index();
+        if (index == null) {
+            return Arrays.stream(categoryIds).anyMatch(i -> !InventoryItemQuery.newQuery(id).category(i).results().isEmpty());
+        }
+        return index.containsAnyCategory(categoryIds);
     }
 
     public int getCount() {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.getResultCount();
+        }
         return InventoryItemQuery.newQuery(id).results().size();
     }
 
     public int getCount(String... names) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.countSlots(i -> nameIn(i, names));
+        }
         return InventoryItemQuery.newQuery(id).name(names).results().size();
     }
 
     public int getCount(int... ids) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.countSlotsOf(ids);
+        }
         return InventoryItemQuery.newQuery(id).ids(ids).results().size();
     }
 
     public int getCount(Pattern pattern) {
         //TODO this is confusingly named
-        return InventoryItemQuery.newQuery(id).name(pattern).results().size();
+        var index = index();
+        if (index == null) {
+            return InventoryItemQuery.newQuery(id).name(pattern).results().size();
+        }
+        int count = 0;
+        for (int entry = 0; entry < index.entryCount(); entry++) {
+            int itemId = index.entryId(entry);
+            if (itemId != -1 && nameMatches(entryItem(index, entry), pattern)) {
+                count += index.slotCount(itemId);
+            }
+        }
+        return count;
     }
 
     public int getQuantity(String... names) {
         //TODO not just first, but all that are in the inventory
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            int slot = snapshot.firstSlot(i -> nameIn(i, names));
+            return slot != -1 ? snapshot.getStackSize(slot) : -1;
+        }
         var item = InventoryItemQuery.newQuery(id).name(names).results().first();
         return item != null ? item.getStackSize() : -1;
     }
 
     public int getQuantity(int... ids) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            int slot = snapshot.firstSlotOf(ids);
+            return slot != -1 ? snapshot.getStackSize(slot) : -1;
+        }
         var item = InventoryItemQuery.newQuery(id).ids(ids).results().first();
         return item != null ? item.getStackSize() : -1;
     }
 
     public int getQuantity(Pattern itemNamePattern) {
-        var item = InventoryItemQuery.newQuery(id).name(itemNamePattern).results().first();
-        return item != null ? item.getStackSize() : -1;
+        var index = index();
+        if (index == null) {
+            var item = InventoryItemQuery.newQuery(id).name(itemNamePattern).results().first();
+            return item != null ? item.getStackSize() : -1;
+        }
+        int entry = firstEntry(index, itemNamePattern);
+        return entry != -1 ? index.getSnapshot().getStackSize(index.entrySlot(entry)) : -1;
     }
 
     /**
@@ -185,31 +382,34 @@ public class Inventory implements Iterable<Item> {
      * @return True if the action was successful, false otherwise.
      */
     public boolean interact(int slot, Pattern option) {
-        Item item = InventoryItemQuery.newQuery(id).slots(slot).results().first();
+        Item item = getSlot(slot);
         if (item == null) {
             return false;
         }
-        ItemType type = item.getConfigType();
-        if (type == null) {
-            return false;
-        }
-        List<String> options;
-        if (id == 94) {
-            //TODO check if the indices need to be tweaked
-            options = Items.getWornEquipmentOptions(type);
-        } else if (id == 95) {
-            //TODO these use indices 8 and 9 I believe
-            options = Items.getBankOptions(type);
-        } else {
-            options = item.getConfigType().getBackpackOptions();
-        }
-        for (int i = 0; i < options.size(); i++) {
-            String s = options.get(i);
-            if (s != null && option.matcher(s).matches()) {
-                return interact(slot, i);
+        int index = OptionIndexCache.resolve(id, item.getId(), option, null, () -> {
+            ItemType type = item.getConfigType();
+            if (type == null) {
+                return OptionIndexCache.UNRESOLVED;
             }
-        }
-        return false;
+            List<String> options;
+            if (id == 94) {
+                //TODO check if the indices need to be tweaked
+                options = Items.getWornEquipmentOptions(type);
+            } else if (id == 95) {
+                //TODO these use indices 8 and 9 I believe
+                options = Items.getBankOptions(type);
+            } else {
+                options = type.getBackpackOptions();
+            }
+            for (int i = 0; i < options.size(); i++) {
+                String s = options.get(i);
+                if (s != null && option.matcher(s).matches()) {
+                    return i;
+                }
+            }
+            return -1;
+        });
+        return index != -1 && interact(slot, index);
     }
 
     /**
@@ -220,7 +420,7 @@ public class Inventory implements Iterable<Item> {
      * @return True if the action was successful, false otherwise.
      */
     public boolean interact(int slot, String option) {
-        return interact(slot, Regex.getPatternForExactString(option));
+        return interact(slot, OptionIndexCache.exact(option));
     }
 
     /**
@@ -231,14 +431,11 @@ public class Inventory implements Iterable<Item> {
      * @return True if the action was successful, false otherwise.
      */
     public boolean interact(int slot, int option) {
-        ResultSet<Item> results = InventoryItemQuery.newQuery(id).slots(slot).results();
-        Item item = results.first();
+        Item item = getSlot(slot);
         if (item != null) {
 //            log.atInfo().log("[Inventory#interact(slot="+slot+", option="+option+")]: " + item.getId());
-            ResultSet<Component> queryResults = ComponentQuery.newQuery(interfaceIndex).item(item.getId()).componentIndex(componentIndex).withOptionMapper(optionMapper).results();
-//            log.atInfo().log("[Inventory#interact(slot="+slot+", option="+option+")]: QueryResults: " + queryResults.size());
-            var result = queryResults.first();
-            return result != null && result.interact(option);
+            var result = components.forItem(item.getId());
+            return result != null && result.interact(optionMapper.apply(option));
         }
         return false;
     }
@@ -261,7 +458,7 @@ public class Inventory implements Iterable<Item> {
      * @return True if the action was successful, false otherwise.
      */
     public boolean interact(String name, int option) {
-        Item item = InventoryItemQuery.newQuery(id).name(name).results().first();
+        Item item = getItem(name);
         return item != null && interact(item.getSlot(), option);
     }
 
@@ -277,18 +474,22 @@ public class Inventory implements Iterable<Item> {
     }
 
     public boolean interact(Pattern namePattern, String option) {
-        Item item = InventoryItemQuery.newQuery(id).name(namePattern).results().first();
+        Item item = getItem(namePattern);
 
         return item != null && interact(item.getSlot(), option);
     }
 
     public boolean interact(Pattern namePattern, int option) {
-        Item item = InventoryItemQuery.newQuery(id).name(namePattern).results().first();
+        Item item = getItem(namePattern);
 
         return item != null && interact(item.getSlot(), option);
     }
 
     public List<Item> getItems() {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.getItems();
+        }
         List<Item> items = new ArrayList<>();
         for (Item result : InventoryItemQuery.newQuery(id).results()) {
 //            log.atInfo().log("[Inventory#getItems] Processing item:");
@@ -305,7 +506,7 @@ public class Inventory implements Iterable<Item> {
     }
 
     public List<Item> getItemsWithOptions(String option) {
-        var idsWithOption = ComponentQuery.newQuery(interfaceIndex).option(option).componentIndex(componentIndex).results().stream().mapToInt(Component::getItemId);
+        var idsWithOption = components.withOption(option).stream().mapToInt(Component::getItemId);
         return InventoryItemQuery.newQuery(id).ids(idsWithOption.toArray()).results().stream().toList();
     }
 
@@ -321,24 +522,31 @@ public class Inventory implements Iterable<Item> {
     public boolean interact(String name, String option, BiFunction<String, CharSequence, Boolean> namepred, BiFunction<String, CharSequence, Boolean> optionpred) {
         Item item = InventoryItemQuery.newQuery(id).name(name, namepred).results().first();
         if (item != null) {
-            List<String> options;
-            if (id == 94) {
-                options = Items.getWornEquipmentOptions(item.getConfigType());
-            } else {
-                options = Items.getBankOptions(item.getConfigType());
-            }
-            for (int j = 0; j < options.size(); j++) {
-                String s = options.get(j);
-                if (optionpred.apply(s, option)) {
-                    int optionIndex = j;
-                    try {
-                        var result = ComponentQuery.newQuery(interfaceIndex).item(item.getId()).componentIndex(componentIndex).results().first();
-                        return result != null && result.interact(optionMapper.apply(optionIndex));
-                    } catch (Exception e) {
-                        log.atSevere().withCause(e).log("ComponentQuery Exception for { interfaceIndex: " + interfaceIndex + " }, { itemId: " + item.getId() + " }, { componentIndex: " + componentIndex + " }");
-                        return false;
+            int optionIndex = OptionIndexCache.resolve(id, item.getId(), option, optionpred, () -> {
+                ItemType type = item.getConfigType();
+                if (type == null) {
+                    return OptionIndexCache.UNRESOLVED;
+                }
+                List<String> options;
+                if (id == 94) {
+                    options = Items.getWornEquipmentOptions(type);
+                } else {
+                    options = Items.getBankOptions(type);
+                }
+                for (int j = 0; j < options.size(); j++) {
+                    if (optionpred.apply(options.get(j), option)) {
+                        return j;
                     }
-
+                }
+                return -1;
+            });
+            if (optionIndex != -1) {
+                try {
+                    var result = components.forItem(item.getId());
+                    return result != null && result.interact(optionMapper.apply(optionIndex));
+                } catch (Exception e) {
+                    log.atSevere().withCause(e).log("ComponentQuery Exception for { interfaceIndex: " + interfaceIndex + " }, { itemId: " + item.getId() + " }, { componentIndex: " + componentIndex + " }");
+                    return false;
                 }
             }
         }
@@ -362,6 +570,10 @@ public class Inventory implements Iterable<Item> {
      * @return The value of the varbit.
      */
     public int getVarbitValue(int slot, int varbitId) {
+        var snapshot = snapshot();
+        if (snapshot != null) {
+            return snapshot.getVarbitValue(slot, varbitId);
+        }
         var item = InventoryItemQuery.newQuery(id).slots(slot).results().first();
         return item != null ? item.getVarbitValue(varbitId) : Integer.MIN_VALUE;
     }
@@ -371,4 +583,43 @@ public class Inventory implements Iterable<Item> {
         return getItems().iterator();
     }
 
+    private static Item entryItem(InventoryIndex index, int entry) {
+        return index.getSnapshot().getItem(index.entrySlot(entry));
+    }
+
+    private static int firstEntry(InventoryIndex index, String name) {
+        for (int entry = 0; entry < index.entryCount(); entry++) {
+            if (index.entryId(entry) != -1 && name.equals(entryItem(index, entry).getName())) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private static int firstEntry(InventoryIndex index, Pattern pattern) {
+        for (int entry = 0; entry < index.entryCount(); entry++) {
+            if (index.entryId(entry) != -1 && nameMatches(entryItem(index, entry), pattern)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean nameIn(Item item, String... names) {
+        var name = item.getName();
+        if (name == null) {
+            return false;
+        }
+        for (String n : names) {
+            if (name.equals(n)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean nameMatches(Item item, Pattern pattern) {
+        return PatternMatchCache.MATCHES.test(pattern, item);
+    }
+
 }
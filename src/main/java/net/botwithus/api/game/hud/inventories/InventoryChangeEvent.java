@@ -0,0 +1,75 @@
+package net.botwithus.api.game.hud.inventories;
+
+/**
+ * A change to a single inventory slot between two consecutive snapshots.
+ * <p>
+ * A slot whose item is replaced by a different item produces a {@link Type#REMOVED} event for the old item
+ * followed by an {@link Type#ADDED} event for the new one.
+ */
+public class InventoryChangeEvent {
+    private final Type type;
+    private final int inventoryId;
+    private final int slot;
+    private final int itemId;
+    private final int previousAmount;
+    private final int amount;
+    private final long tick;
+
+    public InventoryChangeEvent(Type type, int inventoryId, int slot, int itemId, int previousAmount, int amount, long tick) {
+        this.type = type;
+        this.inventoryId = inventoryId;
+        this.slot = slot;
+        this.itemId = itemId;
+        this.previousAmount = previousAmount;
+        this.amount = amount;
+        this.tick = tick;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getInventoryId() {
+        return inventoryId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getItemId() {
+        return itemId;
+    }
+
+    public int getPreviousAmount() {
+        return previousAmount;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets the change in stack size, negative for removals.
+     *
+     * @return the stack size delta
+     */
+    public int getDelta() {
+        return amount - previousAmount;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryChangeEvent{" + "type=" + type + ", inventoryId=" + inventoryId + ", slot=" + slot + ", itemId=" + itemId + ", delta=" + getDelta() + ", tick=" + tick + '}';
+    }
+
+    public enum Type {
+        ADDED,
+        REMOVED,
+        STACK_CHANGED
+    }
+}
@@ -0,0 +1,6 @@
+package net.botwithus.api.game.hud.inventories;
+
+@FunctionalInterface
+public interface InventoryChangeListener {
+    void onChange(InventoryChangeEvent event);
+}
@@ -0,0 +1,234 @@
+package net.botwithus.api.game.hud.inventories;
+
+import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.GameTick;
+import net.botwithus.api.util.collection.IntIntMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Publishes slot-level changes of tracked inventories, such as the backpack (93), equipment (94), bank (95) or
+ * loot window (773).
+ * <p>
+ * On every {@link GameTick} each tracked inventory is compared with the snapshot from the previous tick and an
+ * {@link InventoryChangeEvent} is sent to its listeners for every slot that changed. Running gained and lost
+ * totals are kept per item id, so loot or consumption statistics only cost work when something changes.
+ * Inventories that are not loaded, such as the bank while it is closed, are skipped until they load again, and
+ * the first snapshot after tracking starts only primes the tracker.
+ */
+public final class InventoryChanges {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final Map<Integer, Tracker> TRACKERS = new ConcurrentHashMap<>();
+    private static final LongConsumer TICK_LISTENER = InventoryChanges::update;
+
+    private InventoryChanges() {
+    }
+
+    /**
+     * Starts tracking the given inventory.
+     *
+     * @param inventoryId the inventory id
+     */
+    public static void track(int inventoryId) {
+        TRACKERS.computeIfAbsent(inventoryId, Tracker::new);
+        GameTick.addListener(TICK_LISTENER);
+    }
+
+    public static void track(Inventory inventory) {
+        track(inventory.getId());
+    }
+
+    /**
+     * Stops tracking the given inventory and drops its listeners and counters.
+     *
+     * @param inventoryId the inventory id
+     */
+    public static void untrack(int inventoryId) {
+        TRACKERS.remove(inventoryId);
+        if (TRACKERS.isEmpty()) {
+            GameTick.removeListener(TICK_LISTENER);
+        }
+    }
+
+    public static boolean isTracked(int inventoryId) {
+        return TRACKERS.containsKey(inventoryId);
+    }
+
+    /**
+     * Adds a listener for changes to the given inventory, tracking it if it is not tracked yet.
+     *
+     * @param inventoryId the inventory id
+     * @param listener    the listener
+     */
+    public static void addListener(int inventoryId, InventoryChangeListener listener) {
+        track(inventoryId);
+        TRACKERS.get(inventoryId).listeners.add(listener);
+    }
+
+    public static void removeListener(int inventoryId, InventoryChangeListener listener) {
+        var tracker = TRACKERS.get(inventoryId);
+        if (tracker != null) {
+            tracker.listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Diffs every tracked inventory against its previous snapshot. Called on every {@link GameTick#advance()}.
+     *
+     * @param tick the current tick
+     */
+    public static void update(long tick) {
+        for (Tracker tracker : TRACKERS.values()) {
+            tracker.update(tick);
+        }
+    }
+
+    /**
+     * Gets the total amount of an item added to an inventory since tracking started or the counters were reset.
+     *
+     * @param inventoryId the inventory id
+     * @param itemId      the item id
+     * @return the amount gained
+     */
+    public static long getGained(int inventoryId, int itemId) {
+        var tracker = TRACKERS.get(inventoryId);
+        return tracker != null ? tracker.gained(itemId) : 0;
+    }
+
+    /**
+     * Gets the total amount of an item removed from an inventory since tracking started or the counters were reset.
+     *
+     * @param inventoryId the inventory id
+     * @param itemId      the item id
+     * @return the amount lost, as a positive number
+     */
+    public static long getLost(int inventoryId, int itemId) {
+        var tracker = TRACKERS.get(inventoryId);
+        return tracker != null ? tracker.lost(itemId) : 0;
+    }
+
+    public static long getNet(int inventoryId, int itemId) {
+        return getGained(inventoryId, itemId) - getLost(inventoryId, itemId);
+    }
+
+    /**
+     * Gets the number of events published for an inventory since tracking started or the counters were reset.
+     *
+     * @param inventoryId the inventory id
+     * @return the event count
+     */
+    public static long getEventCount(int inventoryId) {
+        var tracker = TRACKERS.get(inventoryId);
+        return tracker != null ? tracker.events : 0;
+    }
+
+    public static void resetCounters(int inventoryId) {
+        var tracker = TRACKERS.get(inventoryId);
+        if (tracker != null) {
+            tracker.resetCounters();
+        }
+    }
+
+    private static final class Tracker {
+        private final int inventoryId;
+        private final List<InventoryChangeListener> listeners = new CopyOnWriteArrayList<>();
+        private int[] ids = new int[0];
+        private int[] amounts = new int[0];
+        private boolean primed = false;
+
+        private final IntIntMap counterIndex = new IntIntMap();
+        private long[] gained = new long[16];
+        private long[] lost = new long[16];
+        private long events;
+
+        private Tracker(int inventoryId) {
+            this.inventoryId = inventoryId;
+        }
+
+        private synchronized void update(long tick) {
+            var snapshot = InventorySnapshots.current(inventoryId);
+            if (!snapshot.isLoaded()) {
+                return;
+            }
+            int capacity = snapshot.capacity();
+            if (primed) {
+                int slots = Math.max(capacity, ids.length);
+                for (int slot = 0; slot < slots; slot++) {
+                    int previousId = slot < ids.length ? ids[slot] : -1;
+                    int previousAmount = slot < amounts.length ? amounts[slot] : 0;
+                    int id = snapshot.getItemId(slot);
+                    int amount = snapshot.getStackSize(slot);
+                    if (previousId == id) {
+                        if (id != -1 && previousAmount != amount) {
+                            publish(new InventoryChangeEvent(InventoryChangeEvent.Type.STACK_CHANGED, inventoryId, slot, id, previousAmount, amount, tick));
+                        }
+                        continue;
+                    }
+                    if (previousId != -1) {
+                        publish(new InventoryChangeEvent(InventoryChangeEvent.Type.REMOVED, inventoryId, slot, previousId, previousAmount, 0, tick));
+                    }
+                    if (id != -1) {
+                        publish(new InventoryChangeEvent(InventoryChangeEvent.Type.ADDED, inventoryId, slot, id, 0, amount, tick));
+                    }
+                }
+            }
+            if (ids.length != capacity) {
+                ids = new int[capacity];
+                amounts = new int[capacity];
+            }
+            for (int slot = 0; slot < capacity; slot++) {
+                ids[slot] = snapshot.getItemId(slot);
+                amounts[slot] = snapshot.getStackSize(slot);
+            }
+            primed = true;
+        }
+
+        private void publish(InventoryChangeEvent event) {
+            events++;
+            int delta = event.getDelta();
+            int index = counterIndex.get(event.getItemId(), -1);
+            if (index == -1) {
+                index = counterIndex.size();
+                counterIndex.put(event.getItemId(), index);
+                if (index == gained.length) {
+                    gained = Arrays.copyOf(gained, index << 1);
+                    lost = Arrays.copyOf(lost, index << 1);
+                }
+            }
+            if (delta > 0) {
+                gained[index] += delta;
+            } else {
+                lost[index] -= delta;
+            }
+            for (InventoryChangeListener listener : listeners) {
+                try {
+                    listener.onChange(event);
+                } catch (Exception e) {
+                    log.atSevere().withCause(e).log("Inventory change listener failed for " + event);
+                }
+            }
+        }
+
+        private synchronized long gained(int itemId) {
+            int index = counterIndex.get(itemId, -1);
+            return index != -1 ? gained[index] : 0;
+        }
+
+        private synchronized long lost(int itemId) {
+            int index = counterIndex.get(itemId, -1);
+            return index != -1 ? lost[index] : 0;
+        }
+
+        private synchronized void resetCounters() {
+            counterIndex.clear();
+            Arrays.fill(gained, 0);
+            Arrays.fill(lost, 0);
+            events = 0;
+        }
+    }
+}
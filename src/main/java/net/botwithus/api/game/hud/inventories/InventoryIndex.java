@@ -0,0 +1,245 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.api.util.collection.IntIntMap;
+import net.botwithus.rs3.game.Item;
+
+import java.util.Arrays;
+
+/**
+ * Slot lookups for an {@link InventorySnapshot}, keyed by item id and by item category.
+ * <p>
+ * Every distinct item id in the snapshot, including {@code -1} for empty slots, is an entry with its lowest slot and
+ * slot count. Memory grows with the number of distinct items, so even the bank stays small. Membership and slot
+ * counts are map lookups and do not allocate. The category counts are built on the first category lookup, because
+ * they need each distinct item's config.
+ */
+public final class InventoryIndex {
+    private final InventorySnapshot snapshot;
+    private final IntIntMap entriesById;
+    private final int[] entryIds;
+    private final int[] entrySlots;
+    private final int[] entryCounts;
+    private final int entryCount;
+    private final int occupiedCount;
+
+    private IntIntMap categoryCounts;
+
+    InventoryIndex(InventorySnapshot snapshot) {
+        this.snapshot = snapshot;
+        int capacity = snapshot.capacity();
+        this.entriesById = new IntIntMap();
+        int[] ids = new int[Math.min(capacity, 16)];
+        int[] slots = new int[ids.length];
+        int[] counts = new int[ids.length];
+        int entries = 0, occupied = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!snapshot.isRead(slot)) {
+                continue;
+            }
+            int id = snapshot.getItemId(slot);
+            int entry = entriesById.get(id, -1);
+            if (entry == -1) {
+                if (entries == ids.length) {
+                    ids = Arrays.copyOf(ids, entries * 2);
+                    slots = Arrays.copyOf(slots, entries * 2);
+                    counts = Arrays.copyOf(counts, entries * 2);
+                }
+                entry = entries++;
+                entriesById.put(id, entry);
+                ids[entry] = id;
+                slots[entry] = slot;
+            }
+            counts[entry]++;
+            if (id != -1) {
+                occupied++;
+            }
+        }
+        this.entryIds = ids;
+        this.entrySlots = slots;
+        this.entryCounts = counts;
+        this.entryCount = entries;
+        this.occupiedCount = occupied;
+    }
+
+    public InventorySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the number of distinct item ids, including {@code -1} if there are empty slots.
+     *
+     * @return the number of entries
+     */
+    public int entryCount() {
+        return entryCount;
+    }
+
+    public int entryId(int entry) {
+        return entryIds[entry];
+    }
+
+    /**
+     * Gets the lowest slot holding the entry's item.
+     *
+     * @param entry the entry
+     * @return the slot
+     */
+    public int entrySlot(int entry) {
+        return entrySlots[entry];
+    }
+
+    public int occupiedCount() {
+        return occupiedCount;
+    }
+
+    public boolean contains(int id) {
+        return entriesById.containsKey(id);
+    }
+
+    public int firstSlot(int id) {
+        int entry = entriesById.get(id, -1);
+        return entry != -1 ? entrySlots[entry] : -1;
+    }
+
+    /**
+     * Counts the slots holding the given item id.
+     *
+     * @param id the item id
+     * @return the number of slots
+     */
+    public int slotCount(int id) {
+        int entry = entriesById.get(id, -1);
+        return entry != -1 ? entryCounts[entry] : 0;
+    }
+
+    /**
+     * Checks whether the slot holds the given item id.
+     *
+     * @param id   the item id
+     * @param slot the slot
+     * @return true if the slot was read and holds the id
+     */
+    public boolean isInSlot(int id, int slot) {
+        return snapshot.isRead(slot) && snapshot.getItemId(slot) == id;
+    }
+
+    public boolean containsAny(int... ids) {
+        for (int id : ids) {
+            if (entriesById.containsKey(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsAll(int... ids) {
+        for (int id : ids) {
+            if (!entriesById.containsKey(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the lowest slot holding any of the given ids.
+     *
+     * @param ids the item ids
+     * @return the slot, or -1 if none are present
+     */
+    public int firstSlotOfAny(int... ids) {
+        int first = -1;
+        for (int id : ids) {
+            int slot = firstSlot(id);
+            if (slot != -1 && (first == -1 || slot < first)) {
+                first = slot;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Counts the slots holding any of the given ids. Repeated ids are counted once.
+     *
+     * @param ids the item ids
+     * @return the number of slots
+     */
+    public int slotCountOfAny(int... ids) {
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (!isRepeated(ids, i)) {
+                count += slotCount(ids[i]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether any occupied slot holds an item other than the given ids.
+     *
+     * @param ids the item ids to ignore
+     * @return true if at least one other item is present
+     */
+    public boolean containsAnyExcept(int... ids) {
+        int excluded = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != -1 && !isRepeated(ids, i)) {
+                excluded += slotCount(ids[i]);
+            }
+        }
+        return occupiedCount > excluded;
+    }
+
+    public boolean containsCategory(int category) {
+        ensureCategories();
+        return categoryCounts.containsKey(category);
+    }
+
+    public boolean containsAnyCategory(int... categories) {
+        ensureCategories();
+        for (int category : categories) {
+            if (categoryCounts.containsKey(category)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the slots holding an item of the given category.
+     *
+     * @param category the item category
+     * @return the number of slots
+     */
+    public int categorySlotCount(int category) {
+        ensureCategories();
+        return categoryCounts.get(category, 0);
+    }
+
+    private void ensureCategories() {
+        if (categoryCounts != null) {
+            return;
+        }
+        var counts = new IntIntMap();
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (entryIds[entry] == -1) {
+                continue;
+            }
+            Item item = snapshot.getItem(entrySlots[entry]);
+            var type = item != null ? item.getConfigType() : null;
+            if (type != null) {
+                counts.put(type.getCategory(), counts.get(type.getCategory(), 0) + entryCounts[entry]);
+            }
+        }
+        categoryCounts = counts;
+    }
+
+    private static boolean isRepeated(int[] ids, int index) {
+        for (int i = 0; i < index; i++) {
+            if (ids[i] == ids[index]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
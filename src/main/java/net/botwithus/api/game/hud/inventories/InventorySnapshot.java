@@ -0,0 +1,258 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.rs3.game.Item;
+import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
+import net.botwithus.rs3.game.queries.results.ResultSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The contents of an inventory as read on a single game tick, laid out as slot-indexed arrays.
+ * <p>
+ * Empty slots have an item id of {@code -1}. Slots the server did not send (for example an empty backpack right
+ * after login) have no backing {@link Item} and are not counted by {@link #getResultCount()}.
+ */
+public final class InventorySnapshot {
+    private final int inventoryId;
+    private final long tick;
+    private final int resultCount;
+    private final int[] ids;
+    private final int[] amounts;
+    private final Item[] items;
+    private InventoryIndex index;
+
+    private InventorySnapshot(int inventoryId, long tick, int resultCount, int[] ids, int[] amounts, Item[] items) {
+        this.inventoryId = inventoryId;
+        this.tick = tick;
+        this.resultCount = resultCount;
+        this.ids = ids;
+        this.amounts = amounts;
+        this.items = items;
+    }
+
+    /**
+     * Reads every slot of the given inventory with a single query.
+     *
+     * @param inventoryId the inventory to read
+     * @param tick        the tick the snapshot is valid for
+     * @return the snapshot
+     */
+    static InventorySnapshot capture(int inventoryId, long tick) {
+        ResultSet<Item> results = InventoryItemQuery.newQuery(inventoryId).results();
+        int capacity = 0;
+        for (Item item : results) {
+            if (item.getSlot() >= capacity) {
+                capacity = item.getSlot() + 1;
+            }
+        }
+        int[] ids = new int[capacity];
+        int[] amounts = new int[capacity];
+        Item[] items = new Item[capacity];
+        Arrays.fill(ids, -1);
+        for (Item item : results) {
+            int slot = item.getSlot();
+            if (slot < 0) {
+                continue;
+            }
+            ids[slot] = item.getId();
+            amounts[slot] = item.getId() == -1 ? 0 : item.getStackSize();
+            items[slot] = item;
+        }
+        return new InventorySnapshot(inventoryId, tick, results.size(), ids, amounts, items);
+    }
+
+    /**
+     * Builds a snapshot from slot arrays, for synthetic inventories such as those in tests. Every slot counts as read
+     * but has no backing {@link Item}.
+     *
+     * @param inventoryId the inventory id
+     * @param tick        the tick the snapshot is valid for
+     * @param ids         the item id in each slot, {@code -1} for empty slots
+     * @param amounts     the stack size in each slot
+     * @return the snapshot
+     */
+    static InventorySnapshot of(int inventoryId, long tick, int[] ids, int[] amounts) {
+        return new InventorySnapshot(inventoryId, tick, ids.length, ids.clone(), Arrays.copyOf(amounts, ids.length), null);
+    }
+
+    public int getInventoryId() {
+        return inventoryId;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Checks whether the server has sent this inventory at all.
+     *
+     * @return true if at least one slot was read
+     */
+    public boolean isLoaded() {
+        return resultCount > 0;
+    }
+
+    /**
+     * Gets the number of slots returned by the underlying query, including empty ones.
+     *
+     * @return the number of slots read
+     */
+    public int getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * Gets the number of slots in the snapshot, which is one past the highest slot read.
+     *
+     * @return the slot capacity
+     */
+    public int capacity() {
+        return ids.length;
+    }
+
+    public int getItemId(int slot) {
+        return slot >= 0 && slot < ids.length ? ids[slot] : -1;
+    }
+
+    public int getStackSize(int slot) {
+        return slot >= 0 && slot < amounts.length ? amounts[slot] : 0;
+    }
+
+    public Item getItem(int slot) {
+        return items != null && slot >= 0 && slot < items.length ? items[slot] : null;
+    }
+
+    /**
+     * Checks whether the server sent a slot, empty or not.
+     *
+     * @param slot the slot
+     * @return true if the slot was read
+     */
+    boolean isRead(int slot) {
+        return slot >= 0 && slot < ids.length && (items == null || items[slot] != null);
+    }
+
+    /**
+     * Gets the id and category slot index of this snapshot, building it on first use.
+     *
+     * @return the index
+     */
+    public InventoryIndex getIndex() {
+        if (index == null) {
+            index = new InventoryIndex(this);
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether another snapshot holds the same item ids in the same slots, ignoring stack sizes.
+     *
+     * @param other the snapshot to compare with, may be null
+     * @return true if the slot layout is the same
+     */
+    public boolean hasSameItemIds(InventorySnapshot other) {
+        return other != null && (other == this || Arrays.equals(ids, other.ids));
+    }
+
+    /**
+     * Checks whether another snapshot holds the same items with the same stack sizes in the same slots.
+     *
+     * @param other the snapshot to compare with, may be null
+     * @return true if the contents are the same
+     */
+    public boolean hasSameContents(InventorySnapshot other) {
+        return other != null && (other == this || Arrays.equals(ids, other.ids) && Arrays.equals(amounts, other.amounts));
+    }
+
+    public int getVarbitValue(int slot, int varbitId) {
+        var item = getItem(slot);
+        return item != null ? item.getVarbitValue(varbitId) : Integer.MIN_VALUE;
+    }
+
+    public int countFreeSlots() {
+        int count = 0;
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] == -1 && isRead(slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int countOccupiedSlots() {
+        int count = 0;
+        for (int id : ids) {
+            if (id != -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the lowest slot whose item id is one of the given ids.
+     *
+     * @param itemIds the ids to look for
+     * @return the slot, or -1 if none match
+     */
+    public int firstSlotOf(int... itemIds) {
+        return getIndex().firstSlotOfAny(itemIds);
+    }
+
+    public int countSlotsOf(int... itemIds) {
+        return getIndex().slotCountOfAny(itemIds);
+    }
+
+    /**
+     * Finds the lowest occupied slot whose item matches the filter.
+     *
+     * @param filter the filter to apply
+     * @return the slot, or -1 if none match
+     */
+    public int firstSlot(Predicate<Item> filter) {
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != -1 && filter.test(getItem(slot))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    public int countSlots(Predicate<Item> filter) {
+        int count = 0;
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != -1 && filter.test(getItem(slot))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long sumStackSizes(Predicate<Item> filter) {
+        long total = 0;
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != -1 && filter.test(getItem(slot))) {
+                total += amounts[slot];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the occupied slots in slot order.
+     *
+     * @return a new list of the items in this snapshot
+     */
+    public List<Item> getItems() {
+        List<Item> result = new ArrayList<>(ids.length);
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] > -1) {
+                result.add(getItem(slot));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.api.game.GameTick;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in per-tick cache of inventory contents shared by every {@link Inventory}.
+ * <p>
+ * While enabled, each inventory is read at most once per {@link GameTick} and all read methods on
+ * {@link Inventory} (and the static facades built on it, such as {@link Backpack}, {@link Bank},
+ * {@link Equipment} and {@link LootInventory}) are answered from that {@link InventorySnapshot}.
+ * Anything that changes an inventory mid-tick is only visible on the next tick, or after {@link #invalidate(int)}.
+ */
+public final class InventorySnapshots {
+    private static final Map<Integer, InventorySnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final Map<Integer, Stamp> STAMPS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = false;
+
+    private InventorySnapshots() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        InventorySnapshots.enabled = enabled;
+        if (!enabled) {
+            SNAPSHOTS.clear();
+        }
+    }
+
+    /**
+     * Gets the snapshot of the given inventory for the current tick, reading it if this is the first request this tick.
+     *
+     * @param inventoryId the inventory id
+     * @return the snapshot for the current tick
+     */
+    public static InventorySnapshot get(int inventoryId) {
+        long tick = GameTick.current();
+        var snapshot = SNAPSHOTS.get(inventoryId);
+        if (snapshot == null || snapshot.getTick() != tick) {
+            snapshot = InventorySnapshot.capture(inventoryId, tick);
+            SNAPSHOTS.put(inventoryId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the snapshot of the given inventory for the current tick, reading a one-off snapshot if disabled.
+     *
+     * @param inventoryId the inventory id
+     * @return the snapshot
+     */
+    public static InventorySnapshot current(int inventoryId) {
+        return enabled ? get(inventoryId) : InventorySnapshot.capture(inventoryId, GameTick.current());
+    }
+
+    /**
+     * Gets a number that changes whenever the item ids in the inventory's slots change, ignoring stack sizes.
+     * <p>
+     * The inventory is read at most once per tick, or once per 600ms for scripts that do not advance
+     * {@link GameTick}, whether or not snapshots are enabled, so callers can check it on every use.
+     *
+     * @param inventoryId the inventory id
+     * @return the change stamp
+     */
+    public static long getStamp(int inventoryId) {
+        return STAMPS.computeIfAbsent(inventoryId, Stamp::new).getVersion();
+    }
+
+    /**
+     * Gets a number that changes whenever the item ids or stack sizes in the inventory's slots change, read the same
+     * way as {@link #getStamp(int)}.
+     *
+     * @param inventoryId the inventory id
+     * @return the change stamp
+     */
+    public static long getContentStamp(int inventoryId) {
+        return STAMPS.computeIfAbsent(inventoryId, Stamp::new).getContentVersion();
+    }
+
+    /**
+     * Discards the cached snapshot of the given inventory so the next read re-queries it.
+     *
+     * @param inventoryId the inventory id
+     */
+    public static void invalidate(int inventoryId) {
+        SNAPSHOTS.remove(inventoryId);
+        var stamp = STAMPS.get(inventoryId);
+        if (stamp != null) {
+            stamp.expire();
+        }
+    }
+
+    public static void invalidateAll() {
+        SNAPSHOTS.clear();
+        STAMPS.values().forEach(Stamp::expire);
+    }
+
+    private static final class Stamp {
+        private final int inventoryId;
+        private InventorySnapshot snapshot;
+        private long millis;
+        private long version;
+        private long contentVersion;
+
+        private Stamp(int inventoryId) {
+            this.inventoryId = inventoryId;
+        }
+
+        private synchronized long getVersion() {
+            read();
+            return version;
+        }
+
+        private synchronized long getContentVersion() {
+            read();
+            return contentVersion;
+        }
+
+        private void read() {
+            long now = System.currentTimeMillis();
+            if (snapshot == null || GameTick.ticksSince(snapshot.getTick(), millis) >= 1) {
+                var current = current(inventoryId);
+                if (!current.hasSameItemIds(snapshot)) {
+                    version++;
+                }
+                if (!current.hasSameContents(snapshot)) {
+                    contentVersion++;
+                }
+                snapshot = current;
+                millis = now;
+            }
+        }
+
+        private synchronized void expire() {
+            millis = 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package net.botwithus.api.game.hud.inventories;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The backpack and equipment a script wants to leave the bank with, used by {@link LoadoutPlanner}.
+ * <p>
+ * Backpack items are given as an exact amount or {@link #ALL}. Items not listed are deposited. Equipment is only
+ * managed once at least one item is added with {@link #equip(int)}; from then on anything else that is worn is
+ * deposited.
+ */
+public final class Loadout {
+    public static final int ALL = Integer.MAX_VALUE;
+
+    private final Map<Integer, Integer> backpack = new LinkedHashMap<>();
+    private final Set<Integer> equipment = new LinkedHashSet<>();
+    private int presetNumber = -1;
+
+    /**
+     * Asks for an exact amount of an item in the backpack.
+     *
+     * @param itemId the item id
+     * @param amount the amount, or {@link #ALL} for every one in the bank
+     * @return this loadout
+     */
+    public Loadout withdraw(int itemId, int amount) {
+        if (amount <= 0) {
+            backpack.remove(itemId);
+        } else {
+            backpack.put(itemId, amount);
+        }
+        return this;
+    }
+
+    public Loadout withdrawAll(int itemId) {
+        return withdraw(itemId, ALL);
+    }
+
+    /**
+     * Asks for an item to be worn.
+     *
+     * @param itemId the item id
+     * @return this loadout
+     */
+    public Loadout equip(int itemId) {
+        equipment.add(itemId);
+        return this;
+    }
+
+    /**
+     * Names a bank preset that produces this loadout, so the planner can load it in one interaction.
+     *
+     * @param presetNumber the preset number, or -1 for none
+     * @return this loadout
+     */
+    public Loadout preset(int presetNumber) {
+        this.presetNumber = presetNumber;
+        return this;
+    }
+
+    public Map<Integer, Integer> getBackpack() {
+        return Collections.unmodifiableMap(backpack);
+    }
+
+    public Set<Integer> getEquipment() {
+        return Collections.unmodifiableSet(equipment);
+    }
+
+    public int getPresetNumber() {
+        return presetNumber;
+    }
+
+    public boolean isEquipmentManaged() {
+        return !equipment.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Loadout{backpack=" + backpack + ", equipment=" + equipment + ", preset=" + presetNumber + "}";
+    }
+}
@@ -0,0 +1,170 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.api.game.hud.EnterXInterface;
+import net.botwithus.rs3.input.GameInput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static net.botwithus.api.game.hud.inventories.BankOperation.act;
+import static net.botwithus.api.game.hud.inventories.BankOperation.await;
+
+/**
+ * The bank actions {@link LoadoutPlanner} chose to reach a {@link Loadout}, in the order they run.
+ */
+public final class LoadoutPlan {
+    private final List<Action> actions;
+    private final Map<Integer, Integer> missing;
+
+    LoadoutPlan(List<Action> actions, Map<Integer, Integer> missing) {
+        this.actions = Collections.unmodifiableList(actions);
+        this.missing = Collections.unmodifiableMap(missing);
+    }
+
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    /**
+     * Gets the items the bank did not have enough of.
+     *
+     * @return the item ids mapped to the amount that could not be withdrawn
+     */
+    public Map<Integer, Integer> getMissing() {
+        return missing;
+    }
+
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    /**
+     * Gets the number of interactions the plan sends, counting a custom withdraw-X as two.
+     *
+     * @return the interaction count
+     */
+    public int getInteractionCount() {
+        int count = 0;
+        for (Action action : actions) {
+            count += action.getInteractionCount();
+        }
+        return count;
+    }
+
+    BankOperation.Step[] toSteps() {
+        List<BankOperation.Step> steps = new ArrayList<>();
+        for (Action action : actions) {
+            action.addSteps(steps);
+        }
+        return steps.toArray(new BankOperation.Step[0]);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadoutPlan{actions=" + actions + ", missing=" + missing + "}";
+    }
+
+    public static final class Action {
+        public enum Type {
+            LOAD_PRESET,
+            DEPOSIT_BACKPACK,
+            DEPOSIT_EQUIPMENT,
+            DEPOSIT,
+            WITHDRAW,
+            WITHDRAW_X,
+            EQUIP
+        }
+
+        private final Type type;
+        private final int itemId;
+        private final int value;
+
+        Action(Type type, int itemId, int value) {
+            this.type = type;
+            this.itemId = itemId;
+            this.value = value;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Gets the item the action is for.
+         *
+         * @return the item id, or -1 for presets and deposit-all buttons
+         */
+        public int getItemId() {
+            return itemId;
+        }
+
+        /**
+         * Gets the preset number for {@link Type#LOAD_PRESET}, the bank option for {@link Type#WITHDRAW} or the
+         * amount typed for {@link Type#WITHDRAW_X}.
+         *
+         * @return the value, or -1 if the type has none
+         */
+        public int getValue() {
+            return value;
+        }
+
+        public int getInteractionCount() {
+            return type == Type.WITHDRAW_X ? 2 : 1;
+        }
+
+        private void addSteps(List<BankOperation.Step> steps) {
+            switch (type) {
+                case LOAD_PRESET -> steps.addAll(List.of(BankEngine.presetSteps(value)));
+                case DEPOSIT_BACKPACK -> {
+                    steps.add(act(Bank::depositBackpack));
+                    steps.add(await(() -> InventorySnapshots.current(93).countOccupiedSlots() == 0, 3));
+                }
+                case DEPOSIT_EQUIPMENT -> {
+                    steps.add(act(Bank::depositEquipment));
+                    steps.add(await(() -> InventorySnapshots.current(94).countOccupiedSlots() == 0, 3));
+                }
+                case DEPOSIT -> {
+                    steps.add(act(() -> BankEngine.depositItem(itemId, 1)));
+                    steps.add(await(() -> !Backpack.contains(itemId), 3));
+                }
+                case WITHDRAW -> {
+                    var before = new long[1];
+                    steps.add(act(() -> {
+                        before[0] = BankEngine.carried(itemId);
+                        return BankEngine.withdrawItem(itemId, value);
+                    }));
+                    steps.add(await(() -> BankEngine.carried(itemId) > before[0], 3));
+                }
+                case WITHDRAW_X -> {
+                    var before = new long[1];
+                    steps.add(act(() -> {
+                        before[0] = BankEngine.carried(itemId);
+                        return BankEngine.withdrawItem(itemId, LoadoutPlanner.WITHDRAW_CUSTOM_X_OPTION);
+                    }));
+                    steps.add(await(EnterXInterface::isOpen, 3));
+                    steps.add(act(() -> {
+                        GameInput.setIntInput(value);
+                        return true;
+                    }));
+                    steps.add(await(() -> BankEngine.carried(itemId) > before[0], 3));
+                }
+                case EQUIP -> {
+                    steps.add(act(() -> BankEngine.equipItem(itemId)));
+                    steps.add(await(() -> InventorySnapshots.current(94).getIndex().contains(itemId), 3));
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return switch (type) {
+                case LOAD_PRESET -> "LOAD_PRESET(" + value + ")";
+                case DEPOSIT_BACKPACK, DEPOSIT_EQUIPMENT -> type.name();
+                case WITHDRAW, WITHDRAW_X -> type + "(" + itemId + ", " + value + ")";
+                default -> type + "(" + itemId + ")";
+            };
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package net.botwithus.api.game.hud.inventories;
+
+import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.hud.inventories.LoadoutPlan.Action;
+import net.botwithus.rs3.game.vars.VarManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static net.botwithus.api.game.hud.inventories.BankOperation.expand;
+
+/**
+ * Works out the fewest bank interactions that turn the current backpack and equipment into a {@link Loadout}.
+ * <p>
+ * A named preset always wins, since it is a single interaction. Otherwise the planner compares depositing the whole
+ * backpack against depositing only the items that have to go, and withdraws each item with whichever of the
+ * withdraw-1/5/10/All options, the current withdraw-X amount (varp 111) or a new withdraw-X needs the fewest
+ * interactions. Bank options are picked directly, so the transfer option is never switched back and forth.
+ */
+public final class LoadoutPlanner {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    static final int WITHDRAW_CUSTOM_X_OPTION = 6;
+    private static final int WITHDRAW_X_VARP_ID = 111;
+
+    private LoadoutPlanner() {
+    }
+
+    /**
+     * Plans the actions for the loadout from the current backpack, equipment and bank.
+     *
+     * @param loadout the loadout to reach
+     * @return the plan, empty if the loadout is already met
+     */
+    public static LoadoutPlan plan(Loadout loadout) {
+        return plan(loadout, amounts(InventorySnapshots.current(93)), amounts(InventorySnapshots.current(94)),
+                amounts(InventorySnapshots.current(95)), VarManager.getVarpValue(WITHDRAW_X_VARP_ID));
+    }
+
+    /**
+     * Opens the nearest bank if needed, then plans and runs the loadout as one operation. The plan is made once the
+     * bank is open, so it sees the bank's contents.
+     *
+     * @param loadout the loadout to reach
+     * @return the queued operation
+     */
+    public static BankOperation execute(Loadout loadout) {
+        List<BankOperation.Step> steps = new ArrayList<>(List.of(BankEngine.openSteps()));
+        steps.add(expand(() -> {
+            var plan = plan(loadout);
+            log.atInfo().log("[Bank] " + plan);
+            return plan.toSteps();
+        }));
+        return BankEngine.submit(new BankOperation("loadout", steps.toArray(new BankOperation.Step[0])));
+    }
+
+    static LoadoutPlan plan(Loadout loadout, Map<Integer, Integer> backpack, Map<Integer, Integer> equipment,
+                            Map<Integer, Integer> bank, int currentX) {
+        List<Action> actions = new ArrayList<>();
+        Set<Integer> toEquip = new LinkedHashSet<>();
+        Map<Integer, Integer> banked = new HashMap<>(bank);
+        if (loadout.isEquipmentManaged()) {
+            if (!loadout.getEquipment().containsAll(equipment.keySet())) {
+                actions.add(new Action(Action.Type.DEPOSIT_EQUIPMENT, -1, -1));
+                toEquip.addAll(loadout.getEquipment());
+                // Worn items the loadout keeps come back out of the bank with everything else
+                for (var entry : equipment.entrySet()) {
+                    banked.merge(entry.getKey(), entry.getValue(), Integer::sum);
+                }
+            } else {
+                for (int itemId : loadout.getEquipment()) {
+                    if (!equipment.containsKey(itemId)) {
+                        toEquip.add(itemId);
+                    }
+                }
+            }
+        }
+
+        // Items to wear are withdrawn into the backpack first
+        Map<Integer, Integer> wanted = new LinkedHashMap<>(loadout.getBackpack());
+        for (int itemId : toEquip) {
+            wanted.merge(itemId, 1, (a, b) -> a == Loadout.ALL ? a : a + b);
+        }
+
+        // Deposit only what has to go
+        List<Action> partial = new ArrayList<>();
+        Map<Integer, Integer> partialMissing = new HashMap<>();
+        Map<Integer, Integer> partialBank = new HashMap<>(banked);
+        Map<Integer, Integer> needs = new LinkedHashMap<>();
+        for (var entry : backpack.entrySet()) {
+            int itemId = entry.getKey(), held = entry.getValue();
+            int target = wanted.getOrDefault(itemId, 0);
+            if (target == Loadout.ALL) {
+                needs.put(itemId, Loadout.ALL);
+            } else if (held > target) {
+                partial.add(new Action(Action.Type.DEPOSIT, itemId, -1));
+                partialBank.merge(itemId, held, Integer::sum);
+                needs.put(itemId, target);
+            } else {
+                needs.put(itemId, target - held);
+            }
+        }
+        for (var entry : wanted.entrySet()) {
+            needs.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        int[] partialX = {currentX};
+        for (var entry : needs.entrySet()) {
+            withdraw(entry.getKey(), entry.getValue(), partialBank.getOrDefault(entry.getKey(), 0), partialX, partial, partialMissing);
+        }
+
+        // Deposit the whole backpack and withdraw everything
+        List<Action> full = new ArrayList<>();
+        Map<Integer, Integer> fullMissing = new HashMap<>();
+        if (!backpack.isEmpty()) {
+            full.add(new Action(Action.Type.DEPOSIT_BACKPACK, -1, -1));
+        }
+        int[] fullX = {currentX};
+        for (var entry : wanted.entrySet()) {
+            int itemId = entry.getKey();
+            withdraw(itemId, entry.getValue(), banked.getOrDefault(itemId, 0) + backpack.getOrDefault(itemId, 0), fullX, full, fullMissing);
+        }
+
+        var best = interactionCount(full) < interactionCount(partial) ? full : partial;
+        var missing = best == full ? fullMissing : partialMissing;
+        actions.addAll(best);
+        for (int itemId : toEquip) {
+            actions.add(new Action(Action.Type.EQUIP, itemId, -1));
+        }
+        if (!actions.isEmpty() && loadout.getPresetNumber() != -1) {
+            return new LoadoutPlan(List.of(new Action(Action.Type.LOAD_PRESET, -1, loadout.getPresetNumber())), Map.of());
+        }
+        return new LoadoutPlan(actions, missing);
+    }
+
+    /**
+     * Adds the cheapest withdrawals for the given amount of an item.
+     */
+    private static void withdraw(int itemId, int amount, int banked, int[] currentX, List<Action> actions, Map<Integer, Integer> missing) {
+        if (amount == 0) {
+            return;
+        }
+        if (banked <= 0) {
+            if (amount != Loadout.ALL) {
+                missing.put(itemId, amount);
+            }
+            return;
+        }
+        if (amount == Loadout.ALL || amount >= banked) {
+            if (amount != Loadout.ALL && amount > banked) {
+                missing.put(itemId, amount - banked);
+            }
+            actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.ALL.getVarbitStateValue()));
+            return;
+        }
+        switch (amount) {
+            case 1 -> actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.ONE.getVarbitStateValue()));
+            case 5 -> actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.FIVE.getVarbitStateValue()));
+            case 10 -> actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.TEN.getVarbitStateValue()));
+            default -> {
+                if (amount == currentX[0]) {
+                    actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.X.getVarbitStateValue()));
+                    return;
+                }
+                int tens = amount / 10, fives = amount % 10 / 5, ones = amount % 5;
+                if (tens + fives + ones > 2) {
+                    actions.add(new Action(Action.Type.WITHDRAW_X, itemId, amount));
+                    currentX[0] = amount;
+                    return;
+                }
+                for (int i = 0; i < tens; i++) {
+                    actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.TEN.getVarbitStateValue()));
+                }
+                for (int i = 0; i < fives; i++) {
+                    actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.FIVE.getVarbitStateValue()));
+                }
+                for (int i = 0; i < ones; i++) {
+                    actions.add(new Action(Action.Type.WITHDRAW, itemId, TransferOptionType.ONE.getVarbitStateValue()));
+                }
+            }
+        }
+    }
+
+    private static int interactionCount(List<Action> actions) {
+        int count = 0;
+        for (Action action : actions) {
+            count += action.getInteractionCount();
+        }
+        return count;
+    }
+
+    private static Map<Integer, Integer> amounts(InventorySnapshot snapshot) {
+        Map<Integer, Integer> amounts = new LinkedHashMap<>();
+        for (int slot = 0; slot < snapshot.capacity(); slot++) {
+            int itemId = snapshot.getItemId(slot);
+            if (itemId != -1) {
+                amounts.merge(itemId, snapshot.getStackSize(slot), Integer::sum);
+            }
+        }
+        return amounts;
+    }
+}
@@ -1,5 +1,6 @@
 package net.botwithus.api.game.hud.inventories;
 
+import net.botwithus.api.game.hud.grandexchange.ItemPrices;
 import net.botwithus.rs3.game.hud.interfaces.Component;
 import net.botwithus.rs3.game.hud.interfaces.Interfaces;
 import net.botwithus.rs3.game.Item;
@@ -23,6 +24,7 @@ public final class LootInventory {
     private static final int LOOT_INTERFACE = 1622;
     private static final int LOOT_VARP = 5413;
     private static final int INVENTORY_ID = 773;
+    private static final ComponentIndex LOOT_COMPONENTS = ComponentIndex.of(LOOT_INTERFACE, -1, INVENTORY_ID);
     private static final Pattern ALL_PATTERN = Pattern.compile("^(.*)$");
     static final Inventory LOOT_INVENTORY = new Inventory(INVENTORY_ID, LOOT_INTERFACE, 5, i -> i + 1);
 
@@ -95,9 +97,9 @@ public final class LootInventory {
      * @param ids the ids to check the items against
      * @return true if at least one item doesn't match the ids
      */
-//    public static boolean containsAnyExcept(final int... ids) {
-//        return LOOT_INVENTORY.containsAnyExcept(ids);
-//    }
+    public static boolean containsAnyExcept(final int... ids) {
+        return LOOT_INVENTORY.containsAnyExcept(ids);
+    }
 
     /**
      * Checks if any items don't match the given names
@@ -149,6 +151,31 @@ public final class LootInventory {
         return LOOT_INVENTORY.getQuantity(names);
     }
 
+    /**
+     * Gets the value of the loot at the median prices known to {@link ItemPrices}. Items that were never priced
+     * count as nothing.
+     *
+     * @return the total value
+     */
+    public static long getValue() {
+        long value = 0;
+        for (Item item : getItems()) {
+            value += ItemPrices.getValue(item.getId(), item.getStackSize());
+        }
+        return value;
+    }
+
+    /**
+     * Gets the items whose stack is worth at least the given amount at the median prices known to
+     * {@link ItemPrices}.
+     *
+     * @param minValue the least a stack must be worth
+     * @return the matching items
+     */
+    public static List<Item> getItemsWorth(long minValue) {
+        return getItems().stream().filter(item -> ItemPrices.getValue(item.getId(), item.getStackSize()) >= minValue).toList();
+    }
+
     public static boolean close(boolean hotkey) {
         if (!isOpen()) {
             return true;
@@ -166,7 +193,7 @@ public final class LootInventory {
     }
 
     public static List<Item> getItems(Pattern namePattern) {
-        return getItems().stream().filter(item -> namePattern.matcher(item.getName()).find()).toList();
+        return getItems().stream().filter(PatternMatchCache.FIND.predicate(namePattern)).toList();
     }
 
     public static List<Item> getItems(String... names) {
@@ -221,7 +248,7 @@ public final class LootInventory {
             return false;
         }
         int quantity = getQuantity(item.getId());
-        var itemComp = ComponentQuery.newQuery(LOOT_INTERFACE).item(item.getId()).results().first();
+        var itemComp = LOOT_COMPONENTS.forItem(item.getId());
         return itemComp != null && itemComp.interact(1) && Execution.delayUntil(RandomGenerator.nextInt(1500, 2500), () -> quantity != getQuantity(item.getId()));
 //        return LOOT_INVENTORY.interact(item.getName()) && Execution.delayUntil(RandomGenerator.nextInt(1500, 2500), () -> quantity != getQuantity(item.getId()));
     }
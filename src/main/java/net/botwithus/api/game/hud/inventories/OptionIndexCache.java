@@ -0,0 +1,111 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.rs3.util.Regex;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers which option index an item's option text resolves to in an inventory.
+ * <p>
+ * Item options come from the item config and never change, so once an (inventory id, item id, option) lookup has
+ * been resolved, repeated interactions skip the config reads and regex matching. Misses are remembered as
+ * {@code -1} too, unless the resolver could not read the item config yet and returned {@link #UNRESOLVED}. Both
+ * tables are cleared when they grow past their bound.
+ */
+final class OptionIndexCache {
+    /**
+     * Returned by a resolver when the item config is not loaded, so the lookup is tried again next time.
+     */
+    static final int UNRESOLVED = -2;
+
+    private static final int MAX_INDICES = 4096;
+    private static final int MAX_PATTERNS = 512;
+    private static final Map<Key, Integer> INDICES = new ConcurrentHashMap<>();
+    private static final Map<String, Pattern> EXACT_PATTERNS = new ConcurrentHashMap<>();
+
+    private OptionIndexCache() {
+    }
+
+    /**
+     * Gets the interned exact-match pattern for an option.
+     *
+     * @param option the option text
+     * @return the pattern from {@link Regex#getPatternForExactString(String)}
+     */
+    static Pattern exact(String option) {
+        var pattern = EXACT_PATTERNS.get(option);
+        if (pattern == null) {
+            if (EXACT_PATTERNS.size() >= MAX_PATTERNS) {
+                EXACT_PATTERNS.clear();
+            }
+            pattern = EXACT_PATTERNS.computeIfAbsent(option, Regex::getPatternForExactString);
+        }
+        return pattern;
+    }
+
+    /**
+     * Gets the option index for the given key, resolving and remembering it on the first lookup.
+     *
+     * @param inventoryId the inventory id
+     * @param itemId      the item id
+     * @param option      the option text or pattern
+     * @param matcher     how the option is compared, or null if the option is a pattern
+     * @param resolver    resolves the index from the item config, returning -1 if no option matches or
+     *                    {@link #UNRESOLVED} if the config is not loaded
+     * @return the option index, or -1 if no option matches
+     */
+    static int resolve(int inventoryId, int itemId, Object option, Object matcher, IntSupplier resolver) {
+        var key = new Key(inventoryId, itemId, option, matcher);
+        var index = INDICES.get(key);
+        if (index == null) {
+            index = resolver.getAsInt();
+            if (index == UNRESOLVED) {
+                return -1;
+            }
+            if (INDICES.size() >= MAX_INDICES) {
+                INDICES.clear();
+            }
+            INDICES.put(key, index);
+        }
+        return index;
+    }
+
+    static void clear() {
+        INDICES.clear();
+        EXACT_PATTERNS.clear();
+    }
+
+    private static final class Key {
+        private final int inventoryId;
+        private final int itemId;
+        private final Object option;
+        private final Object matcher;
+
+        private Key(int inventoryId, int itemId, Object option, Object matcher) {
+            this.inventoryId = inventoryId;
+            this.itemId = itemId;
+            this.option = option;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return inventoryId == key.inventoryId && itemId == key.itemId && matcher == key.matcher && Objects.equals(option, key.option);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(inventoryId, itemId, option, System.identityHashCode(matcher));
+        }
+    }
+}
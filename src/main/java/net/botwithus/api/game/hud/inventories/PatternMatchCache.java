@@ -0,0 +1,150 @@
+package net.botwithus.api.game.hud.inventories;
+
+import net.botwithus.api.util.collection.IntIntMap;
+import net.botwithus.rs3.game.Item;
+import net.botwithus.rs3.game.js5.types.configs.ConfigManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers whether an item name pattern matches a given item id.
+ * <p>
+ * An item id's name never changes, so each (pattern, item id) pair only has to run the regex once. Results are
+ * kept in a primitive map per pattern. Patterns are compared by identity, so callers should keep their patterns in
+ * constants rather than compiling them per call. Both the number of patterns and the ids remembered per pattern are
+ * bounded: the least recently used pattern is dropped first, and a pattern's table is cleared once it is full.
+ * <p>
+ * {@link #MATCHES} requires the whole name to match, {@link #FIND} accepts a match anywhere in the name.
+ */
+public final class PatternMatchCache {
+    public static final PatternMatchCache MATCHES = new PatternMatchCache(false, 256, 4096);
+    public static final PatternMatchCache FIND = new PatternMatchCache(true, 256, 4096);
+
+    private static final int NO = 0;
+    private static final int YES = 1;
+
+    private final boolean find;
+    private final int maxIdsPerPattern;
+    private final Map<Pattern, IntIntMap> tables;
+    private long hits;
+    private long misses;
+
+    public PatternMatchCache(boolean find, int maxPatterns, int maxIdsPerPattern) {
+        this.find = find;
+        this.maxIdsPerPattern = maxIdsPerPattern;
+        this.tables = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Pattern, IntIntMap> eldest) {
+                return size() > maxPatterns;
+            }
+        };
+    }
+
+    /**
+     * Checks whether the item's name matches the pattern.
+     *
+     * @param pattern the name pattern
+     * @param item    the item, may be null
+     * @return true if the item has a name and it matches
+     */
+    public boolean test(Pattern pattern, Item item) {
+        return item != null && test(pattern, item.getId(), item.getName());
+    }
+
+    /**
+     * Checks whether the name of the given item id matches the pattern, running the regex only on the first lookup.
+     *
+     * @param pattern the name pattern
+     * @param itemId  the item id
+     * @param name    the item's name, used on a miss
+     * @return true if the name matches
+     */
+    public boolean test(Pattern pattern, int itemId, String name) {
+        return test(pattern, itemId, name, false);
+    }
+
+    /**
+     * Checks whether the name of the given item id matches the pattern, reading the name from the item config only
+     * on the first lookup.
+     *
+     * @param pattern the name pattern
+     * @param itemId  the item id
+     * @return true if the name matches
+     */
+    public boolean test(Pattern pattern, int itemId) {
+        return test(pattern, itemId, null, true);
+    }
+
+    private synchronized boolean test(Pattern pattern, int itemId, String name, boolean fromConfig) {
+        var table = tables.get(pattern);
+        if (table == null) {
+            table = new IntIntMap();
+            tables.put(pattern, table);
+        }
+        int cached = table.get(itemId, -1);
+        if (cached != -1) {
+            hits++;
+            return cached == YES;
+        }
+        if (fromConfig) {
+            var type = ConfigManager.getItemType(itemId);
+            name = type != null ? type.getName() : null;
+        }
+        if (name == null) {
+            // Names can be missing until the item config loads, so don't remember a miss
+            return false;
+        }
+        misses++;
+        var matcher = pattern.matcher(name);
+        boolean matched = find ? matcher.find() : matcher.matches();
+        if (table.size() >= maxIdsPerPattern) {
+            table.clear();
+        }
+        table.put(itemId, matched ? YES : NO);
+        return matched;
+    }
+
+    /**
+     * Checks whether the item's name matches any of the patterns.
+     *
+     * @param patterns the name patterns
+     * @param item     the item, may be null
+     * @return true if at least one pattern matches
+     */
+    public boolean testAny(Pattern[] patterns, Item item) {
+        if (item == null) {
+            return false;
+        }
+        for (Pattern pattern : patterns) {
+            if (test(pattern, item.getId(), item.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Predicate<Item> predicate(Pattern pattern) {
+        return item -> test(pattern, item);
+    }
+
+    public Predicate<Item> predicateAny(Pattern... patterns) {
+        return item -> testAny(patterns, item);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        tables.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
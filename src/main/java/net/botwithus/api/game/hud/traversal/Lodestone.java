@@ -2,6 +2,7 @@ package net.botwithus.api.game.hud.traversal;
 
 import com.google.common.flogger.FluentLogger;
 import net.botwithus.rs3.game.Client;
+import net.botwithus.rs3.game.Coordinate;
 import net.botwithus.rs3.game.minimenu.MiniMenu;
 import net.botwithus.rs3.game.minimenu.actions.ComponentAction;
 import net.botwithus.rs3.script.Execution;
@@ -10,35 +11,35 @@ import net.botwithus.rs3.game.js5.types.configs.ConfigManager;
 import net.botwithus.rs3.game.vars.VarManager;
 
 public enum Lodestone {
-    AL_KHARID(71565322, 28, 93961),
-    ANACHRONIA(71565336, 44270, 194564),
-    ARDOUGNE(71565323, 29, 94212),
-    ASHDALE(71565345, 22430, 194560),
-    BANDIT_CAMP(71565320, 9482, 194326),
-    BURTHORPE(71565324, 30, 34838),
-    CANIFIS(71565338, 18523, 194327),
-    CATHERBY(71565325, 31, 119575),
-    CITY_OF_UM(71565347, 53270, 386308),
-    DRAYNOR_VILLAGE(71565326, 32, 193546),
-    EDGEVILLE(71565327, 33, 193793),
-    EAGLES_PEAK(71565339, 18524, 194328),
-    FALADOR(71565328, 34, 194066),
-    FORT_FORINTHRY(71565334, 52518, 318742),
-    FREMENNIK_PROVINCE(71565340, 18525, 194329),
-    KARAMJA(71565341, 18526, 194330),
-    LUMBRIDGE(71565329, 35, 194070),
-    LUNAR_ISLE(71565321, 10236, 194325),
-    MENAPHOS(71565335, 36173, 194563),
-    OOGLOG(71565342, 18527, 194331),
-    PORT_SARIM(71565330, 36, 194314),
-    PRIFDDINAS(71565346, 24967, 194561),
-    SEERS_VILLAGE(71565331, 37, 194315),
-    TAVERLY(71565332, 38, 194316),
-    TIRANNWN(71565343, 18528, 194332),
-    VARROCK(71565333, 39, 194318),
-    WENDELWICK(71565353, 60739, 423949),
-    WILDERNESS_CRATER(71565344, 18529, 194333),
-    YANILLE(71565337, 40, 194324);
+    AL_KHARID(71565322, 28, 93961, 3297, 3184),
+    ANACHRONIA(71565336, 44270, 194564, 5431, 2338),
+    ARDOUGNE(71565323, 29, 94212, 2634, 3348),
+    ASHDALE(71565345, 22430, 194560, 2474, 2708),
+    BANDIT_CAMP(71565320, 9482, 194326, 3214, 2954),
+    BURTHORPE(71565324, 30, 34838, 2899, 3544),
+    CANIFIS(71565338, 18523, 194327, 3517, 3515),
+    CATHERBY(71565325, 31, 119575, 2811, 3449),
+    CITY_OF_UM(71565347, 53270, 386308, 1084, 1768),
+    DRAYNOR_VILLAGE(71565326, 32, 193546, 3105, 3298),
+    EDGEVILLE(71565327, 33, 193793, 3067, 3505),
+    EAGLES_PEAK(71565339, 18524, 194328, 2366, 3479),
+    FALADOR(71565328, 34, 194066, 2967, 3403),
+    FORT_FORINTHRY(71565334, 52518, 318742, 3298, 3525),
+    FREMENNIK_PROVINCE(71565340, 18525, 194329, 2712, 3677),
+    KARAMJA(71565341, 18526, 194330, 2761, 3147),
+    LUMBRIDGE(71565329, 35, 194070, 3233, 3221),
+    LUNAR_ISLE(71565321, 10236, 194325, 2085, 3914),
+    MENAPHOS(71565335, 36173, 194563, 3216, 2716),
+    OOGLOG(71565342, 18527, 194331, 2532, 2871),
+    PORT_SARIM(71565330, 36, 194314, 3011, 3215),
+    PRIFDDINAS(71565346, 24967, 194561, 2208, 3360),
+    SEERS_VILLAGE(71565331, 37, 194315, 2689, 3482),
+    TAVERLY(71565332, 38, 194316, 2878, 3442),
+    TIRANNWN(71565343, 18528, 194332, 2254, 3149),
+    VARROCK(71565333, 39, 194318, 3214, 3376),
+    WENDELWICK(71565353, 60739, 423949, -1, -1),
+    WILDERNESS_CRATER(71565344, 18529, 194333, 3143, 3635),
+    YANILLE(71565337, 40, 194324, 2560, 3094);
 
     private static final int HIDDEN_LODESTONE_TELEPORTS_VARBIT = 50990;
     private static final int TELEPORT_LIST_COMPONENT = 1461 << 16 | 1;
@@ -47,12 +48,39 @@ public enum Lodestone {
     private final int interactId;
     private final int varbitId;
     private final int structId;
+    private final Coordinate coordinate;
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
-    Lodestone(int interactId, int varbitId, int structId) {
+    Lodestone(int interactId, int varbitId, int structId, int x, int y) {
         this.interactId = interactId;
         this.varbitId = varbitId;
         this.structId = structId;
+        this.coordinate = x == -1 ? null : new Coordinate(x, y, 0);
+    }
+
+    /**
+     * Gets the tile the teleport lands the player on.
+     *
+     * @return the coordinate, or null if it is not known
+     */
+    public Coordinate getCoordinate() {
+        return coordinate;
+    }
+
+    /**
+     * Gets how long a lodestone teleport usually takes, which is much shorter once quick lodestone teleports are
+     * unlocked.
+     *
+     * @return the time in milliseconds
+     */
+    public static long getTeleportMillis() {
+        return isQuickTeleport() ? 5500 : 13000;
+    }
+
+    private static boolean isQuickTeleport() {
+        int wax = VarManager.getVarbitValue(28623);
+        int quick = VarManager.getVarbitValue(28622);
+        return quick == 1 && wax > 0;
     }
 
     //TODO: Update to no longer use MiniMenu.doAction
@@ -92,6 +120,27 @@ public enum Lodestone {
         return false;
     }
 
+    /**
+     * Starts a teleport to this lodestone without waiting for it, for callers that check on later ticks whether the
+     * player has landed. When the lodestone map has to be opened first, this only opens it and returns false, and a
+     * later call sends the teleport once the map is open.
+     *
+     * @return true if the teleport was sent
+     */
+    public boolean cast() {
+        if (Client.getLocalPlayer() == null) {
+            return false;
+        }
+        if (VarManager.getVarbitValue(HIDDEN_LODESTONE_TELEPORTS_VARBIT) != 1 && teleportFromSpellbook()) {
+            return true;
+        }
+        if (!LodestoneNetwork.isOpen()) {
+            LodestoneNetwork.open();
+            return false;
+        }
+        return MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, -1, interactId);
+    }
+
     private boolean teleportFromSpellbook() {
         var struct = ConfigManager.getStructType(structId);
         if (struct == null) {
@@ -110,9 +159,7 @@ public enum Lodestone {
     }
 
     private void awaitTeleport() {
-        int wax = VarManager.getVarbitValue(28623);
-        int quick = VarManager.getVarbitValue(28622);
-        if (quick == 1 && wax > 0) {
+        if (isQuickTeleport()) {
             Execution.delay(RandomGenerator.nextInt(4500, 6500));
         } else {
             Execution.delay(RandomGenerator.nextInt(12000, 14000));
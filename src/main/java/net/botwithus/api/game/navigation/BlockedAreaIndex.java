@@ -0,0 +1,226 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Area;
+import net.botwithus.rs3.game.Coordinate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocked areas compiled into a bitmap per map region, so checking a tile takes one lookup however many areas were
+ * blocked, and checking a line takes one per tile.
+ * <p>
+ * Compiled indexes are cached by their areas, so {@link #of(Area...)} can be called on every walk. An index is also a
+ * {@link PathOption}, so it can be handed to any {@link PathBuilder}; use {@link #from(PathOption...)} to pick it out.
+ */
+public final class BlockedAreaIndex implements PathOption {
+    /**
+     * An index that blocks nothing.
+     */
+    public static final BlockedAreaIndex EMPTY = new BlockedAreaIndex(new Area[0], new HashMap<>(), 0);
+
+    private static final int CACHE_CAPACITY = 32;
+    private static final LinkedHashMap<List<Area>, BlockedAreaIndex> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Area[] areas;
+    // Each region is 64 rows of 64 tiles, one long per row
+    private final Map<Integer, long[]> regions;
+    private final int tileCount;
+    private volatile Region last = new Region(-1, null);
+
+    private BlockedAreaIndex(Area[] areas, Map<Integer, long[]> regions, int tileCount) {
+        this.areas = areas;
+        this.regions = regions;
+        this.tileCount = tileCount;
+    }
+
+    /**
+     * Gets the index of some blocked areas, compiling it if the same areas have not been compiled recently.
+     *
+     * @param areas the blocked areas
+     * @return the index
+     */
+    public static BlockedAreaIndex of(Area... areas) {
+        if (areas == null || areas.length == 0) {
+            return EMPTY;
+        }
+        var key = Arrays.asList(areas.clone());
+        synchronized (CACHE) {
+            var index = CACHE.get(key);
+            if (index != null) {
+                return index;
+            }
+        }
+        var index = compile(areas);
+        synchronized (CACHE) {
+            CACHE.put(key, index);
+            Iterator<BlockedAreaIndex> iterator = CACHE.values().iterator();
+            while (CACHE.size() > CACHE_CAPACITY && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Picks the blocked area index out of the options passed to a {@link PathBuilder}.
+     *
+     * @param options the path options
+     * @return the index, or {@link #EMPTY} if there is none
+     */
+    public static BlockedAreaIndex from(PathOption... options) {
+        for (PathOption option : options) {
+            if (option instanceof BlockedAreaIndex index) {
+                return index;
+            }
+        }
+        return EMPTY;
+    }
+
+    private static BlockedAreaIndex compile(Area[] areas) {
+        var regions = new HashMap<Integer, long[]>();
+        int tileCount = 0;
+        for (Area area : areas) {
+            if (area == null) {
+                continue;
+            }
+            for (Coordinate coordinate : area.getCoordinates()) {
+                long[] rows = regions.computeIfAbsent(key(coordinate.getX(), coordinate.getY(), coordinate.getZ()), k -> new long[64]);
+                long bit = 1L << (coordinate.getX() & 63);
+                int row = coordinate.getY() & 63;
+                if ((rows[row] & bit) == 0) {
+                    rows[row] |= bit;
+                    tileCount++;
+                }
+            }
+        }
+        return new BlockedAreaIndex(areas.clone(), regions, tileCount);
+    }
+
+    public boolean isBlocked(Coordinate coordinate) {
+        return coordinate != null && isBlocked(coordinate.getX(), coordinate.getY(), coordinate.getZ());
+    }
+
+    public boolean isBlocked(int x, int y, int plane) {
+        if (tileCount == 0) {
+            return false;
+        }
+        int key = key(x, y, plane);
+        // Lookups mostly stay in one region, so remember the last one
+        var region = last;
+        if (region.key != key) {
+            region = new Region(key, regions.get(key));
+            last = region;
+        }
+        long[] rows = region.rows;
+        return rows != null && (rows[y & 63] & 1L << (x & 63)) != 0;
+    }
+
+    /**
+     * Checks whether the straight line between two tiles crosses a blocked tile, ends included.
+     *
+     * @param from one end
+     * @param to   the other end
+     * @return true if any tile on the line is blocked
+     */
+    public boolean intersects(Coordinate from, Coordinate to) {
+        if (tileCount == 0 || from == null || to == null) {
+            return false;
+        }
+        return firstBlocked(from, to) != -1;
+    }
+
+    /**
+     * Gets the last tile on the straight line from one tile towards another before it reaches a blocked tile.
+     *
+     * @param from the start, assumed not to be blocked
+     * @param to   the end
+     * @return the end itself if the line is clear, otherwise the last clear tile before the block
+     */
+    public Coordinate clip(Coordinate from, Coordinate to) {
+        if (tileCount == 0) {
+            return to;
+        }
+        int steps = firstBlocked(from, to);
+        if (steps == -1) {
+            return to;
+        }
+        int length = length(from, to);
+        int step = Math.max(0, steps - 1);
+        return new Coordinate(along(from.getX(), to.getX(), step, length), along(from.getY(), to.getY(), step, length), from.getZ());
+    }
+
+    /**
+     * Walks the line a tile at a time and gets how many steps in the first blocked tile is.
+     *
+     * @return the step of the first blocked tile, or -1 if there is none
+     */
+    private int firstBlocked(Coordinate from, Coordinate to) {
+        int length = length(from, to);
+        for (int step = 0; step <= length; step++) {
+            if (isBlocked(along(from.getX(), to.getX(), step, length), along(from.getY(), to.getY(), step, length), from.getZ())) {
+                return step;
+            }
+        }
+        return -1;
+    }
+
+    private static int along(int from, int to, int step, int length) {
+        return length == 0 ? from : from + Math.round((float) (to - from) * step / length);
+    }
+
+    private static int length(Coordinate from, Coordinate to) {
+        return Math.max(Math.abs(to.getX() - from.getX()), Math.abs(to.getY() - from.getY()));
+    }
+
+    /**
+     * Gets the areas the index was compiled from, for APIs that take the areas themselves.
+     *
+     * @return a copy of the areas
+     */
+    public Area[] getAreas() {
+        return areas.clone();
+    }
+
+    public boolean isEmpty() {
+        return tileCount == 0;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    private static int key(int x, int y, int plane) {
+        return plane << 28 | (x >> 6) << 14 | y >> 6;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockedAreaIndex{" + areas.length + " areas, " + tileCount + " tiles, " + regions.size() + " regions}";
+    }
+
+    private static final class Region {
+        private final int key;
+        private final long[] rows;
+
+        private Region(int key, long[] rows) {
+            this.key = key;
+            this.rows = rows;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BlockedAreaIndex index && Arrays.equals(areas, index.areas);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(areas);
+    }
+}
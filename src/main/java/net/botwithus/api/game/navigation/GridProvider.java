@@ -0,0 +1,42 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Coordinate;
+
+/**
+ * Tells a local path finder which tiles can be walked on, so it can plan on the live game or on a synthetic map.
+ */
+@FunctionalInterface
+public interface GridProvider {
+
+    /**
+     * Checks whether a tile can be stood on.
+     *
+     * @param x     the tile's x coordinate
+     * @param y     the tile's y coordinate
+     * @param plane the tile's plane
+     * @return true if the tile can be walked on
+     */
+    boolean isWalkable(int x, int y, int plane);
+
+    /**
+     * Treats the tiles in a blocked area index as blocked too.
+     *
+     * @param blocked the blocked areas
+     * @return the provider
+     */
+    default GridProvider avoiding(BlockedAreaIndex blocked) {
+        if (blocked == null || blocked.isEmpty()) {
+            return this;
+        }
+        return (x, y, plane) -> !blocked.isBlocked(x, y, plane) && isWalkable(x, y, plane);
+    }
+
+    /**
+     * Reads the tiles from the game's collision data.
+     *
+     * @return the provider
+     */
+    static GridProvider live() {
+        return (x, y, plane) -> new Coordinate(x, y, plane).isWalkable();
+    }
+}
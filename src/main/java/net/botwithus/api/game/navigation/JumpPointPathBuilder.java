@@ -0,0 +1,62 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Coordinate;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+
+/**
+ * Builds {@link LocalPath}s with a {@link JumpPointSearch} on the tiles around the start and destination.
+ * <p>
+ * It needs no map data beyond the collision flags of the loaded scene, so it also plans inside instances. Tiles in a
+ * {@link BlockedAreaIndex} passed as an option are avoided. The search
+ * only looks {@link #setMargin(int) a few tiles} past the box around the two ends and gives up on destinations more than
+ * {@link JumpPointSearch#MAX_SPAN} tiles away.
+ */
+public class JumpPointPathBuilder implements PathBuilder {
+    private final GridProvider grid;
+    private final JumpPointSearch search;
+    private int margin = 24;
+
+    public JumpPointPathBuilder() {
+        this(GridProvider.live());
+    }
+
+    public JumpPointPathBuilder(GridProvider grid) {
+        this.grid = Objects.requireNonNull(grid);
+        this.search = new JumpPointSearch(grid);
+    }
+
+    /**
+     * Sets how far past the box around the start and destination the search may go to get round obstacles.
+     *
+     * @param margin the margin in tiles
+     * @return this builder
+     */
+    public JumpPointPathBuilder setMargin(int margin) {
+        this.margin = Math.max(0, margin);
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public synchronized LocalPath build(Coordinate start, Coordinate destination, PathOption... options) {
+        if (start == null || destination == null || start.getZ() != destination.getZ()) {
+            return null;
+        }
+        search.setGrid(grid.avoiding(BlockedAreaIndex.from(options)));
+        int[] points = search.search(start.getZ(), start.getX(), start.getY(), destination.getX(), destination.getY(), margin);
+        return points == null ? null : new LocalPath(points, start.getZ(), new HashSet<>(Arrays.asList(options)));
+    }
+
+    /**
+     * Gets the number of jump points the last build expanded, for benchmarking.
+     *
+     * @return the expanded node count
+     */
+    public synchronized int getExpandedCount() {
+        return search.getExpandedCount();
+    }
+}
@@ -0,0 +1,374 @@
+package net.botwithus.api.game.navigation;
+
+import java.util.Arrays;
+
+/**
+ * Jump point search over a window of a {@link GridProvider}.
+ * <p>
+ * Moves go in eight directions, diagonally only when both tiles beside the diagonal are free, so paths never cut
+ * corners. The search only expands the jump points where the path may turn, keeps its open set in a binary heap, and
+ * holds all of its state in primitive arrays that are reused between searches. Tiles are read from the provider
+ * the first time the search looks at them. An instance is not thread safe.
+ */
+public final class JumpPointSearch {
+    /**
+     * The widest window searched, in tiles on each side.
+     */
+    public static final int MAX_SPAN = 256;
+
+    private static final float SQRT2 = (float) Math.sqrt(2);
+    private static final byte UNKNOWN = 0;
+    private static final byte WALKABLE = 1;
+    private static final byte BLOCKED = 2;
+    private static final int UNSEEN = -1;
+    private static final int CLOSED = -2;
+
+    private GridProvider grid;
+
+    private int originX;
+    private int originY;
+    private int width;
+    private int height;
+    private int plane;
+    private int endX;
+    private int endY;
+
+    private byte[] tiles = new byte[0];
+    private float[] g = new float[0];
+    private float[] f = new float[0];
+    private int[] parent = new int[0];
+    private int[] heapIndex = new int[0];
+    private int[] heap = new int[0];
+    private int heapSize;
+    private int expanded;
+    private final int[] neighbours = new int[16];
+
+    public JumpPointSearch(GridProvider grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Sets where the following searches read their tiles from.
+     *
+     * @param grid the tiles
+     */
+    public void setGrid(GridProvider grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Finds a path between two tiles, searching the box around them widened by the margin.
+     *
+     * @param plane  the plane
+     * @param startX the start tile's x coordinate
+     * @param startY the start tile's y coordinate
+     * @param endX   the end tile's x coordinate
+     * @param endY   the end tile's y coordinate
+     * @param margin how far past the two tiles the search may go
+     * @return the jump points from start to end as x, y pairs, or null if there is no path within the window
+     */
+    public int[] search(int plane, int startX, int startY, int endX, int endY, int margin) {
+        expanded = 0;
+        int minX = Math.min(startX, endX) - margin, maxX = Math.max(startX, endX) + margin;
+        int minY = Math.min(startY, endY) - margin, maxY = Math.max(startY, endY) + margin;
+        if (maxX - minX + 1 > MAX_SPAN || maxY - minY + 1 > MAX_SPAN) {
+            return null;
+        }
+        reset(plane, minX, minY, maxX - minX + 1, maxY - minY + 1);
+        this.endX = endX;
+        this.endY = endY;
+        int start = index(startX, startY), end = index(endX, endY);
+        // The player is standing on the start tile, whatever the collision data says
+        tiles[start] = WALKABLE;
+        if (!walkable(endX, endY)) {
+            return null;
+        }
+        g[start] = 0;
+        f[start] = heuristic(startX, startY);
+        parent[start] = -1;
+        push(start);
+        while (heapSize > 0) {
+            int node = pop();
+            heapIndex[node] = CLOSED;
+            expanded++;
+            if (node == end) {
+                return reconstruct(end);
+            }
+            expand(node);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of jump points the last search expanded, for benchmarking.
+     *
+     * @return the expanded node count
+     */
+    public int getExpandedCount() {
+        return expanded;
+    }
+
+    private void reset(int plane, int originX, int originY, int width, int height) {
+        this.plane = plane;
+        this.originX = originX;
+        this.originY = originY;
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        if (tiles.length < size) {
+            tiles = new byte[size];
+            g = new float[size];
+            f = new float[size];
+            parent = new int[size];
+            heapIndex = new int[size];
+            heap = new int[size];
+        }
+        Arrays.fill(tiles, 0, size, UNKNOWN);
+        Arrays.fill(heapIndex, 0, size, UNSEEN);
+        heapSize = 0;
+    }
+
+    private void expand(int node) {
+        int x = originX + node % width, y = originY + node / width;
+        int count = findNeighbours(node, x, y);
+        for (int i = 0; i < count; i += 2) {
+            int dx = neighbours[i], dy = neighbours[i + 1];
+            int jumpPoint = jump(x + dx, y + dy, dx, dy);
+            if (jumpPoint == -1 || heapIndex[jumpPoint] == CLOSED) {
+                continue;
+            }
+            int jx = originX + jumpPoint % width, jy = originY + jumpPoint / width;
+            float cost = g[node] + octile(Math.abs(jx - x), Math.abs(jy - y));
+            if (heapIndex[jumpPoint] == UNSEEN || cost < g[jumpPoint]) {
+                g[jumpPoint] = cost;
+                f[jumpPoint] = cost + heuristic(jx, jy);
+                parent[jumpPoint] = node;
+                if (heapIndex[jumpPoint] == UNSEEN) {
+                    push(jumpPoint);
+                } else {
+                    siftUp(heapIndex[jumpPoint]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills {@link #neighbours} with the directions worth jumping in from a node, pruned by the direction it was
+     * reached from.
+     *
+     * @return the number of values written, two per direction
+     */
+    private int findNeighbours(int node, int x, int y) {
+        int count = 0;
+        int from = parent[node];
+        if (from == -1) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx != 0 || dy != 0) && canStep(x, y, dx, dy)) {
+                        neighbours[count++] = dx;
+                        neighbours[count++] = dy;
+                    }
+                }
+            }
+            return count;
+        }
+        int dx = Integer.signum(x - (originX + from % width)), dy = Integer.signum(y - (originY + from / width));
+        if (dx != 0 && dy != 0) {
+            boolean vertical = walkable(x, y + dy), horizontal = walkable(x + dx, y);
+            if (vertical) {
+                count = add(count, 0, dy);
+            }
+            if (horizontal) {
+                count = add(count, dx, 0);
+            }
+            if (vertical && horizontal) {
+                count = add(count, dx, dy);
+            }
+        } else if (dx != 0) {
+            boolean next = walkable(x + dx, y), up = walkable(x, y + 1), down = walkable(x, y - 1);
+            if (next) {
+                count = add(count, dx, 0);
+                if (up) {
+                    count = add(count, dx, 1);
+                }
+                if (down) {
+                    count = add(count, dx, -1);
+                }
+            }
+            if (up) {
+                count = add(count, 0, 1);
+            }
+            if (down) {
+                count = add(count, 0, -1);
+            }
+        } else {
+            boolean next = walkable(x, y + dy), right = walkable(x + 1, y), left = walkable(x - 1, y);
+            if (next) {
+                count = add(count, 0, dy);
+                if (right) {
+                    count = add(count, 1, dy);
+                }
+                if (left) {
+                    count = add(count, -1, dy);
+                }
+            }
+            if (right) {
+                count = add(count, 1, 0);
+            }
+            if (left) {
+                count = add(count, -1, 0);
+            }
+        }
+        return count;
+    }
+
+    private int add(int count, int dx, int dy) {
+        neighbours[count] = dx;
+        neighbours[count + 1] = dy;
+        return count + 2;
+    }
+
+    /**
+     * Walks from a tile in a direction until it reaches a jump point, the end or a wall. Diagonal jumps look for jump
+     * points along both straight directions at every step; straight jumps never look sideways, so this only ever
+     * nests one level deep.
+     *
+     * @return the jump point's index, or -1 if there is none in that direction
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            if (!walkable(x, y)) {
+                return -1;
+            }
+            if (x == endX && y == endY) {
+                return index(x, y);
+            }
+            if (dx != 0 && dy != 0) {
+                if (jump(x + dx, y, dx, 0) != -1 || jump(x, y + dy, 0, dy) != -1) {
+                    return index(x, y);
+                }
+                if (!walkable(x + dx, y) || !walkable(x, y + dy)) {
+                    return -1;
+                }
+            } else if (dx != 0) {
+                if (walkable(x, y - 1) && !walkable(x - dx, y - 1) || walkable(x, y + 1) && !walkable(x - dx, y + 1)) {
+                    return index(x, y);
+                }
+            } else {
+                if (walkable(x - 1, y) && !walkable(x - 1, y - dy) || walkable(x + 1, y) && !walkable(x + 1, y - dy)) {
+                    return index(x, y);
+                }
+            }
+            x += dx;
+            y += dy;
+        }
+    }
+
+    private boolean canStep(int x, int y, int dx, int dy) {
+        if (!walkable(x + dx, y + dy)) {
+            return false;
+        }
+        return dx == 0 || dy == 0 || walkable(x + dx, y) && walkable(x, y + dy);
+    }
+
+    private boolean walkable(int x, int y) {
+        int lx = x - originX, ly = y - originY;
+        if (lx < 0 || ly < 0 || lx >= width || ly >= height) {
+            return false;
+        }
+        int index = ly * width + lx;
+        byte tile = tiles[index];
+        if (tile == UNKNOWN) {
+            tile = grid.isWalkable(x, y, plane) ? WALKABLE : BLOCKED;
+            tiles[index] = tile;
+        }
+        return tile == WALKABLE;
+    }
+
+    private int index(int x, int y) {
+        return (y - originY) * width + (x - originX);
+    }
+
+    private float heuristic(int x, int y) {
+        return octile(Math.abs(endX - x), Math.abs(endY - y));
+    }
+
+    private static float octile(int dx, int dy) {
+        return dx + dy + (SQRT2 - 2) * Math.min(dx, dy);
+    }
+
+    private int[] reconstruct(int end) {
+        int length = 0;
+        for (int node = end; node != -1; node = parent[node]) {
+            length++;
+        }
+        int[] points = new int[length * 2];
+        int i = points.length;
+        for (int node = end; node != -1; node = parent[node]) {
+            points[--i] = originY + node / width;
+            points[--i] = originX + node % width;
+        }
+        return points;
+    }
+
+    private void push(int node) {
+        heap[heapSize] = node;
+        heapIndex[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapIndex[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        while (position > 0) {
+            int up = (position - 1) >>> 1;
+            int other = heap[up];
+            if (!before(node, other)) {
+                break;
+            }
+            heap[position] = other;
+            heapIndex[other] = position;
+            position = up;
+        }
+        heap[position] = node;
+        heapIndex[node] = position;
+    }
+
+    /**
+     * Orders the open set by estimated total cost, breaking ties in favour of the node furthest along, which is the one
+     * closest to the end.
+     */
+    private boolean before(int a, int b) {
+        return f[a] < f[b] || f[a] == f[b] && g[a] > g[b];
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        int half = heapSize >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < heapSize && before(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!before(heap[child], node)) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapIndex[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = node;
+        heapIndex[node] = position;
+    }
+}
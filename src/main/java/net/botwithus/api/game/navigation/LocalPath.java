@@ -0,0 +1,216 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.api.game.GameTick;
+import net.botwithus.rs3.game.Client;
+import net.botwithus.rs3.game.Coordinate;
+import net.botwithus.rs3.game.minimenu.MiniMenu;
+import net.botwithus.rs3.game.minimenu.actions.WalkAction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A path planned on the local collision grid by {@link JumpPointPathBuilder}, walked by clicking ahead along its
+ * waypoints.
+ * <p>
+ * Each click goes as far along the path as the minimap reaches, and the next one is made once the player nears it or it
+ * is taking too long. With {@link CommonPathOptions#MANAGE_RUN_ACTIVATION} run is turned on whenever there is energy
+ * for it, and with {@link CommonPathOptions#RESTORE_ENERGY} the player rests when the energy runs low.
+ */
+public final class LocalPath implements Path {
+    private static final int CLICK_DISTANCE = 14;
+    private static final int CLICK_REACHED = 4;
+    private static final int CLICK_TICKS = 10;
+    private static final int STALL_TICKS = 15;
+    private static final int WAYPOINT_REACHED = 2;
+    private static final int RUN_ENERGY = 20;
+    private static final int REST_ENERGY = 10;
+    private static final int RESTED_ENERGY = 60;
+
+    private final int[] points;
+    private final int plane;
+    private final boolean manageRun;
+    private final boolean restoreEnergy;
+
+    private State state = State.NOT_STARTED;
+    private int waypoint = 1;
+    private Coordinate clickTarget;
+    private int clickWaypoint;
+    private long clickTick;
+    private long clickMillis;
+    private int bestRemaining = Integer.MAX_VALUE;
+    private long progressTick;
+    private long progressMillis;
+    private boolean resting;
+
+    LocalPath(int[] points, int plane, Set<PathOption> options) {
+        this.points = points;
+        this.plane = plane;
+        this.manageRun = options.contains(CommonPathOptions.MANAGE_RUN_ACTIVATION);
+        this.restoreEnergy = options.contains(CommonPathOptions.RESTORE_ENERGY);
+    }
+
+    @Override
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Advances the walk by one step. Call it once per tick until the state is {@link State#COMPLETE}.
+     *
+     * @return false if the player is stuck, has left the path's plane or cannot be found, true otherwise
+     */
+    @Override
+    public synchronized boolean traverse() {
+        var player = Client.getLocalPlayer();
+        Coordinate position = player != null ? player.getCoordinate() : null;
+        if (position == null || state == State.STUCK) {
+            return false;
+        }
+        if (position.getZ() != plane) {
+            state = State.STUCK;
+            return false;
+        }
+        int last = points.length / 2 - 1;
+        if (distance(position.getX(), position.getY(), x(last), y(last)) <= 1) {
+            state = State.COMPLETE;
+            return true;
+        }
+        long tick = GameTick.current();
+        long now = System.currentTimeMillis();
+        if (state != State.IN_PROGRESS) {
+            state = State.IN_PROGRESS;
+            progressTick = tick;
+            progressMillis = now;
+        }
+        if (clickTarget != null && distance(position.getX(), position.getY(), clickTarget.getX(), clickTarget.getY()) <= CLICK_REACHED) {
+            // The path may bend back past earlier waypoints, so reaching the click is what moves the player along it
+            waypoint = Math.max(waypoint, clickWaypoint);
+        }
+        while (waypoint < last && distance(position.getX(), position.getY(), x(waypoint), y(waypoint)) <= WAYPOINT_REACHED) {
+            waypoint++;
+        }
+        int remaining = remaining(position);
+        if (remaining < bestRemaining || player.isMoving() || resting) {
+            bestRemaining = Math.min(bestRemaining, remaining);
+            progressTick = tick;
+            progressMillis = now;
+        } else if (GameTick.ticksSince(progressTick, progressMillis) >= STALL_TICKS) {
+            state = State.STUCK;
+            return false;
+        }
+        if (manageEnergy(player.isMoving())) {
+            return true;
+        }
+        if (clickTarget != null && distance(position.getX(), position.getY(), clickTarget.getX(), clickTarget.getY()) > CLICK_REACHED
+                && GameTick.ticksSince(clickTick, clickMillis) < CLICK_TICKS) {
+            return true;
+        }
+        clickTarget = ahead(position);
+        clickTick = tick;
+        clickMillis = now;
+        return MiniMenu.interact(WalkAction.WALK.getType(), 1, clickTarget.getX(), clickTarget.getY());
+    }
+
+    /**
+     * Gets the jump points of the path, from the start to the destination.
+     *
+     * @return the waypoints
+     */
+    public List<Coordinate> getWaypoints() {
+        var waypoints = new ArrayList<Coordinate>(points.length / 2);
+        for (int i = 0; i < points.length / 2; i++) {
+            waypoints.add(new Coordinate(x(i), y(i), plane));
+        }
+        return Collections.unmodifiableList(waypoints);
+    }
+
+    /**
+     * Gets the length of the path in tiles walked, counting diagonal steps as one.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        int length = 0;
+        for (int i = 1; i < points.length / 2; i++) {
+            length += distance(x(i - 1), y(i - 1), x(i), y(i));
+        }
+        return length;
+    }
+
+    /**
+     * Turns run on and rests as the options ask.
+     *
+     * @return true if the player is resting, so should not walk this tick
+     */
+    private boolean manageEnergy(boolean moving) {
+        if (!manageRun && !restoreEnergy) {
+            return false;
+        }
+        int energy = RunEnergy.getEnergy();
+        if (restoreEnergy && energy != -1) {
+            if (resting) {
+                if (energy < RESTED_ENERGY) {
+                    return true;
+                }
+                resting = false;
+                clickTarget = null;
+            } else if (energy < REST_ENERGY && !moving && RunEnergy.rest()) {
+                resting = true;
+                return true;
+            }
+        }
+        if (manageRun && (energy == -1 || energy >= RUN_ENERGY) && !RunEnergy.isRunEnabled()) {
+            RunEnergy.setRunEnabled(true);
+        }
+        return false;
+    }
+
+    /**
+     * Picks the tile {@link #CLICK_DISTANCE} tiles further along the path, or its end if that is closer, and notes the
+     * waypoint it leads to.
+     */
+    private Coordinate ahead(Coordinate position) {
+        int x = position.getX(), y = position.getY();
+        int budget = CLICK_DISTANCE;
+        for (int i = waypoint; i < points.length / 2; i++) {
+            int length = distance(x, y, x(i), y(i));
+            if (length >= budget) {
+                clickWaypoint = i;
+                return new Coordinate(x + (x(i) - x) * budget / length, y + (y(i) - y) * budget / length, plane);
+            }
+            budget -= length;
+            x = x(i);
+            y = y(i);
+        }
+        clickWaypoint = points.length / 2 - 1;
+        return new Coordinate(x, y, plane);
+    }
+
+    private int remaining(Coordinate position) {
+        int length = distance(position.getX(), position.getY(), x(waypoint), y(waypoint));
+        for (int i = waypoint + 1; i < points.length / 2; i++) {
+            length += distance(x(i - 1), y(i - 1), x(i), y(i));
+        }
+        return length;
+    }
+
+    private int x(int index) {
+        return points[index * 2];
+    }
+
+    private int y(int index) {
+        return points[index * 2 + 1];
+    }
+
+    private static int distance(int x1, int y1, int x2, int y2) {
+        return Math.max(Math.abs(x1 - x2), Math.abs(y1 - y2));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LocalPath{" + points.length / 2 + " waypoints, " + getLength() + " tiles, " + state + "}";
+    }
+}
@@ -0,0 +1,280 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.api.game.GameTick;
+import net.botwithus.rs3.game.Coordinate;
+import net.botwithus.rs3.game.movement.TraverseEvent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches a walk tick by tick and tells when it is stuck.
+ * <p>
+ * The player's coordinate and distance to the destination are kept in a ring buffer, one sample per tick. A walk is
+ * stuck when it has not got any closer for a while without the player even moving, when the player keeps moving
+ * but only back and forth, or when NavPath keeps failing. Every stuck event and the time lost between the last
+ * progress before it and the first progress after it are counted, per monitor and across all monitors.
+ */
+public final class MovementMonitor {
+    public enum Reason {
+        /**
+         * The player has not got closer and has not been moving or animating.
+         */
+        NO_PROGRESS,
+        /**
+         * The player keeps moving but ends up where it started.
+         */
+        OSCILLATION,
+        /**
+         * NavPath failed several times in a row.
+         */
+        REPEATED_FAILURES
+    }
+
+    /**
+     * What a walk can do to get unstuck.
+     */
+    public enum Recovery {
+        /**
+         * Plan the route again from where the player is.
+         */
+        REPLAN,
+        /**
+         * Walk a few tiles to the side, to get round whatever is in the way.
+         */
+        STEP_ASIDE,
+        /**
+         * Teleport to the lodestone nearest the destination.
+         */
+        TELEPORT_OUT
+    }
+
+    private static final int CAPACITY = 32;
+    private static final int STALL_TICKS = 15;
+    private static final int OSCILLATION_TICKS = 20;
+    private static final int OSCILLATION_TRAVEL = 6;
+    private static final int OSCILLATION_DISPLACEMENT = 3;
+    private static final int MAX_FAILURES = 3;
+
+    private static final AtomicLongArray TOTAL_STUCK = new AtomicLongArray(Reason.values().length);
+    private static final AtomicLongArray TOTAL_RECOVERIES = new AtomicLongArray(Recovery.values().length);
+    private static final LongAdder TOTAL_LOST_MILLIS = new LongAdder();
+
+    private final int[] xs = new int[CAPACITY];
+    private final int[] ys = new int[CAPACITY];
+    private final int[] planes = new int[CAPACITY];
+    private final long[] ticks = new long[CAPACITY];
+    private final long[] millis = new long[CAPACITY];
+    private int head = -1;
+    private int size;
+
+    private double bestDistance = Double.MAX_VALUE;
+    private long progressTick = GameTick.current();
+    private long progressMillis = System.currentTimeMillis();
+    private long improvedTick = progressTick;
+    private long improvedMillis = progressMillis;
+    private int failures;
+
+    private long stuckSinceMillis = -1;
+    private int stuckCount;
+    private long lostMillis;
+
+    /**
+     * Records where the player is. Calls within the same tick replace that tick's sample.
+     *
+     * @param position the player's coordinate
+     * @param distance the distance left to the destination
+     * @param busy     whether the player is moving or animating, or otherwise known to be getting somewhere
+     * @return true if the player is closer to the destination than ever before
+     */
+    public synchronized boolean record(Coordinate position, double distance, boolean busy) {
+        long tick = GameTick.current();
+        long now = System.currentTimeMillis();
+        if (size == 0 || GameTick.ticksSince(ticks[head], millis[head]) >= 1) {
+            head = (head + 1) % CAPACITY;
+            size = Math.min(size + 1, CAPACITY);
+        }
+        xs[head] = position.getX();
+        ys[head] = position.getY();
+        planes[head] = position.getZ();
+        ticks[head] = tick;
+        millis[head] = now;
+        if (distance < bestDistance - 0.5) {
+            bestDistance = distance;
+            improvedTick = tick;
+            improvedMillis = now;
+            progressTick = tick;
+            progressMillis = now;
+            endEpisode(now);
+            return true;
+        }
+        if (busy) {
+            progressTick = tick;
+            progressMillis = now;
+        }
+        return false;
+    }
+
+    /**
+     * Records what NavPath made of the last step.
+     *
+     * @param result the result, null counting as a failure
+     */
+    public synchronized void recordResult(TraverseEvent.State result) {
+        if (result == null || result == TraverseEvent.State.FAILED) {
+            failures++;
+        } else if (result == TraverseEvent.State.CONTINUE || result == TraverseEvent.State.FINISHED) {
+            failures = 0;
+        }
+    }
+
+    /**
+     * Checks whether the walk is stuck, counting it as a stuck event if it is.
+     *
+     * @return why the walk is stuck, or null if it is not
+     */
+    public synchronized Reason check() {
+        Reason reason = null;
+        if (failures >= MAX_FAILURES) {
+            reason = Reason.REPEATED_FAILURES;
+        } else if (GameTick.ticksSince(progressTick, progressMillis) >= STALL_TICKS) {
+            reason = Reason.NO_PROGRESS;
+        } else if (GameTick.ticksSince(improvedTick, improvedMillis) >= OSCILLATION_TICKS && isOscillating()) {
+            reason = Reason.OSCILLATION;
+        }
+        if (reason != null) {
+            stuckCount++;
+            TOTAL_STUCK.incrementAndGet(reason.ordinal());
+            if (stuckSinceMillis == -1) {
+                stuckSinceMillis = improvedMillis;
+            }
+        }
+        return reason;
+    }
+
+    /**
+     * Notes that a recovery was tried, and starts watching afresh so it gets a chance to work.
+     *
+     * @param recovery the recovery tried
+     */
+    public synchronized void recovering(Recovery recovery) {
+        TOTAL_RECOVERIES.incrementAndGet(recovery.ordinal());
+        failures = 0;
+        size = 0;
+        head = -1;
+        progressTick = GameTick.current();
+        progressMillis = System.currentTimeMillis();
+        improvedTick = progressTick;
+        improvedMillis = progressMillis;
+    }
+
+    /**
+     * Forgets the best distance so far, for when the player has been moved somewhere else, such as by a teleport.
+     */
+    public synchronized void resetProgress() {
+        bestDistance = Double.MAX_VALUE;
+        failures = 0;
+        size = 0;
+        head = -1;
+        progressTick = GameTick.current();
+        progressMillis = System.currentTimeMillis();
+        improvedTick = progressTick;
+        improvedMillis = progressMillis;
+    }
+
+    /**
+     * Ends the walk, counting the time lost if it ended stuck.
+     */
+    public synchronized void finish() {
+        endEpisode(System.currentTimeMillis());
+    }
+
+    /**
+     * Gets how many times this walk was found stuck.
+     *
+     * @return the stuck event count
+     */
+    public synchronized int getStuckCount() {
+        return stuckCount;
+    }
+
+    /**
+     * Gets the time this walk lost being stuck, from the last progress before each stuck event to the first progress
+     * after it.
+     *
+     * @return the time in milliseconds
+     */
+    public synchronized long getLostMillis() {
+        return lostMillis + (stuckSinceMillis != -1 ? System.currentTimeMillis() - stuckSinceMillis : 0);
+    }
+
+    public static long getTotalStuckCount() {
+        long total = 0;
+        for (int i = 0; i < TOTAL_STUCK.length(); i++) {
+            total += TOTAL_STUCK.get(i);
+        }
+        return total;
+    }
+
+    public static long getTotalStuckCount(Reason reason) {
+        return TOTAL_STUCK.get(reason.ordinal());
+    }
+
+    public static long getTotalRecoveries(Recovery recovery) {
+        return TOTAL_RECOVERIES.get(recovery.ordinal());
+    }
+
+    /**
+     * Gets the time lost being stuck by all walks whose stuck events have ended.
+     *
+     * @return the time in milliseconds
+     */
+    public static long getTotalLostMillis() {
+        return TOTAL_LOST_MILLIS.sum();
+    }
+
+    public static void resetTotals() {
+        for (int i = 0; i < TOTAL_STUCK.length(); i++) {
+            TOTAL_STUCK.set(i, 0);
+        }
+        for (int i = 0; i < TOTAL_RECOVERIES.length(); i++) {
+            TOTAL_RECOVERIES.set(i, 0);
+        }
+        TOTAL_LOST_MILLIS.reset();
+    }
+
+    /**
+     * Checks whether the player walked a fair way over the last ticks but ended up close to where it started.
+     */
+    private boolean isOscillating() {
+        if (size < OSCILLATION_TICKS) {
+            return false;
+        }
+        int travelled = 0;
+        int index = head;
+        for (int i = 1; i < OSCILLATION_TICKS; i++) {
+            int previous = (index - 1 + CAPACITY) % CAPACITY;
+            if (planes[index] != planes[previous]) {
+                return false;
+            }
+            travelled += Math.max(Math.abs(xs[index] - xs[previous]), Math.abs(ys[index] - ys[previous]));
+            index = previous;
+        }
+        int displacement = Math.max(Math.abs(xs[head] - xs[index]), Math.abs(ys[head] - ys[index]));
+        return travelled >= OSCILLATION_TRAVEL && displacement <= OSCILLATION_DISPLACEMENT;
+    }
+
+    private void endEpisode(long now) {
+        if (stuckSinceMillis != -1) {
+            long lost = now - stuckSinceMillis;
+            lostMillis += lost;
+            TOTAL_LOST_MILLIS.add(lost);
+            stuckSinceMillis = -1;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MovementMonitor{stuck=" + stuckCount + ", lost=" + getLostMillis() + "ms}";
+    }
+}
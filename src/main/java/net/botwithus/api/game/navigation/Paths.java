@@ -11,6 +11,7 @@ public class Paths {
     private static final ConcurrentHashMap<Class<? extends Path>, Class<? extends PathBuilder>> builders = new ConcurrentHashMap<>() {
         {
             //put(StatelessGlobalPath.class, FastGlobalPathBuilder2.class);
+            put(LocalPath.class, JumpPointPathBuilder.class);
         }
     };
 
@@ -0,0 +1,159 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.api.game.hud.traversal.Lodestone;
+import net.botwithus.rs3.game.Coordinate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The fastest mix of walking and teleports to a destination found by the {@link RoutePlanner}.
+ */
+public final class Route {
+    private final List<Step> steps;
+    private final long walkingMillis;
+
+    Route(List<Step> steps, long walkingMillis) {
+        this.steps = Collections.unmodifiableList(steps);
+        this.walkingMillis = walkingMillis;
+    }
+
+    /**
+     * Gets the steps in order, the last one ending at the destination.
+     *
+     * @return the steps
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets how long the whole route is expected to take.
+     *
+     * @return the time in milliseconds
+     */
+    public long getEtaMillis() {
+        return steps.isEmpty() ? 0 : steps.get(steps.size() - 1).getEtaMillis();
+    }
+
+    /**
+     * Gets how long walking straight to the destination is expected to take.
+     *
+     * @return the time in milliseconds
+     */
+    public long getWalkingMillis() {
+        return walkingMillis;
+    }
+
+    /**
+     * Checks whether the route teleports or uses a transport anywhere.
+     *
+     * @return false if it only walks
+     */
+    public boolean isTeleporting() {
+        return steps.stream().anyMatch(step -> step.getKind() != Step.Kind.WALK);
+    }
+
+    @Override
+    public String toString() {
+        return "Route{" + steps + ", " + getEtaMillis() + "ms, walking " + walkingMillis + "ms}";
+    }
+
+    /**
+     * One stretch of a route.
+     */
+    public static final class Step {
+        public enum Kind {
+            WALK,
+            LODESTONE,
+            TRANSPORT
+        }
+
+        private final Kind kind;
+        private final Coordinate destination;
+        private final long etaMillis;
+        private final Lodestone lodestone;
+        private final Transport transport;
+
+        Step(Kind kind, Coordinate destination, long etaMillis, Lodestone lodestone, Transport transport) {
+            this.kind = kind;
+            this.destination = destination;
+            this.etaMillis = etaMillis;
+            this.lodestone = lodestone;
+            this.transport = transport;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Gets where the step ends.
+         *
+         * @return the coordinate
+         */
+        public Coordinate getDestination() {
+            return destination;
+        }
+
+        /**
+         * Gets how long after the start of the route this step is expected to end.
+         *
+         * @return the time in milliseconds
+         */
+        public long getEtaMillis() {
+            return etaMillis;
+        }
+
+        /**
+         * @return the lodestone teleported to, or null if this is not a {@link Kind#LODESTONE} step
+         */
+        public Lodestone getLodestone() {
+            return lodestone;
+        }
+
+        /**
+         * @return the transport used, or null if this is not a {@link Kind#TRANSPORT} step
+         */
+        public Transport getTransport() {
+            return transport;
+        }
+
+        /**
+         * Gets how long the teleport or transport itself takes.
+         *
+         * @return the time in milliseconds, 0 for walking steps
+         */
+        public long getTravelMillis() {
+            return switch (kind) {
+                case LODESTONE -> Lodestone.getTeleportMillis();
+                case TRANSPORT -> transport.getMillis();
+                case WALK -> 0;
+            };
+        }
+
+        /**
+         * Starts the teleport or transport without waiting for the player to arrive, which the caller checks on later
+         * ticks. Walking steps are left to the caller.
+         *
+         * @return true if the teleport or transport was started, false if it could not be yet and for walking steps
+         */
+        public boolean execute() {
+            return switch (kind) {
+                case LODESTONE -> lodestone.cast();
+                case TRANSPORT -> transport.use();
+                case WALK -> false;
+            };
+        }
+
+        @Override
+        public String toString() {
+            String via = switch (kind) {
+                case LODESTONE -> "lodestone " + lodestone;
+                case TRANSPORT -> transport.toString();
+                case WALK -> "walk";
+            };
+            return via + " to " + destination.getX() + ", " + destination.getY() + " @" + etaMillis + "ms";
+        }
+    }
+}
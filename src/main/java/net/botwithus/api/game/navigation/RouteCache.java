@@ -0,0 +1,229 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.api.game.script.v2.nav.MapArea;
+import net.botwithus.rs3.game.Area;
+import net.botwithus.rs3.game.Coordinate;
+import net.botwithus.rs3.game.movement.NavPath;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolved {@link NavPath} routes, reused for trips that start in the same region and go to the same tile with the
+ * same options.
+ * <p>
+ * A cached route is only reused while the player starts within {@link #setMaxStartDistance(int) a few tiles} of where
+ * it was resolved from and it is younger than {@link #setTtlMillis(long) the time to live}. Routes that fail while
+ * being walked are {@link #invalidate(NavPath) dropped}, and the least recently used routes are dropped past the
+ * capacity.
+ */
+public final class RouteCache {
+    private static final LinkedHashMap<Key, Entry> ROUTES = new LinkedHashMap<>(64, 0.75f, true);
+
+    private static int capacity = 256;
+    private static long ttlMillis = 30 * 60_000;
+    private static int maxStartDistance = 24;
+    private static boolean enabled = true;
+
+    private static long hits;
+    private static long misses;
+    private static long invalidations;
+    private static long evictions;
+
+    private RouteCache() {
+    }
+
+    /**
+     * Gets a cached route from the start to the destination, resolving and caching it if there is none.
+     *
+     * @param start        where the route starts, normally the player's coordinate
+     * @param destination  the destination tile
+     * @param flags        the {@link net.botwithus.rs3.game.movement.Movement} flags
+     * @param blockedAreas the areas the route avoids
+     * @return the route, or null if NavPath cannot resolve one
+     */
+    public static NavPath resolve(Coordinate start, Coordinate destination, int flags, Area... blockedAreas) {
+        var cached = get(start, destination, flags, blockedAreas);
+        return cached != null ? cached : resolveFresh(start, destination, flags, blockedAreas);
+    }
+
+    /**
+     * Resolves a route without looking in the cache, and caches it.
+     */
+    static NavPath resolveFresh(Coordinate start, Coordinate destination, int flags, Area... blockedAreas) {
+        var path = blockedAreas.length == 0 ? NavPath.resolve(destination, flags) : NavPath.resolve(destination, flags, blockedAreas);
+        if (path != null) {
+            put(start, destination, flags, blockedAreas, path);
+        }
+        return path;
+    }
+
+    /**
+     * Gets a cached route, if there is one that is still valid from the start.
+     *
+     * @return the route, or null on a miss
+     */
+    public static synchronized NavPath get(Coordinate start, Coordinate destination, int flags, Area... blockedAreas) {
+        if (!enabled) {
+            return null;
+        }
+        var key = new Key(start, destination, flags, blockedAreas);
+        var entry = ROUTES.get(key);
+        if (entry != null && !entry.isValidFrom(start)) {
+            ROUTES.remove(key);
+            invalidations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.path;
+    }
+
+    public static synchronized void put(Coordinate start, Coordinate destination, int flags, Area[] blockedAreas, NavPath path) {
+        if (!enabled) {
+            return;
+        }
+        ROUTES.put(new Key(start, destination, flags, blockedAreas), new Entry(path, start));
+        trim();
+    }
+
+    /**
+     * Drops a route that turned out not to work, so the next trip resolves a fresh one.
+     *
+     * @param path the route
+     */
+    public static synchronized void invalidate(NavPath path) {
+        if (ROUTES.values().removeIf(entry -> entry.path == path)) {
+            invalidations++;
+        }
+    }
+
+    public static synchronized void clear() {
+        ROUTES.clear();
+    }
+
+    public static synchronized void setEnabled(boolean enabled) {
+        RouteCache.enabled = enabled;
+        if (!enabled) {
+            ROUTES.clear();
+        }
+    }
+
+    public static synchronized void setCapacity(int capacity) {
+        RouteCache.capacity = Math.max(1, capacity);
+        trim();
+    }
+
+    public static synchronized void setTtlMillis(long ttlMillis) {
+        RouteCache.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Sets how far from where a route was resolved the player may start and still reuse it.
+     *
+     * @param maxStartDistance the distance in tiles
+     */
+    public static synchronized void setMaxStartDistance(int maxStartDistance) {
+        RouteCache.maxStartDistance = maxStartDistance;
+    }
+
+    public static synchronized int size() {
+        return ROUTES.size();
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of routes dropped because they had expired, were too far from the start or failed.
+     *
+     * @return the invalidation count
+     */
+    public static synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    public static synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public static synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public static synchronized void resetMetrics() {
+        hits = 0;
+        misses = 0;
+        invalidations = 0;
+        evictions = 0;
+    }
+
+    private static void trim() {
+        Iterator<Map.Entry<Key, Entry>> iterator = ROUTES.entrySet().iterator();
+        while (ROUTES.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static final class Key {
+        private final int startRegion;
+        private final int plane;
+        private final int x;
+        private final int y;
+        private final int destinationPlane;
+        private final int flags;
+        private final Area[] blockedAreas;
+        private final int hash;
+
+        private Key(Coordinate start, Coordinate destination, int flags, Area[] blockedAreas) {
+            this.startRegion = MapArea.getRegionId2(start);
+            this.plane = start.getZ();
+            this.x = destination.getX();
+            this.y = destination.getY();
+            this.destinationPlane = destination.getZ();
+            this.flags = flags;
+            this.blockedAreas = blockedAreas.clone();
+            this.hash = Objects.hash(startRegion, plane, x, y, destinationPlane, flags) * 31 + WalkableTiles.hashCode(this.blockedAreas);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && startRegion == key.startRegion && plane == key.plane && x == key.x && y == key.y
+                    && destinationPlane == key.destinationPlane && flags == key.flags && WalkableTiles.isSame(blockedAreas, key.blockedAreas);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final NavPath path;
+        private final Coordinate start;
+        private final long createdMillis = System.currentTimeMillis();
+
+        private Entry(NavPath path, Coordinate start) {
+            this.path = path;
+            this.start = start;
+        }
+
+        private boolean isValidFrom(Coordinate position) {
+            return System.currentTimeMillis() - createdMillis <= ttlMillis && start.getZ() == position.getZ()
+                    && start.distanceTo(position) <= maxStartDistance;
+        }
+    }
+}
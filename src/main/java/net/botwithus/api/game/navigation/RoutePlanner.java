@@ -0,0 +1,311 @@
+package net.botwithus.api.game.navigation;
+
+import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.hud.traversal.Lodestone;
+import net.botwithus.rs3.game.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the fastest way to a destination, mixing walking with lodestone teleports and registered {@link Transport}s.
+ * <p>
+ * The graph joins every lodestone landing and transport end with walking edges weighted by an estimate of the time to
+ * walk between them. Lodestones can be teleported to from anywhere, in the time {@link Lodestone#getTeleportMillis()}
+ * gives, and transports go from one end to the other in their own time. The walking estimates are worked out once
+ * and kept until the transports or excluded lodestones change. Which lodestones are unlocked is read again after
+ * {@link #setAvailabilityTtlMillis(long) a minute}. Each query adds the start and destination to the cached graph
+ * and runs A* on it, guided by the time to walk straight there or to get there from the nearest landing.
+ * <p>
+ * Walking times are estimates from the tile distance, so they do not know about walls, water or members' areas.
+ * <p>
+ * Only lodestones are built in. {@link net.botwithus.api.game.hud.traversal.MagicCarpet magic carpets} and
+ * {@link net.botwithus.api.game.hud.traversal.ArchMap dig site maps} do not know where they start or land, so scripts
+ * that want them register each ride as a {@link Transport}. Lodestones without a known landing, such as
+ * {@link Lodestone#WENDELWICK}, cannot be placed on the graph; they are left out with a warning.
+ */
+public final class RoutePlanner {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final long TELEPORT_OVERHEAD_MILLIS = 1800;
+    private static final long PLANE_CHANGE_MILLIS = 5000;
+    private static final long UNREACHABLE = Long.MAX_VALUE / 4;
+
+    private static final List<Transport> TRANSPORTS = new ArrayList<>();
+    private static final Set<Lodestone> EXCLUDED = EnumSet.noneOf(Lodestone.class);
+
+    private static int millisPerTile = 420;
+    private static long availabilityTtlMillis = 60_000;
+
+    // The cached graph: the lodestone landings first, then the two ends of each transport
+    private static Lodestone[] lodestones;
+    private static Transport[] transports;
+    private static Coordinate[] nodes;
+    private static long[][] walking;
+    private static boolean[] available;
+    private static long availableMillis;
+
+    private RoutePlanner() {
+    }
+
+    /**
+     * Finds the fastest route from the start to the destination.
+     *
+     * @param start       where the route starts, normally the player's coordinate
+     * @param destination the destination
+     * @return the route, which only walks if nothing is faster, or null inside instances
+     */
+    public static Route plan(Coordinate start, Coordinate destination) {
+        return plan(start, destination, BlockedAreaIndex.EMPTY);
+    }
+
+    /**
+     * Finds the fastest route from the start to the destination that does not land in a blocked area.
+     *
+     * @param start       where the route starts, normally the player's coordinate
+     * @param destination the destination
+     * @param blocked     the areas not to teleport into
+     * @return the route, which only walks if nothing is faster, or null inside instances
+     */
+    public static synchronized Route plan(Coordinate start, Coordinate destination, BlockedAreaIndex blocked) {
+        if (start == null || destination == null || Traversal.isInstanced(start) || Traversal.isInstanced(destination)) {
+            return null;
+        }
+        buildGraph();
+        refreshAvailability();
+        int lodestoneCount = lodestones.length;
+        int count = nodes.length;
+        int source = count, target = count + 1;
+        Coordinate[] all = Arrays.copyOf(nodes, count + 2);
+        all[source] = start;
+        all[target] = destination;
+        boolean[] available = RoutePlanner.available;
+        if (!blocked.isEmpty()) {
+            available = available.clone();
+            for (int i = 0; i < count; i++) {
+                // A transport is unusable if either end is blocked
+                int from = i < lodestoneCount ? i : i - (i - lodestoneCount) % 2;
+                if (blocked.isBlocked(all[i])) {
+                    available[from] = false;
+                }
+            }
+        }
+
+        long teleport = Lodestone.getTeleportMillis() + TELEPORT_OVERHEAD_MILLIS;
+        // Every route ends by walking from its last landing, or from the start, so this never overestimates
+        long landing = UNREACHABLE;
+        long[] heuristic = new long[count + 2];
+        for (int i = 0; i < count; i++) {
+            heuristic[i] = walk(all[i], destination);
+            if (i < lodestoneCount && available[i]) {
+                landing = Math.min(landing, teleport + heuristic[i]);
+            } else if (i >= lodestoneCount && (i - lodestoneCount) % 2 == 1 && available[i - 1]) {
+                landing = Math.min(landing, transports[(i - lodestoneCount) / 2].getMillis() + heuristic[i]);
+            }
+        }
+        heuristic[source] = walk(start, destination);
+        for (int i = 0; i < heuristic.length; i++) {
+            heuristic[i] = Math.min(heuristic[i], landing);
+        }
+
+        long[] cost = new long[count + 2];
+        int[] previous = new int[count + 2];
+        Route.Step.Kind[] kinds = new Route.Step.Kind[count + 2];
+        boolean[] closed = new boolean[count + 2];
+        Arrays.fill(cost, UNREACHABLE);
+        cost[source] = 0;
+        previous[source] = -1;
+        while (true) {
+            // The graph is small and dense, so a linear scan beats a heap
+            int node = -1;
+            for (int i = 0; i < cost.length; i++) {
+                if (!closed[i] && cost[i] < UNREACHABLE && (node == -1 || cost[i] + heuristic[i] < cost[node] + heuristic[node])) {
+                    node = i;
+                }
+            }
+            if (node == -1 || node == target) {
+                break;
+            }
+            closed[node] = true;
+            for (int next = 0; next < cost.length; next++) {
+                if (closed[next] || next == source) {
+                    continue;
+                }
+                long edge = node < count && next < count ? walking[node][next] : walk(all[node], all[next]);
+                Route.Step.Kind kind = Route.Step.Kind.WALK;
+                if (next < lodestoneCount && available[next] && teleport < edge) {
+                    edge = teleport;
+                    kind = Route.Step.Kind.LODESTONE;
+                } else if (next >= lodestoneCount && next < count && (next - lodestoneCount) % 2 == 1 && node == next - 1
+                        && available[node]) {
+                    long ride = transports[(next - lodestoneCount) / 2].getMillis();
+                    if (ride < edge) {
+                        edge = ride;
+                        kind = Route.Step.Kind.TRANSPORT;
+                    }
+                }
+                if (cost[node] + edge < cost[next]) {
+                    cost[next] = cost[node] + edge;
+                    previous[next] = node;
+                    kinds[next] = kind;
+                }
+            }
+        }
+
+        var steps = new ArrayList<Route.Step>();
+        for (int node = target; node != source; node = previous[node]) {
+            Lodestone lodestone = kinds[node] == Route.Step.Kind.LODESTONE ? lodestones[node] : null;
+            Transport transport = kinds[node] == Route.Step.Kind.TRANSPORT ? transports[(node - lodestoneCount) / 2] : null;
+            steps.add(new Route.Step(kinds[node], all[node], cost[node], lodestone, transport));
+        }
+        Collections.reverse(steps);
+        return new Route(steps, walk(start, destination));
+    }
+
+    /**
+     * Gets the unlocked lodestone that lands closest to a destination.
+     *
+     * @param destination the destination
+     * @param blocked     the areas not to teleport into
+     * @return the lodestone, or null if none is unlocked
+     */
+    public static synchronized Lodestone nearestLodestone(Coordinate destination, BlockedAreaIndex blocked) {
+        buildGraph();
+        refreshAvailability();
+        Lodestone nearest = null;
+        long best = UNREACHABLE;
+        for (int i = 0; i < lodestones.length; i++) {
+            if (!available[i] || blocked.isBlocked(nodes[i])) {
+                continue;
+            }
+            long millis = walk(nodes[i], destination);
+            if (millis < best) {
+                best = millis;
+                nearest = lodestones[i];
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Adds a transport for routes to consider.
+     *
+     * @param transport the transport
+     */
+    public static synchronized void addTransport(Transport transport) {
+        TRANSPORTS.add(transport);
+        invalidate();
+    }
+
+    public static synchronized void removeTransport(Transport transport) {
+        TRANSPORTS.remove(transport);
+        invalidate();
+    }
+
+    /**
+     * Stops routes from using some lodestones, such as those in the Wilderness.
+     *
+     * @param excluded the lodestones to leave out
+     */
+    public static synchronized void exclude(Lodestone... excluded) {
+        EXCLUDED.addAll(Arrays.asList(excluded));
+        invalidate();
+    }
+
+    public static synchronized void include(Lodestone... included) {
+        EXCLUDED.removeAll(Arrays.asList(included));
+        invalidate();
+    }
+
+    /**
+     * Sets how long walking one tile is expected to take, allowing for the detours real paths make.
+     *
+     * @param millisPerTile the time in milliseconds
+     */
+    public static synchronized void setMillisPerTile(int millisPerTile) {
+        RoutePlanner.millisPerTile = Math.max(1, millisPerTile);
+        invalidate();
+    }
+
+    /**
+     * Sets how long to trust which lodestones and transports are available before reading them again.
+     *
+     * @param availabilityTtlMillis the time in milliseconds
+     */
+    public static synchronized void setAvailabilityTtlMillis(long availabilityTtlMillis) {
+        RoutePlanner.availabilityTtlMillis = availabilityTtlMillis;
+    }
+
+    /**
+     * Drops the cached graph and availability, so the next query builds them again.
+     */
+    public static synchronized void invalidate() {
+        nodes = null;
+        available = null;
+    }
+
+    private static void buildGraph() {
+        if (nodes != null) {
+            return;
+        }
+        var placed = new ArrayList<Lodestone>();
+        var unplaced = EnumSet.noneOf(Lodestone.class);
+        for (Lodestone lodestone : Lodestone.values()) {
+            if (EXCLUDED.contains(lodestone)) {
+                continue;
+            }
+            if (lodestone.getCoordinate() != null) {
+                placed.add(lodestone);
+            } else {
+                unplaced.add(lodestone);
+            }
+        }
+        lodestones = placed.toArray(new Lodestone[0]);
+        if (!unplaced.isEmpty()) {
+            log.atWarning().log("Leaving lodestones with no known landing out of routes: " + unplaced);
+        }
+        transports = TRANSPORTS.toArray(new Transport[0]);
+        var coordinates = new Coordinate[lodestones.length + transports.length * 2];
+        for (int i = 0; i < lodestones.length; i++) {
+            coordinates[i] = lodestones[i].getCoordinate();
+        }
+        for (int i = 0; i < transports.length; i++) {
+            coordinates[lodestones.length + i * 2] = transports[i].getFrom();
+            coordinates[lodestones.length + i * 2 + 1] = transports[i].getTo();
+        }
+        walking = new long[coordinates.length][coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            for (int j = 0; j < coordinates.length; j++) {
+                walking[i][j] = walk(coordinates[i], coordinates[j]);
+            }
+        }
+        nodes = coordinates;
+        available = null;
+    }
+
+    private static void refreshAvailability() {
+        long now = System.currentTimeMillis();
+        if (available != null && now - availableMillis < availabilityTtlMillis) {
+            return;
+        }
+        // Transports are looked up by their first end, the second is never a source of anything but walking
+        var availability = new boolean[nodes.length];
+        for (int i = 0; i < lodestones.length; i++) {
+            availability[i] = lodestones[i].isAvailable();
+        }
+        for (int i = 0; i < transports.length; i++) {
+            availability[lodestones.length + i * 2] = transports[i].isAvailable();
+        }
+        available = availability;
+        availableMillis = now;
+    }
+
+    private static long walk(Coordinate from, Coordinate to) {
+        long tiles = Math.max(Math.abs(from.getX() - to.getX()), Math.abs(from.getY() - to.getY()));
+        return tiles * millisPerTile + (from.getZ() != to.getZ() ? PLANE_CHANGE_MILLIS : 0);
+    }
+}
@@ -0,0 +1,75 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.hud.interfaces.Component;
+import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
+
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+/**
+ * Run mode and energy, read and toggled through the run orb on the minimap.
+ * <p>
+ * The orb only offers to turn run on when it is off, so that is how run mode is read. The energy itself is not exposed
+ * by the API, so it comes from an {@link #setEnergySupplier(IntSupplier) energy supplier} that scripts can point at
+ * whatever source they have; by default it is unknown.
+ */
+public final class RunEnergy {
+    private static final int MINIMAP_INTERFACE = 1465;
+    private static final String RUN_ON = "Turn run mode on";
+    private static final String RUN_OFF = "Turn run mode off";
+    private static final String REST = "Rest";
+
+    private static volatile IntSupplier energySupplier = () -> -1;
+
+    private RunEnergy() {
+    }
+
+    /**
+     * Gets the run energy.
+     *
+     * @return the energy from 0 to 100, or -1 if it is not known
+     */
+    public static int getEnergy() {
+        return energySupplier.getAsInt();
+    }
+
+    /**
+     * Sets where the run energy is read from.
+     *
+     * @param supplier returns the energy from 0 to 100, or -1 if it is not known
+     */
+    public static void setEnergySupplier(IntSupplier supplier) {
+        energySupplier = Objects.requireNonNull(supplier);
+    }
+
+    /**
+     * Checks whether run mode is on.
+     *
+     * @return true unless the run orb offers to turn it on
+     */
+    public static boolean isRunEnabled() {
+        return ComponentQuery.newQuery(MINIMAP_INTERFACE).option(RUN_ON).results().first() == null;
+    }
+
+    /**
+     * Turns run mode on or off.
+     *
+     * @param enabled whether run should be on
+     * @return true if run is already in that mode or the orb was clicked
+     */
+    public static boolean setRunEnabled(boolean enabled) {
+        String option = enabled ? RUN_ON : RUN_OFF;
+        Component component = ComponentQuery.newQuery(MINIMAP_INTERFACE).option(option).results().first();
+        return component == null || component.interact(option);
+    }
+
+    /**
+     * Rests to restore run energy faster.
+     *
+     * @return true if the rest option was clicked
+     */
+    public static boolean rest() {
+        Component component = ComponentQuery.newQuery(MINIMAP_INTERFACE).option(REST).results().first();
+        return component != null && component.interact(REST);
+    }
+}
@@ -0,0 +1,70 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Coordinate;
+
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A way of travelling from one place to another that is not walking, such as a magic carpet ride or a dig site map,
+ * that the {@link RoutePlanner} can weigh against walking and lodestones.
+ */
+public final class Transport {
+    private final String name;
+    private final Coordinate from;
+    private final Coordinate to;
+    private final long millis;
+    private final BooleanSupplier available;
+    private final BooleanSupplier action;
+
+    /**
+     * @param name      a name for logging
+     * @param from      where the player has to be to use it
+     * @param to        where it takes the player
+     * @param millis    how long it takes, including opening any interface
+     * @param available whether the player can use it
+     * @param action    starts using it, without waiting for the player to arrive, and returns whether it started
+     */
+    public Transport(String name, Coordinate from, Coordinate to, long millis, BooleanSupplier available, BooleanSupplier action) {
+        this.name = Objects.requireNonNull(name);
+        this.from = Objects.requireNonNull(from);
+        this.to = Objects.requireNonNull(to);
+        this.millis = millis;
+        this.available = Objects.requireNonNull(available);
+        this.action = Objects.requireNonNull(action);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Coordinate getFrom() {
+        return from;
+    }
+
+    public Coordinate getTo() {
+        return to;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public boolean isAvailable() {
+        return available.getAsBoolean();
+    }
+
+    /**
+     * Starts using the transport. Whether the player arrives is for the caller to check on later ticks.
+     *
+     * @return true if it started
+     */
+    public boolean use() {
+        return action.getAsBoolean();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,832 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.api.game.GameTick;
+import net.botwithus.api.game.hud.traversal.Lodestone;
+import net.botwithus.rs3.game.Area;
+import net.botwithus.rs3.game.Client;
+import net.botwithus.rs3.game.Coordinate;
+import net.botwithus.rs3.game.minimenu.MiniMenu;
+import net.botwithus.rs3.game.minimenu.actions.WalkAction;
+import net.botwithus.rs3.game.movement.Movement;
+import net.botwithus.rs3.game.movement.NavPath;
+import net.botwithus.rs3.game.movement.TraverseEvent;
+import net.botwithus.rs3.game.scene.entities.characters.player.LocalPlayer;
+import net.botwithus.rs3.script.ScriptConsole;
+import net.botwithus.rs3.util.RandomGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A walk to a destination that is advanced one step per tick by {@link #traverse()}.
+ * <p>
+ * The route is resolved with {@link NavPath} once and followed until the player arrives, and only resolved again when
+ * a {@link MovementMonitor} finds the walk stuck. Inside instances, or where NavPath has no path, the route
+ * is planned on the local collision grid with a {@link JumpPointPathBuilder} instead, and only if that finds nothing
+ * does the player walk straight towards the destination in steps. Every stretch walked on one plan is recorded as a
+ * {@link Leg} with its timings. Paths come from the {@link RouteCache}, so repeated trips reuse them. With
+ * {@link #routing(boolean) routing} on, the {@link RoutePlanner} picks which lodestones and transports to take and
+ * NavPath only walks between them. Teleports and transports are sent on one tick and the landing is checked on the
+ * ticks after, so {@link #traverse()} never waits for the player to travel.
+ * <p>
+ * When the walk is stuck, the {@link #recovery(MovementMonitor.Recovery...) recoveries} are tried in turn, and the
+ * traversal is {@link State#STUCK} once they have all been tried without the player getting any closer.
+ * <p>
+ * Options are set with the fluent methods before the first {@link #traverse()}. {@link TraversalEngine} keeps the
+ * traversal going across calls, so code that asks for the same walk every tick carries on with the same route.
+ */
+public final class Traversal implements Path {
+    private static final MovementMonitor.Recovery[] DEFAULT_RECOVERIES = {
+            MovementMonitor.Recovery.REPLAN, MovementMonitor.Recovery.STEP_ASIDE, MovementMonitor.Recovery.REPLAN,
+            MovementMonitor.Recovery.STEP_ASIDE, MovementMonitor.Recovery.REPLAN
+    };
+    private static final int ASIDE_TICKS = 6;
+    private static final int TELEPORT_OUT_SAVING = 20;
+    private static final int DIRECT_STEP_TICKS = 10;
+    private static final int DIRECT_STEP_REACHED = 5;
+    private static final int TELEPORT_SEND_TICKS = 5;
+    private static final int TELEPORT_GRACE_TICKS = 5;
+    private static final int TELEPORT_LANDED = 10;
+    private static final JumpPointPathBuilder LOCAL_PATHS = new JumpPointPathBuilder();
+
+    private final Coordinate coordinate;
+    private final Area area;
+
+    private boolean dive = true;
+    private boolean surge = false;
+    private boolean teleports = true;
+    private boolean routing = false;
+    private int flags = -1;
+    private int destinationDistance = 2;
+    private int teleportDistance = 30;
+    private int stepSize = RandomGenerator.nextInt(12, 20);
+    private Area[] blockedAreas = new Area[0];
+    private BlockedAreaIndex blocked;
+    private Consumer<String> logger = message -> ScriptConsole.println(message);
+    private MovementMonitor.Recovery[] recoveries = DEFAULT_RECOVERIES;
+
+    private State state = State.NOT_STARTED;
+    private Coordinate target;
+    private NavPath route;
+    private NavPath path;
+    private boolean direct;
+    private Coordinate stage;
+    private boolean routeFailed;
+    private boolean localPlanned;
+    private LocalPath localPath;
+    private Coordinate stepTarget;
+    private long stepTick;
+    private long stepMillis;
+    private MovementMonitor monitor;
+    private Coordinate aside;
+    private long asideTick;
+    private long asideMillis;
+    private int replans;
+    private Route.Step teleport;
+    private boolean teleportSent;
+    private boolean teleportRouted;
+    private long teleportTick;
+    private long teleportMillis;
+    private final List<Leg> legs = new ArrayList<>();
+
+    private Traversal(Coordinate coordinate, Area area) {
+        this.coordinate = coordinate;
+        this.area = area;
+    }
+
+    public static Traversal to(Coordinate coordinate) {
+        return new Traversal(Objects.requireNonNull(coordinate), null);
+    }
+
+    /**
+     * Walks into an area, to a walkable coordinate picked once when the traversal starts.
+     *
+     * @param area the area
+     * @return the traversal
+     */
+    public static Traversal to(Area area) {
+        return new Traversal(null, Objects.requireNonNull(area));
+    }
+
+    public Traversal dive(boolean dive) {
+        this.dive = dive;
+        return this;
+    }
+
+    public Traversal surge(boolean surge) {
+        this.surge = surge;
+        return this;
+    }
+
+    /**
+     * Sets whether NavPath may use teleports. They are never used for destinations closer than the
+     * {@link #teleportDistance(int) teleport distance}.
+     *
+     * @param teleports whether to allow teleports
+     * @return this traversal
+     */
+    public Traversal teleports(boolean teleports) {
+        this.teleports = teleports;
+        return this;
+    }
+
+    /**
+     * Sets whether to take the fastest mix of lodestones, transports and walking found by the {@link RoutePlanner},
+     * instead of leaving teleports to NavPath.
+     *
+     * @param routing whether to plan the route with the {@link RoutePlanner}
+     * @return this traversal
+     */
+    public Traversal routing(boolean routing) {
+        this.routing = routing;
+        return this;
+    }
+
+    /**
+     * Passes the given {@link Movement} flags to NavPath as they are, instead of building them from the dive, surge
+     * and teleport options.
+     *
+     * @param flags the movement flags
+     * @return this traversal
+     */
+    public Traversal flags(int flags) {
+        this.flags = flags;
+        return this;
+    }
+
+    public Traversal destinationDistance(int destinationDistance) {
+        this.destinationDistance = destinationDistance;
+        return this;
+    }
+
+    public Traversal teleportDistance(int teleportDistance) {
+        this.teleportDistance = teleportDistance;
+        return this;
+    }
+
+    /**
+     * Sets how far each step goes when walking straight towards the destination.
+     *
+     * @param stepSize the step length in tiles
+     * @return this traversal
+     */
+    public Traversal stepSize(int stepSize) {
+        this.stepSize = Math.max(1, stepSize);
+        return this;
+    }
+
+    public Traversal avoid(Area... blockedAreas) {
+        this.blockedAreas = blockedAreas == null ? new Area[0] : blockedAreas;
+        this.blocked = null;
+        return this;
+    }
+
+    /**
+     * Sets what to try, in order, each time the walk is found stuck without having got closer since the last try.
+     * Once they have all been tried the traversal is {@link State#STUCK}.
+     *
+     * @param recoveries the recoveries
+     * @return this traversal
+     */
+    public Traversal recovery(MovementMonitor.Recovery... recoveries) {
+        this.recoveries = recoveries == null ? new MovementMonitor.Recovery[0] : recoveries.clone();
+        return this;
+    }
+
+    public Traversal logger(Consumer<String> logger) {
+        this.logger = Objects.requireNonNull(logger);
+        return this;
+    }
+
+    @Override
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Advances the traversal by one step. Call it once per tick until the state is {@link State#COMPLETE}.
+     *
+     * @return false if the player is stuck or cannot be found, true otherwise
+     */
+    @Override
+    public synchronized boolean traverse() {
+        var player = Client.getLocalPlayer();
+        Coordinate position = player != null ? player.getCoordinate() : null;
+        if (position == null) {
+            logger.accept("[Traversal]: Player is null");
+            return false;
+        }
+        if (state == State.NOT_STARTED && !start()) {
+            state = State.STUCK;
+            return false;
+        }
+        if (arrived(position)) {
+            if (state != State.COMPLETE) {
+                teleport = null;
+                endLeg(position, Leg.Outcome.ARRIVED);
+                monitor.finish();
+                logger.accept("[Traversal]: Arrived at " + format(target));
+            }
+            state = State.COMPLETE;
+            return true;
+        }
+        if (state == State.STUCK) {
+            return false;
+        }
+        if (state == State.COMPLETE) {
+            // Walked away again after arriving, so carry on from here
+            monitor.resetProgress();
+            replans = 0;
+            forgetRoute();
+            localPlanned = false;
+            localPath = null;
+        }
+        state = State.IN_PROGRESS;
+        if (teleport != null) {
+            return awaitTeleport(position);
+        }
+        trackProgress(player, position);
+        if (state == State.STUCK) {
+            return false;
+        }
+        if (teleport != null) {
+            // A recovery has just sent a teleport
+            return true;
+        }
+        if (aside != null) {
+            if (aside.distanceTo(position) > 1 && GameTick.ticksSince(asideTick, asideMillis) < ASIDE_TICKS) {
+                return true;
+            }
+            aside = null;
+        }
+        if (direct || isInstanced(position)) {
+            return stepDirect(position);
+        }
+        if (path == null && routing && !routeFailed && followRoute(position)) {
+            return true;
+        }
+        if (path == null) {
+            plan(position);
+        }
+        TraverseEvent.State result = path != null ? Movement.traverse(path) : TraverseEvent.State.NO_PATH;
+        monitor.recordResult(result);
+        if (result == null || result == TraverseEvent.State.FAILED) {
+            logger.accept("[Traversal]: NavPath failed with " + result + ", planning again");
+            replan(position, Leg.Outcome.REPLANNED);
+            return true;
+        }
+        switch (result) {
+            case NO_PATH -> {
+                logger.accept("[Traversal]: NavPath can't resolve the path, walking straight to " + format(target));
+                endLeg(position, Leg.Outcome.FALLBACK);
+                direct = true;
+                dropRoute();
+                return stepDirect(position);
+            }
+            case FINISHED, INTERRUPTED -> {
+                // NavPath is done, normally by reaching the stage or the target, so the path stays cached. If the
+                // player is not there yet the next tick plans from where it stopped, and a stall drops it instead
+                endLeg(position, Leg.Outcome.REPLANNED);
+                forgetRoute();
+            }
+            default -> {
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the coordinate being walked to, which for an area is picked when the traversal starts.
+     *
+     * @return the target, or null before the traversal starts
+     */
+    public synchronized Coordinate getTarget() {
+        return target;
+    }
+
+    public Coordinate getCoordinate() {
+        return coordinate;
+    }
+
+    public Area getArea() {
+        return area;
+    }
+
+    /**
+     * Gets the stretches walked so far, one per plan, the last one still running unless the traversal is over.
+     *
+     * @return the legs in order
+     */
+    public synchronized List<Leg> getLegs() {
+        return Collections.unmodifiableList(new ArrayList<>(legs));
+    }
+
+    /**
+     * Gets how many recoveries have been tried since the player last got closer.
+     *
+     * @return the recovery count
+     */
+    public synchronized int getReplanCount() {
+        return replans;
+    }
+
+    /**
+     * Gets the monitor watching this walk, with its stuck events and the time they lost.
+     *
+     * @return the monitor, or null before the traversal starts
+     */
+    public synchronized MovementMonitor getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * Checks whether another traversal walks to the same place with the same options, so this one can carry on in
+     * its place. Areas are compared by the tiles they cover, not by identity.
+     *
+     * @param other the other traversal
+     * @return true if they describe the same walk
+     */
+    public boolean isSameWalk(Traversal other) {
+        return other != null && Objects.equals(coordinate, other.coordinate) && WalkableTiles.isSame(area, other.area)
+                && dive == other.dive && surge == other.surge && teleports == other.teleports && routing == other.routing
+                && flags == other.flags
+                && destinationDistance == other.destinationDistance && teleportDistance == other.teleportDistance
+                && WalkableTiles.isSame(blockedAreas, other.blockedAreas) && Arrays.equals(recoveries, other.recoveries);
+    }
+
+    private boolean start() {
+        if (coordinate != null) {
+            if (coordinate.getX() == 0 && coordinate.getY() == 0) {
+                logger.accept("[Traversal]: Location is (0, 0) - area may not be mapped by NavPath");
+                return false;
+            }
+            target = coordinate;
+        } else {
+            // The cached tiles only know the loaded scene, further areas are left to NavPath's map
+            target = WalkableTiles.random(area, blocked());
+            if (target == null) {
+                target = area.getRandomWalkableCoordinate();
+            }
+            if (target == null || target.getX() == 0 && target.getY() == 0) {
+                logger.accept("[Traversal]: Area not mapped by NavPath, walking straight to a random coordinate");
+                target = area.getRandomCoordinate();
+                direct = true;
+                if (target == null) {
+                    logger.accept("[Traversal]: Failed to get any coordinate from area");
+                    return false;
+                }
+            }
+        }
+        state = State.IN_PROGRESS;
+        monitor = new MovementMonitor();
+        return true;
+    }
+
+    private boolean arrived(Coordinate position) {
+        if (target == null) {
+            return false;
+        }
+        return area != null && area.contains(position) || target.distanceTo(position) <= destinationDistance;
+    }
+
+    /**
+     * Feeds the player's movement to the monitor, and tries the next recovery when it finds the walk stuck.
+     */
+    private void trackProgress(LocalPlayer player, Coordinate position) {
+        // A local path may lead away from the target to get round walls, and tells by itself when it is stuck
+        boolean busy = localPath != null || player.isMoving() || player.getAnimationId() != -1;
+        if (monitor.record(position, target.distanceTo(position), busy)) {
+            replans = 0;
+        }
+        var reason = monitor.check();
+        if (reason == null) {
+            return;
+        }
+        if (replans >= recoveries.length) {
+            logger.accept("[Traversal]: Stuck (" + reason + ") after " + replans + " recoveries without progress");
+            endLeg(position, Leg.Outcome.STUCK);
+            monitor.finish();
+            state = State.STUCK;
+            return;
+        }
+        var recovery = recoveries[replans++];
+        logger.accept("[Traversal]: Stuck (" + reason + ") on the way to " + format(target) + ", trying " + recovery);
+        monitor.recovering(recovery);
+        stepTarget = null;
+        aside = null;
+        if (recovery == MovementMonitor.Recovery.TELEPORT_OUT && teleportOut(position)) {
+            return;
+        }
+        if (direct && !isInstanced(position) && coordinate != null) {
+            // Walking straight has stalled, so give NavPath another go
+            direct = false;
+        }
+        replan(position, Leg.Outcome.REPLANNED);
+        if (recovery == MovementMonitor.Recovery.STEP_ASIDE) {
+            stepAside(position);
+        }
+    }
+
+    private void replan(Coordinate position, Leg.Outcome outcome) {
+        dropRoute();
+        localPlanned = false;
+        localPath = null;
+        endLeg(position, outcome);
+    }
+
+    /**
+     * Walks a few tiles to one side of the way to the target, so the next plan starts from somewhere else.
+     */
+    private void stepAside(Coordinate position) {
+        int sideX = -Integer.signum(target.getY() - position.getY());
+        int sideY = Integer.signum(target.getX() - position.getX());
+        if (sideX == 0 && sideY == 0) {
+            sideX = 1;
+        }
+        int side = RandomGenerator.nextInt(0, 2) == 0 ? 1 : -1;
+        for (int direction : new int[]{side, -side}) {
+            for (int distance = 4; distance >= 2; distance--) {
+                var tile = new Coordinate(position.getX() + sideX * direction * distance, position.getY() + sideY * direction * distance, position.getZ());
+                if (tile.isWalkable() && !blocked().isBlocked(tile)) {
+                    boolean clicked = MiniMenu.interact(WalkAction.WALK.getType(), 1, tile.getX(), tile.getY());
+                    logger.accept("[Traversal]: Stepping aside to " + format(tile) + " | " + clicked);
+                    aside = tile;
+                    asideTick = GameTick.current();
+                    asideMillis = System.currentTimeMillis();
+                    return;
+                }
+            }
+        }
+        logger.accept("[Traversal]: Nowhere to step aside to");
+    }
+
+    /**
+     * Starts a teleport to the lodestone nearest the target if that gets the player a good deal closer.
+     *
+     * @return true if a teleport was tried
+     */
+    private boolean teleportOut(Coordinate position) {
+        var lodestone = teleports ? RoutePlanner.nearestLodestone(target, blocked()) : null;
+        if (lodestone == null || lodestone.getCoordinate().distanceTo(target) > target.distanceTo(position) - TELEPORT_OUT_SAVING) {
+            logger.accept("[Traversal]: No lodestone gets closer to " + format(target));
+            return false;
+        }
+        endLeg(position, Leg.Outcome.REPLANNED);
+        legs.add(new Leg(Leg.Mode.TELEPORT, position, 0, false));
+        logger.accept("[Traversal]: Teleporting out to " + lodestone);
+        dropRoute();
+        localPlanned = false;
+        localPath = null;
+        direct = false;
+        startTeleport(new Route.Step(Route.Step.Kind.LODESTONE, lodestone.getCoordinate(), Lodestone.getTeleportMillis(), lodestone, null), false);
+        return true;
+    }
+
+    private void plan(Coordinate position) {
+        int flags = this.flags;
+        if (flags == -1) {
+            flags = 0;
+            if (!dive) {
+                flags |= Movement.DISABLE_DIVE;
+            }
+            if (surge) {
+                flags |= Movement.ENABLE_SURGE;
+            }
+            // Disable teleports if requested or if the destination is close
+            if (!teleports || (target.distanceTo(position) < teleportDistance && target.isWalkable())) {
+                flags |= Movement.DISABLE_TELEPORTS;
+            }
+        }
+        if (routing && !routeFailed) {
+            // The teleports were already chosen by the route planner
+            flags |= Movement.DISABLE_TELEPORTS;
+        }
+        var destination = stage != null ? stage : target;
+        long started = System.nanoTime();
+        route = RouteCache.get(position, destination, flags, blockedAreas);
+        boolean cached = route != null;
+        if (!cached) {
+            route = RouteCache.resolveFresh(position, destination, flags, blockedAreas);
+        }
+        path = route == null ? null : route.interrupt(event -> {
+            var player = Client.getLocalPlayer();
+            return player != null && destination.isReachable() && destination.distanceTo(player.getCoordinate()) <= destinationDistance;
+        });
+        legs.add(new Leg(Leg.Mode.NAVPATH, position, System.nanoTime() - started, cached));
+        logger.accept("[Traversal]: " + (cached ? "Reusing a cached path to " : "Planned a path to ") + format(destination));
+    }
+
+    /**
+     * Plans the fastest route from here and starts its first teleport or transport if it starts with one. Otherwise the
+     * next plan walks to where the route's first walk ends.
+     *
+     * @return true if a teleport or transport was started this tick
+     */
+    private boolean followRoute(Coordinate position) {
+        long started = System.nanoTime();
+        var route = RoutePlanner.plan(position, target, blocked());
+        stage = null;
+        if (route == null || route.getSteps().isEmpty()) {
+            return false;
+        }
+        var steps = route.getSteps();
+        var step = steps.get(0);
+        if (step.getKind() == Route.Step.Kind.WALK && steps.size() > 1 && step.getDestination().distanceTo(position) <= destinationDistance) {
+            // Already at the transport the route walks to
+            step = steps.get(1);
+        }
+        if (step.getKind() == Route.Step.Kind.WALK) {
+            if (step != steps.get(steps.size() - 1)) {
+                stage = step.getDestination();
+            }
+            return false;
+        }
+        if (!teleports || step.getKind() == Route.Step.Kind.LODESTONE && target.distanceTo(position) < teleportDistance) {
+            return false;
+        }
+        endLeg(position, Leg.Outcome.REPLANNED);
+        legs.add(new Leg(Leg.Mode.TELEPORT, position, System.nanoTime() - started, false));
+        logger.accept("[Traversal]: Taking " + step + " | " + route);
+        startTeleport(step, true);
+        return true;
+    }
+
+    /**
+     * Sends a teleport or transport and leaves the following ticks to {@link #awaitTeleport(Coordinate)}.
+     *
+     * @param routed whether the step came from the {@link RoutePlanner}, which is not trusted again if it fails
+     */
+    private void startTeleport(Route.Step step, boolean routed) {
+        teleport = step;
+        teleportRouted = routed;
+        teleportTick = GameTick.current();
+        teleportMillis = System.currentTimeMillis();
+        teleportSent = step.execute();
+    }
+
+    /**
+     * Checks once per tick whether the teleport or transport has landed the player where it goes, sending it again
+     * while it could not be sent, and gives up once it has taken well over its usual time.
+     */
+    private boolean awaitTeleport(Coordinate position) {
+        if (teleport.getDestination().distanceTo(position) <= TELEPORT_LANDED) {
+            endTeleport(position, true);
+            return true;
+        }
+        long waited = GameTick.ticksSince(teleportTick, teleportMillis);
+        if (!teleportSent && waited < TELEPORT_SEND_TICKS) {
+            if (teleport.execute()) {
+                // The travel time counts from when it was sent
+                teleportSent = true;
+                teleportTick = GameTick.current();
+                teleportMillis = System.currentTimeMillis();
+            }
+            return true;
+        }
+        if (teleportSent && waited <= teleport.getTravelMillis() / GameTick.TICK_MILLIS + TELEPORT_GRACE_TICKS) {
+            return true;
+        }
+        endTeleport(position, false);
+        return true;
+    }
+
+    private void endTeleport(Coordinate position, boolean landed) {
+        if (!landed) {
+            logger.accept("[Traversal]: " + teleport + (teleportSent ? " did not land" : " could not be sent")
+                    + (teleportRouted ? ", leaving teleports to NavPath" : ""));
+            if (teleportRouted) {
+                routeFailed = true;
+            }
+        }
+        endLeg(position, landed ? Leg.Outcome.TELEPORTED : Leg.Outcome.FALLBACK);
+        monitor.resetProgress();
+        teleport = null;
+    }
+
+    /**
+     * Forgets the current path, dropping it from the {@link RouteCache} as it did not get the player there.
+     */
+    private void dropRoute() {
+        if (route != null) {
+            RouteCache.invalidate(route);
+        }
+        forgetRoute();
+    }
+
+    /**
+     * Forgets the current path but leaves it in the {@link RouteCache}, for when it was walked to the end.
+     */
+    private void forgetRoute() {
+        route = null;
+        path = null;
+    }
+
+    /**
+     * Follows a path planned on the local collision grid, or walks straight towards the target if there is none,
+     * clicking the next step once the last one is nearly reached or is taking too long.
+     */
+    private boolean stepDirect(Coordinate position) {
+        if (!localPlanned) {
+            localPlanned = true;
+            endLeg(position, Leg.Outcome.FALLBACK);
+            long started = System.nanoTime();
+            localPath = LOCAL_PATHS.build(position, target, blocked());
+            legs.add(new Leg(localPath != null ? Leg.Mode.LOCAL : Leg.Mode.DIRECT, position, System.nanoTime() - started, false));
+            if (localPath != null) {
+                logger.accept("[Traversal]: Planned a local path to " + format(target) + " | " + localPath);
+            }
+        }
+        if (localPath != null) {
+            if (localPath.traverse()) {
+                return true;
+            }
+            logger.accept("[Traversal]: Local path is stuck, walking straight to " + format(target));
+            localPath = null;
+            endLeg(position, Leg.Outcome.FALLBACK);
+            legs.add(new Leg(Leg.Mode.DIRECT, position, 0, false));
+        }
+        long tick = GameTick.current();
+        long now = System.currentTimeMillis();
+        if (stepTarget != null && stepTarget.distanceTo(position) >= DIRECT_STEP_REACHED
+                && GameTick.ticksSince(stepTick, stepMillis) < DIRECT_STEP_TICKS) {
+            return true;
+        }
+        int dx = target.getX() - position.getX();
+        int dy = target.getY() - position.getY();
+        int distance = (int) Math.hypot(dx, dy);
+        var step = target;
+        if (distance > stepSize) {
+            step = new Coordinate(position.getX() + dx * stepSize / distance, position.getY() + dy * stepSize / distance, position.getZ());
+        }
+        // Stop short of any blocked area on the way, the next replan can look for a way round it
+        step = blocked().clip(position, step);
+        boolean clicked = MiniMenu.interact(WalkAction.WALK.getType(), 1, step.getX(), step.getY());
+        logger.accept("[Traversal]: Walking straight to " + format(step) + " | " + clicked);
+        stepTarget = step;
+        stepTick = tick;
+        stepMillis = now;
+        return clicked;
+    }
+
+    /**
+     * Gets the blocked areas compiled for quick lookups, compiled once on first use.
+     */
+    private BlockedAreaIndex blocked() {
+        if (blocked == null) {
+            blocked = BlockedAreaIndex.of(blockedAreas);
+        }
+        return blocked;
+    }
+
+    private void endLeg(Coordinate position, Leg.Outcome outcome) {
+        if (!legs.isEmpty()) {
+            legs.get(legs.size() - 1).end(position, outcome);
+        }
+    }
+
+    static boolean isInstanced(Coordinate coordinate) {
+        return coordinate.getX() > 6400 || coordinate.getY() > 12800;
+    }
+
+    private static String format(Coordinate coordinate) {
+        return coordinate == null ? "null" : coordinate.getX() + ", " + coordinate.getY();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Traversal{" + (area != null ? area : format(coordinate)) + ", " + state + ", legs=" + legs.size() + ", replans=" + replans + "}";
+    }
+
+    /**
+     * A stretch of a traversal walked on one plan.
+     */
+    public static final class Leg {
+        public enum Mode {
+            /**
+             * Following a path resolved by NavPath.
+             */
+            NAVPATH,
+            /**
+             * Following a path planned on the local collision grid by jump point search.
+             */
+            LOCAL,
+            /**
+             * Taking a lodestone teleport or a transport picked by the {@link RoutePlanner}.
+             */
+            TELEPORT,
+            /**
+             * Walking straight towards the destination.
+             */
+            DIRECT
+        }
+
+        public enum Outcome {
+            ARRIVED,
+            TELEPORTED,
+            REPLANNED,
+            FALLBACK,
+            STUCK
+        }
+
+        private final Mode mode;
+        private final Coordinate start;
+        private final long planNanos;
+        private final boolean cached;
+        private final long startedTick;
+        private final long startedMillis;
+        private Coordinate end;
+        private long endedTick = -1;
+        private long endedMillis = -1;
+        private Outcome outcome;
+
+        private Leg(Mode mode, Coordinate start, long planNanos, boolean cached) {
+            this.mode = mode;
+            this.start = start;
+            this.planNanos = planNanos;
+            this.cached = cached;
+            this.startedTick = GameTick.current();
+            this.startedMillis = System.currentTimeMillis();
+        }
+
+        private void end(Coordinate position, Outcome outcome) {
+            if (isOver()) {
+                return;
+            }
+            this.end = position;
+            this.outcome = outcome;
+            this.endedTick = GameTick.current();
+            this.endedMillis = System.currentTimeMillis();
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public Coordinate getStart() {
+            return start;
+        }
+
+        /**
+         * Gets where the leg ended.
+         *
+         * @return the player's coordinate when the leg ended, or null while it is running
+         */
+        public Coordinate getEnd() {
+            return end;
+        }
+
+        /**
+         * Gets how long it took to plan the path for this leg.
+         *
+         * @return the time in milliseconds, 0 when walking straight
+         */
+        public double getPlanMillis() {
+            return planNanos / 1_000_000.0;
+        }
+
+        /**
+         * Checks whether the leg followed a path reused from the {@link RouteCache}.
+         *
+         * @return true if the path was not resolved for this leg
+         */
+        public boolean isCachedRoute() {
+            return cached;
+        }
+
+        /**
+         * Gets how long the leg took, or has taken so far.
+         *
+         * @return the time in milliseconds
+         */
+        public long getDurationMillis() {
+            return (endedMillis != -1 ? endedMillis : System.currentTimeMillis()) - startedMillis;
+        }
+
+        public long getTicks() {
+            return (endedTick != -1 ? endedTick : GameTick.current()) - startedTick;
+        }
+
+        /**
+         * Gets how the leg ended.
+         *
+         * @return the outcome, or null while it is running
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public boolean isOver() {
+            return outcome != null;
+        }
+
+        @Override
+        public String toString() {
+            return "Leg{" + mode + ", " + format(start) + " -> " + format(end) + ", " + getDurationMillis() + "ms, "
+                    + getTicks() + " ticks, plan " + String.format("%.1f", getPlanMillis()) + "ms, " + outcome + "}";
+        }
+    }
+}
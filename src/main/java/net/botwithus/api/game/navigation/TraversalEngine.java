@@ -0,0 +1,55 @@
+package net.botwithus.api.game.navigation;
+
+/**
+ * Keeps one {@link Traversal} going across calls.
+ * <p>
+ * Scripts usually ask to walk somewhere every tick until they get there. Passing the walk to {@link #traverse(Traversal)}
+ * each time carries on with the traversal already under way when it describes the same walk, so the route is only
+ * resolved again when the destination or options change, or the player wanders off it.
+ */
+public final class TraversalEngine {
+    private static Traversal current;
+
+    private TraversalEngine() {
+    }
+
+    /**
+     * Gets the traversal for a walk, reusing the current one if it is the same walk and has not got stuck.
+     *
+     * @param traversal the walk wanted
+     * @return the traversal to advance
+     */
+    public static synchronized Traversal track(Traversal traversal) {
+        if (current == null || current.state() == Path.State.STUCK || !current.isSameWalk(traversal)) {
+            current = traversal;
+        }
+        return current;
+    }
+
+    /**
+     * Advances the traversal for a walk by one step.
+     *
+     * @param traversal the walk wanted
+     * @return false if the player is stuck or cannot be found, true otherwise
+     * @see Traversal#traverse()
+     */
+    public static boolean traverse(Traversal traversal) {
+        return track(traversal).traverse();
+    }
+
+    /**
+     * Gets the traversal that was advanced last.
+     *
+     * @return the traversal, or null if there is none
+     */
+    public static synchronized Traversal getCurrent() {
+        return current;
+    }
+
+    /**
+     * Forgets the current traversal, so the next walk is planned from scratch.
+     */
+    public static synchronized void reset() {
+        current = null;
+    }
+}
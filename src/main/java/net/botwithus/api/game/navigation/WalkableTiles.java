@@ -0,0 +1,339 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Area;
+import net.botwithus.rs3.game.Client;
+import net.botwithus.rs3.game.Coordinate;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The walkable tiles of areas, read from the collision data once and kept packed in an int array per area.
+ * <p>
+ * Picking a random walkable tile then takes constant time and never lands on a wall, and the walkable tile nearest
+ * the player is one pass over the array. Areas are recognised by their bounds and tiles, so equal areas share an entry
+ * even when they are different objects, and the least recently used entries are dropped past the capacity. Each area's
+ * key is worked out once and kept for as long as the area is in use, so looking up an area seen before takes constant
+ * time. Tiles outside the loaded scene are not walkable as far as the collision data knows, so areas that are not
+ * wholly within {@value #LOADED_RADIUS} tiles of the player are not cached and are read again next time.
+ */
+public final class WalkableTiles {
+    private static final LinkedHashMap<Key, int[]> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static final WeakHashMap<Area, Key> KEYS = new WeakHashMap<>();
+    // The scene reaches at least this far from the player in every direction
+    private static final int LOADED_RADIUS = 32;
+
+    private static int capacity = 64;
+    private static long hits;
+    private static long misses;
+
+    private WalkableTiles() {
+    }
+
+    /**
+     * Picks a walkable tile in an area, every one equally likely.
+     *
+     * @param area the area
+     * @return the tile, or null if the area has no walkable tiles in the loaded scene
+     */
+    public static Coordinate random(Area area) {
+        return random(area, BlockedAreaIndex.EMPTY);
+    }
+
+    /**
+     * Picks a walkable tile in an area that is not blocked, every one equally likely.
+     *
+     * @param area    the area
+     * @param blocked the tiles not to pick
+     * @return the tile, or null if the area has no walkable tiles outside the blocked areas in the loaded scene
+     */
+    public static Coordinate random(Area area, BlockedAreaIndex blocked) {
+        int[] tiles = tiles(area);
+        if (tiles == null) {
+            return null;
+        }
+        var random = ThreadLocalRandom.current();
+        // A few random picks nearly always miss the blocked tiles, only fall back to a scan when they do not
+        for (int i = 0; i < 8; i++) {
+            var tile = unpack(tiles[random.nextInt(tiles.length)]);
+            if (!blocked.isBlocked(tile)) {
+                return tile;
+            }
+        }
+        int start = random.nextInt(tiles.length);
+        for (int i = 0; i < tiles.length; i++) {
+            var tile = unpack(tiles[(start + i) % tiles.length]);
+            if (!blocked.isBlocked(tile)) {
+                return tile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the walkable tile in an area closest to a position.
+     *
+     * @param area     the area
+     * @param position the position, normally the player's coordinate
+     * @return the tile, or null if the area has no walkable tiles in the loaded scene
+     */
+    public static Coordinate nearest(Area area, Coordinate position) {
+        int[] tiles = tiles(area);
+        if (tiles == null || position == null) {
+            return null;
+        }
+        int best = -1;
+        long bestDistance = Long.MAX_VALUE;
+        for (int tile : tiles) {
+            long dx = x(tile) - position.getX(), dy = y(tile) - position.getY();
+            long distance = dx * dx + dy * dy + (plane(tile) != position.getZ() ? 1L << 40 : 0);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = tile;
+            }
+        }
+        return unpack(best);
+    }
+
+    /**
+     * Gets how many walkable tiles an area has.
+     *
+     * @param area the area
+     * @return the tile count, 0 if the area is outside the loaded scene
+     */
+    public static int count(Area area) {
+        int[] tiles = tiles(area);
+        return tiles == null ? 0 : tiles.length;
+    }
+
+    /**
+     * Forgets the tiles of an area, for when doors or obstacles in it have changed.
+     *
+     * @param area the area
+     */
+    public static void invalidate(Area area) {
+        var key = key(area);
+        if (key != null) {
+            synchronized (CACHE) {
+                CACHE.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Checks whether two areas cover the same tiles. Areas only compare by identity, so this compares their keys.
+     */
+    static boolean isSame(Area a, Area b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        var key = key(a);
+        return key != null ? key.equals(key(b)) : key(b) == null;
+    }
+
+    static boolean isSame(Area[] a, Area[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            if (!isSame(a[i], b[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes areas by their tiles, to go with {@link #isSame(Area[], Area[])}.
+     */
+    static int hashCode(Area[] areas) {
+        int hash = 1;
+        for (Area area : areas) {
+            var key = key(area);
+            hash = 31 * hash + (key != null ? key.hash : 0);
+        }
+        return hash;
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            KEYS.clear();
+        }
+    }
+
+    public static void setCapacity(int capacity) {
+        synchronized (CACHE) {
+            WalkableTiles.capacity = Math.max(1, capacity);
+            trim();
+        }
+    }
+
+    public static long getHits() {
+        synchronized (CACHE) {
+            return hits;
+        }
+    }
+
+    public static long getMisses() {
+        synchronized (CACHE) {
+            return misses;
+        }
+    }
+
+    private static int[] tiles(Area area) {
+        var key = key(area);
+        if (key == null) {
+            return null;
+        }
+        synchronized (CACHE) {
+            int[] tiles = CACHE.get(key);
+            if (tiles != null) {
+                hits++;
+                return tiles;
+            }
+            misses++;
+        }
+        int[] walkable = new int[key.tiles.length];
+        int count = 0;
+        for (int tile : key.tiles) {
+            if (unpack(tile).isWalkable()) {
+                walkable[count++] = tile;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        int[] tiles = Arrays.copyOf(walkable, count);
+        if (isLoaded(key)) {
+            synchronized (CACHE) {
+                CACHE.put(key, tiles);
+                trim();
+            }
+        }
+        return tiles;
+    }
+
+    private static Key key(Area area) {
+        if (area == null) {
+            return null;
+        }
+        synchronized (CACHE) {
+            var key = KEYS.get(area);
+            if (key != null) {
+                return key;
+            }
+        }
+        var key = Key.of(area);
+        if (key != null) {
+            synchronized (CACHE) {
+                KEYS.put(area, key);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Checks whether all of an area is close enough to the player to be in the loaded scene, so its tiles are final.
+     */
+    private static boolean isLoaded(Key key) {
+        var player = Client.getLocalPlayer();
+        Coordinate position = player != null ? player.getCoordinate() : null;
+        if (position == null) {
+            return false;
+        }
+        int x = position.getX(), y = position.getY();
+        return x - key.minX <= LOADED_RADIUS && key.maxX - x <= LOADED_RADIUS
+                && y - key.minY <= LOADED_RADIUS && key.maxY - y <= LOADED_RADIUS;
+    }
+
+    private static void trim() {
+        Iterator<Map.Entry<Key, int[]>> iterator = CACHE.entrySet().iterator();
+        while (CACHE.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // x and y take 15 bits each and the plane 2, which covers the whole map including instances
+    private static int pack(Coordinate coordinate) {
+        return coordinate.getX() << 17 | coordinate.getY() << 2 | coordinate.getZ();
+    }
+
+    private static int x(int tile) {
+        return tile >>> 17;
+    }
+
+    private static int y(int tile) {
+        return tile >>> 2 & 0x7FFF;
+    }
+
+    private static int plane(int tile) {
+        return tile & 3;
+    }
+
+    private static Coordinate unpack(int tile) {
+        return new Coordinate(x(tile), y(tile), plane(tile));
+    }
+
+    /**
+     * An area's bounds and all its tiles, sorted, so equal areas give equal keys.
+     */
+    private static final class Key {
+        private final int minX;
+        private final int minY;
+        private final int maxX;
+        private final int maxY;
+        private final int[] tiles;
+        private final int hash;
+
+        private Key(int minX, int minY, int maxX, int maxY, int[] tiles) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.tiles = tiles;
+            this.hash = 31 * (31 * (31 * (31 * minX + minY) + maxX) + maxY) + Arrays.hashCode(tiles);
+        }
+
+        private static Key of(Area area) {
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+            int[] tiles = new int[64];
+            int count = 0;
+            for (Coordinate coordinate : area.getCoordinates()) {
+                if (count == tiles.length) {
+                    tiles = Arrays.copyOf(tiles, count * 2);
+                }
+                tiles[count++] = pack(coordinate);
+                minX = Math.min(minX, coordinate.getX());
+                minY = Math.min(minY, coordinate.getY());
+                maxX = Math.max(maxX, coordinate.getX());
+                maxY = Math.max(maxY, coordinate.getY());
+            }
+            if (count == 0) {
+                return null;
+            }
+            tiles = Arrays.copyOf(tiles, count);
+            Arrays.sort(tiles);
+            return new Key(minX, minY, maxX, maxY, tiles);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Key key && hash == key.hash && minX == key.minX && minY == key.minY && maxX == key.maxX
+                    && maxY == key.maxY && Arrays.equals(tiles, key.tiles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
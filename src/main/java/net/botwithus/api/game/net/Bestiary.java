@@ -1,181 +1,543 @@
 package net.botwithus.api.game.net;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import net.botwithus.api.util.Internet;
 import net.botwithus.api.util.collection.PairList;
 
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.URI;
-import java.net.URL;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringReader;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Looks up beasts through the RuneScape bestiary web service.
+ * <p>
+ * Lookups that return several beasts fetch the matching ids first and then each beast on its own virtual thread,
+ * at most {@link #setMaxConcurrency(int) a few at a time}, always returning the beasts in the order the service
+ * listed them. Every lookup has an {@code Async} variant returning a {@link CompletableFuture} and a variant that
+ * streams each beast to a callback as soon as it and every beast before it have arrived.
+ * <p>
+ * Responses are cached on disk, so beasts looked up in an earlier session load without the network. A cached
+ * response is used until it is older than {@link #setCacheTtlMillis(long) the time to live}, and kept as a fallback
+ * for when the service cannot be reached.
+ */
 public final class Bestiary {
-    private static final String BASE_ADDRESS = "http://services.runescape.com/m=itemdb_rs/bestiary/";
-    private static final String BEAST_DATA_ADDRESS = BASE_ADDRESS + "beastData.json?beastid=";
-    private static final String BEAST_SEARCH_ADDRESS = BASE_ADDRESS + "beastSearch.json?term=";
-    private static final String AREA_BEASTS_ADDRESS = BASE_ADDRESS + "areaBeasts.json?identifier=";
-    private static final String SLAYER_CATEGORY_BEASTS_ADDRESS = BASE_ADDRESS + "slayerBeasts.json?identifier=";
-    private static final String SLAYER_CATEGORY_NAME_TO_IDS_ADDRESS = BASE_ADDRESS + "slayerCatNames.json";
+    private static final String DEFAULT_BASE_ADDRESS = "http://services.runescape.com/m=itemdb_rs/bestiary/";
+    private static final String BEAST_DATA_PATH = "beastData.json?beastid=";
+    private static final String BEAST_SEARCH_PATH = "beastSearch.json?term=";
+    private static final String AREA_BEASTS_PATH = "areaBeasts.json?identifier=";
+    private static final String SLAYER_CATEGORY_BEASTS_PATH = "slayerBeasts.json?identifier=";
+    private static final String SLAYER_CATEGORY_NAME_TO_IDS_PATH = "slayerCatNames.json";
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static volatile String baseAddress = DEFAULT_BASE_ADDRESS;
+    private static volatile Semaphore limiter = new Semaphore(8);
+    private static volatile BestiaryCache cache = new BestiaryCache(
+            Paths.get(System.getProperty("user.home"), "BotWithUs", "cache", "bestiary.bin"));
+    private static volatile boolean offline = false;
+
+    private static final ConcurrentHashMap<String, CompletableFuture<Object>> IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder COALESCED = new LongAdder();
+    private static final LongAdder CACHE_HITS = new LongAdder();
 
     private Bestiary() {
     }
 
+    /**
+     * Sets the address of the bestiary service, for example to point the lookups at a local server.
+     *
+     * @param baseAddress the address every request path is appended to, ending with a slash
+     */
+    public static void setBaseAddress(String baseAddress) {
+        Bestiary.baseAddress = baseAddress == null ? DEFAULT_BASE_ADDRESS : baseAddress;
+    }
+
+    public static String getBaseAddress() {
+        return baseAddress;
+    }
+
+    /**
+     * Sets how many beasts may be fetched at the same time. A value of 1 fetches them one after another.
+     *
+     * @param maxConcurrency the most requests in flight at once
+     */
+    public static void setMaxConcurrency(int maxConcurrency) {
+        limiter = new Semaphore(Math.max(1, maxConcurrency));
+    }
+
+    /**
+     * Moves the response cache to another file, or turns it off.
+     *
+     * @param file the cache file, or null to stop caching
+     */
+    public static synchronized void setCacheFile(Path file) {
+        if (cache != null) {
+            cache.close();
+        }
+        cache = file == null ? null : new BestiaryCache(file);
+    }
+
+    /**
+     * Sets how long a cached response is used before it is requested again.
+     *
+     * @param ttlMillis the time to live in milliseconds
+     */
+    public static void setCacheTtlMillis(long ttlMillis) {
+        var cache = Bestiary.cache;
+        if (cache != null) {
+            cache.setTtlMillis(ttlMillis);
+        }
+    }
+
+    /**
+     * Sets how many responses are cached before the least recently used ones are dropped.
+     *
+     * @param capacity the number of responses
+     */
+    public static void setCacheCapacity(int capacity) {
+        var cache = Bestiary.cache;
+        if (cache != null) {
+            cache.setCapacity(capacity);
+        }
+    }
+
+    public static void clearCache() {
+        var cache = Bestiary.cache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public static boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Makes every lookup answer from the cache only, however old the cached response. Lookups that are not cached
+     * fail as if the service could not be reached.
+     *
+     * @param offline whether to stay off the network
+     */
+    public static void setOffline(boolean offline) {
+        Bestiary.offline = offline;
+    }
+
+    /**
+     * Gets the number of requests sent to the bestiary service.
+     *
+     * @return the request count
+     */
+    public static long getRequestCount() {
+        return REQUESTS.sum();
+    }
+
+    /**
+     * Gets the number of lookups that shared a request already in flight for the same address instead of sending
+     * their own.
+     *
+     * @return the coalesced lookup count
+     */
+    public static long getCoalescedCount() {
+        return COALESCED.sum();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the cache hit count
+     */
+    public static long getCacheHitCount() {
+        return CACHE_HITS.sum();
+    }
+
     /**
      * Gets the beast with the given id
      */
     public static Beast lookupById(int id) {
         try {
-            URL url = URI.create(BEAST_DATA_ADDRESS + id).toURL();
-            String response = readUrlContent(url);
-            if (!response.isEmpty()) {
-                return new Beast(response);
-            }
-        } catch (IOException | JsonSyntaxException ignored) {
+            return fetch(baseAddress + BEAST_DATA_PATH + id, Beast::new);
+        } catch (IOException | JsonParseException ignored) {
         }
         return null;
     }
 
     /**
-     * Gets a list of all Beast's with the given name
+     * Gets the beasts with the given ids, fetched concurrently, in the order of the ids. Ids that fail to load are
+     * left out.
      */
-    public static List<Beast> lookupByName(String name) {
-        try {
-            String encodedName = URLEncoder.encode(name, StandardCharsets.UTF_8);
-            var url = URI.create(BEAST_SEARCH_ADDRESS + encodedName).toURL();
-            String response = readUrlContent(url);
-            List<Integer> ids = new ArrayList<>();
-            for (JsonElement element : JsonParser.parseString(response).getAsJsonArray()) {
-                if (element.isJsonObject()) {
-                    int value = element.getAsJsonObject().get("value").getAsInt();
-                    String label = element.getAsJsonObject().get("label").getAsString();
-                    if (name.equals(label)) {
-                        ids.add(value);
-                    }
-                }
-            }
-            List<Beast> beasts = new ArrayList<>(ids.size());
-            for (int id : ids) {
-                Beast beast = lookupById(id);
-                if (beast != null) {
-                    beasts.add(beast);
+    public static List<Beast> lookupByIds(List<Integer> ids) {
+        return lookupByIdsAsync(ids).join();
+    }
+
+    public static CompletableFuture<List<Beast>> lookupByIdsAsync(List<Integer> ids) {
+        List<Beast> beasts = new ArrayList<>(ids.size());
+        return lookupByIds(ids, beasts::add).thenApply(done -> beasts);
+    }
+
+    /**
+     * Fetches the beasts with the given ids concurrently and passes each to the consumer in the order of the ids.
+     *
+     * @return a future completed once every beast was passed on
+     */
+    public static CompletableFuture<Void> lookupByIds(List<Integer> ids, Consumer<Beast> consumer) {
+        var limiter = Bestiary.limiter;
+        CompletableFuture<Void> delivered = CompletableFuture.completedFuture(null);
+        for (int id : ids) {
+            var beast = CompletableFuture.supplyAsync(() -> lookupById(id, limiter), EXECUTOR);
+            // Chaining each delivery behind the previous one keeps the order without waiting for the whole batch
+            delivered = delivered.thenCombine(beast, (done, result) -> {
+                if (result != null) {
+                    consumer.accept(result);
                 }
-            }
-            return beasts;
-        } catch (IOException | JsonSyntaxException ignored) {
-            return Collections.emptyList();
+                return null;
+            });
         }
+        return delivered;
+    }
+
+    /**
+     * Gets a list of all Beast's with the given name
+     */
+    public static List<Beast> lookupByName(String name) {
+        return lookupByNameAsync(name).join();
+    }
+
+    public static CompletableFuture<List<Beast>> lookupByNameAsync(String name) {
+        return collect(findIdsAsync(() -> findIdsByName(name)));
+    }
+
+    public static CompletableFuture<Void> lookupByName(String name, Consumer<Beast> consumer) {
+        return stream(findIdsAsync(() -> findIdsByName(name)), consumer);
     }
 
     /**
      * Gets a list of all beasts in the given area
      *
-     * @param area
-     * @return
+     * @param area the area name, as listed by the bestiary
+     * @return the beasts, or an empty list if the lookup failed
      */
     public static List<Beast> lookupByArea(String area) {
+        return lookupByAreaAsync(area).join();
+    }
+
+    public static CompletableFuture<List<Beast>> lookupByAreaAsync(String area) {
+        return collect(findIdsAsync(() -> findIdsByArea(area)));
+    }
+
+    public static CompletableFuture<Void> lookupByArea(String area, Consumer<Beast> consumer) {
+        return stream(findIdsAsync(() -> findIdsByArea(area)), consumer);
+    }
+
+    /**
+     * Gets a list of all beasts within the given slayer category
+     */
+    public static List<Beast> lookupBySlayerCategory(int slayerCategoryId) {
+        return lookupBySlayerCategoryAsync(slayerCategoryId).join();
+    }
+
+    public static CompletableFuture<List<Beast>> lookupBySlayerCategoryAsync(int slayerCategoryId) {
+        return collect(findIdsAsync(() -> findIdsBySlayerCategory(slayerCategoryId)));
+    }
+
+    public static CompletableFuture<Void> lookupBySlayerCategory(int slayerCategoryId, Consumer<Beast> consumer) {
+        return stream(findIdsAsync(() -> findIdsBySlayerCategory(slayerCategoryId)), consumer);
+    }
+
+    /**
+     * Gets a list of all beasts within the given slayer category
+     *
+     * @return the beasts, or null if there is no such category
+     */
+    public static List<Beast> lookupBySlayerCategory(String slayerCategory) {
         try {
-            String encodedArea = URLEncoder.encode(area, StandardCharsets.UTF_8);
-            URL url = URI.create(AREA_BEASTS_ADDRESS + encodedArea).toURL();
-            String response = readUrlContent(url);
-            List<Integer> ids = new ArrayList<>();
-            for (JsonElement element : JsonParser.parseString(response).getAsJsonArray()) {
-                if (element.isJsonObject()) {
-                    int value = element.getAsJsonObject().get("value").getAsInt();
-                    ids.add(value);
-                }
-            }
-            List<Beast> beasts = new ArrayList<>(ids.size());
-            for (int id : ids) {
-                Beast beast = lookupById(id);
-                if (beast != null) {
-                    beasts.add(beast);
-                }
+            Integer slayerCategoryId = findSlayerCategoryId(slayerCategory);
+            if (slayerCategoryId == null) {
+                return null;
             }
-            return beasts;
-        } catch (IOException | JsonSyntaxException e) {
+            return lookupBySlayerCategory(slayerCategoryId);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
             return Collections.emptyList();
         }
     }
 
     /**
-     * Gets a list of all beasts within the given slayer category
+     * Gets all beasts within the given slayer category, completing with an empty list if there is no such category.
      */
-    public static List<Beast> lookupBySlayerCategory(int slayerCategoryId) {
+    public static CompletableFuture<List<Beast>> lookupBySlayerCategoryAsync(String slayerCategory) {
+        return collect(findIdsAsync(() -> findIdsBySlayerCategory(slayerCategory)));
+    }
+
+    public static CompletableFuture<Void> lookupBySlayerCategory(String slayerCategory, Consumer<Beast> consumer) {
+        return stream(findIdsAsync(() -> findIdsBySlayerCategory(slayerCategory)), consumer);
+    }
+
+    private static Beast lookupById(int id, Semaphore limiter) {
+        limiter.acquireUninterruptibly();
         try {
-            URL url = URI.create(SLAYER_CATEGORY_BEASTS_ADDRESS + slayerCategoryId).toURL();
-            String response = readUrlContent(url);
+            return lookupById(id);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private static CompletableFuture<List<Beast>> collect(CompletableFuture<List<Integer>> ids) {
+        return ids.thenCompose(Bestiary::lookupByIdsAsync);
+    }
+
+    private static CompletableFuture<Void> stream(CompletableFuture<List<Integer>> ids, Consumer<Beast> consumer) {
+        return ids.thenCompose(found -> lookupByIds(found, consumer));
+    }
+
+    /**
+     * Fetches a list of ids on a virtual thread, completing with an empty list if the request fails.
+     */
+    private static CompletableFuture<List<Integer>> findIdsAsync(IdSearch search) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return search.find();
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                return Collections.<Integer>emptyList();
+            }
+        }, EXECUTOR);
+    }
+
+    private static List<Integer> findIdsByName(String name) throws IOException {
+        String encodedName = URLEncoder.encode(name, StandardCharsets.UTF_8);
+        return readIds(baseAddress + BEAST_SEARCH_PATH + encodedName, name);
+    }
+
+    private static List<Integer> findIdsByArea(String area) throws IOException {
+        String encodedArea = URLEncoder.encode(area, StandardCharsets.UTF_8);
+        return readIds(baseAddress + AREA_BEASTS_PATH + encodedArea, null);
+    }
+
+    private static List<Integer> findIdsBySlayerCategory(int slayerCategoryId) throws IOException {
+        return readIds(baseAddress + SLAYER_CATEGORY_BEASTS_PATH + slayerCategoryId, null);
+    }
+
+    private static List<Integer> findIdsBySlayerCategory(String slayerCategory) throws IOException {
+        Integer slayerCategoryId = findSlayerCategoryId(slayerCategory);
+        return slayerCategoryId == null ? Collections.emptyList() : findIdsBySlayerCategory(slayerCategoryId);
+    }
+
+    private static Integer findSlayerCategoryId(String slayerCategory) throws IOException {
+        Map<String, Integer> categories = fetch(baseAddress + SLAYER_CATEGORY_NAME_TO_IDS_PATH, reader -> {
+            Map<String, Integer> ids = new HashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                ids.put(reader.nextName(), reader.nextInt());
+            }
+            reader.endObject();
+            return Collections.unmodifiableMap(ids);
+        });
+        return categories.get(slayerCategory);
+    }
+
+    /**
+     * Reads the beast ids from a search response, keeping only the entries labelled with the given name if one is
+     * given.
+     */
+    private static List<Integer> readIds(String address, String label) throws IOException {
+        return fetch(address, reader -> {
             List<Integer> ids = new ArrayList<>();
-            for (JsonElement element : JsonParser.parseString(response).getAsJsonArray()) {
-                if (element.isJsonObject()) {
-                    int value = element.getAsJsonObject().get("value").getAsInt();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                int value = -1;
+                String entryLabel = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "value" -> value = reader.nextInt();
+                        case "label" -> entryLabel = reader.nextString();
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (value != -1 && (label == null || label.equals(entryLabel))) {
                     ids.add(value);
                 }
             }
-            List<Beast> beasts = new ArrayList<>(ids.size());
-            for (int id : ids) {
-                Beast beast = lookupById(id);
-                if (beast != null) {
-                    beasts.add(beast);
+            reader.endArray();
+            return Collections.unmodifiableList(ids);
+        });
+    }
+
+    @FunctionalInterface
+    private interface IdSearch {
+        List<Integer> find() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Parses a response from the cache while it is fresh, otherwise straight from the service as it arrives, falling
+     * back to a stale cached response if the service cannot be reached or its response cannot be read. A cached
+     * response that cannot be read is dropped and requested again. Offline, only the cache is used, however old the
+     * response.
+     * <p>
+     * Only one request per address is sent at a time; callers asking for an address that is already being requested
+     * wait for that request and share its result. An address is always parsed the same way, so the result fits them,
+     * and every result is read-only, so no caller sees another change it.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T fetch(String address, ResponseParser<T> parser) throws IOException {
+        var cache = Bestiary.cache;
+        boolean offline = Bestiary.offline;
+        if (cache != null) {
+            var cached = cache.open(address, offline);
+            if (cached != null) {
+                try {
+                    T result = parse(cached, parser);
+                    CACHE_HITS.increment();
+                    return result;
+                } catch (IOException | JsonParseException e) {
+                    cache.remove(address);
+                    if (offline) {
+                        throw e;
+                    }
                 }
             }
-            return beasts;
-        } catch (IOException | JsonSyntaxException | IllegalStateException e) {
-            return Collections.emptyList();
+        }
+        if (offline) {
+            throw new IOException("Not cached while offline: " + address);
+        }
+        var flight = new CompletableFuture<Object>();
+        var pending = IN_FLIGHT.putIfAbsent(address, flight);
+        if (pending != null) {
+            COALESCED.increment();
+            return (T) await(pending);
+        }
+        REQUESTS.increment();
+        try {
+            T result = download(address, parser, cache);
+            flight.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(address, flight);
         }
     }
 
-    /**
-     * Gets a list of all beasts within the given slayer category
-     */
-    public static List<Beast> lookupBySlayerCategory(String slayerCategory) {
+    private static Object await(CompletableFuture<Object> pending) throws IOException {
         try {
-            URL url = URI.create(SLAYER_CATEGORY_NAME_TO_IDS_ADDRESS).toURL();
-            String response = readUrlContent(url);
-            Map<String, Integer> categories = new HashMap<>();
-            for (Map.Entry<String, JsonElement> element : JsonParser.parseString(
-                    response).getAsJsonObject().entrySet()) {
-                categories.put(element.getKey(), element.getValue().getAsInt());
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a bestiary request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
             }
-            Integer slayerCategoryId = categories.get(slayerCategory);
-            if (slayerCategoryId == null) {
-                return null;
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
             }
-            return lookupBySlayerCategory(slayerCategoryId);
-        } catch (IOException | JsonSyntaxException e) {
-            return Collections.emptyList();
+            throw new IOException(e.getCause());
         }
     }
 
-    private static String readUrlContent(URL url) throws IOException {
-        StringBuilder content = new StringBuilder();
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new InputStreamReader(url.openStream()));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line);
+    private static <T> T download(String address, ResponseParser<T> parser, BestiaryCache cache) throws IOException {
+        T result;
+        try (var body = Internet.open(address)) {
+            if (cache == null) {
+                return parse(body, parser);
             }
-        } finally {
-            if (reader != null) {
-                reader.close();
+            // The response is deflated into the cache as it is parsed, so it is neither read twice nor held in full
+            try (var capture = cache.capture(address)) {
+                result = parse(new CapturingInputStream(body, capture), parser);
+                capture.commit();
+            }
+        } catch (IOException | JsonParseException e) {
+            // A stream cut off mid-response reaches here as a JsonIOException from parsers that only throw unchecked
+            var stale = cache != null ? cache.open(address, true) : null;
+            if (stale == null) {
+                throw e;
+            }
+            return parse(stale, parser);
+        }
+        return result;
+    }
+
+    private static <T> T parse(InputStream in, ResponseParser<T> parser) throws IOException {
+        try (var reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return parser.parse(reader);
+        }
+    }
+
+    /**
+     * Copies everything read through it to another stream, for responses that are parsed and cached at the same time.
+     */
+    private static final class CapturingInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        private CapturingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                copy.write(b);
             }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                copy.write(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return read(new byte[(int) Math.min(n, 8192)]);
         }
-        return content.toString();
     }
 
     public static class Beast {
-        final boolean poisonous;
-        private final String name;
-        private final int id;
-        private final String description;
-        private final boolean attackable;
-        private final boolean aggressive;
-        private final double xp;
-        private final int size;
-        private final boolean members;
+        boolean poisonous;
+        private String name;
+        private int id;
+        private String description;
+        private boolean attackable;
+        private boolean aggressive;
+        private double xp;
+        private int size;
+        private boolean members;
         private final List<String> areas = new ArrayList<>();
         private final PairList<String, Integer> animations = new PairList<>(2);
         private String weakness;
@@ -189,61 +551,75 @@ public final class Bestiary {
         private String slayercat;
 
         public Beast(String json) {
-            JsonObject root = JsonParser.parseString(json).getAsJsonObject();
-            this.name = root.get("name").getAsString();
-            this.id = root.get("id").getAsInt();
-            this.description = root.get("description").getAsString();
-            JsonElement current = root.get("weakness");
-            if (current != null) {
-                this.weakness = current.getAsString();
-            }
-            this.attackable = root.get("attackable").getAsBoolean();
-            this.aggressive = root.get("aggressive").getAsBoolean();
-            this.poisonous = root.get("poisonous").getAsBoolean();
-            this.xp = Double.parseDouble(root.get("xp").getAsString());
-            current = root.get("lifepoints");
-            if (current != null) {
-                this.lifepoints = current.getAsInt();
-            }
-            current = root.get("level");
-            if (current != null) {
-                this.level = current.getAsInt();
-            }
-            current = root.get("defence");
-            if (current != null) {
-                this.defence = current.getAsInt();
-            }
-            current = root.get("attack");
-            if (current != null) {
-                this.attack = current.getAsInt();
-            }
-            current = root.get("magic");
-            if (current != null) {
-                this.magic = current.getAsInt();
-            }
-            current = root.get("ranged");
-            if (current != null) {
-                this.ranged = current.getAsInt();
-            }
-            current = root.get("slayerlevel");
-            if (current != null) {
-                this.slayerLevel = current.getAsInt();
-            }
-            this.size = root.get("size").getAsInt();
-            this.members = root.get("members").getAsBoolean();
-            current = root.get("slayercat");
-            if (current != null) {
-                this.slayercat = current.getAsString();
+            this(new JsonReader(new StringReader(json)));
+        }
+
+        /**
+         * Reads a beast from a bestiary response as it is parsed, without building a tree of the whole response.
+         *
+         * @param reader the reader positioned at the beast object
+         * @throws JsonParseException if the response is not a beast
+         */
+        public Beast(JsonReader reader) {
+            try {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String field = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        continue;
+                    }
+                    switch (field) {
+                        case "name" -> name = reader.nextString();
+                        case "id" -> id = reader.nextInt();
+                        case "description" -> description = reader.nextString();
+                        case "weakness" -> weakness = reader.nextString();
+                        case "attackable" -> attackable = nextBoolean(reader);
+                        case "aggressive" -> aggressive = nextBoolean(reader);
+                        case "poisonous" -> poisonous = nextBoolean(reader);
+                        case "xp" -> xp = reader.nextDouble();
+                        case "lifepoints" -> lifepoints = reader.nextInt();
+                        case "level" -> level = reader.nextInt();
+                        case "defence" -> defence = reader.nextInt();
+                        case "attack" -> attack = reader.nextInt();
+                        case "magic" -> magic = reader.nextInt();
+                        case "ranged" -> ranged = reader.nextInt();
+                        case "slayerlevel" -> slayerLevel = reader.nextInt();
+                        case "size" -> size = reader.nextInt();
+                        case "members" -> members = nextBoolean(reader);
+                        case "slayercat" -> slayercat = reader.nextString();
+                        case "animations" -> {
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                animations.add(reader.nextName(), reader.nextInt());
+                            }
+                            reader.endObject();
+                        }
+                        case "areas" -> {
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                areas.add(reader.nextString());
+                            }
+                            reader.endArray();
+                        }
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            } catch (IOException e) {
+                throw new JsonIOException(e);
             }
-            JsonObject animations = root.get("animations").getAsJsonObject();
-            animations.entrySet().forEach(
-                    animation -> this.animations.add(animation.getKey(), animation.getValue().getAsInt()));
-            JsonArray areas = root.get("areas").getAsJsonArray();
-            for (JsonElement element : areas) {
-                this.areas.add(element.getAsString());
+            if (name == null) {
+                throw new JsonSyntaxException("Not a beast, it has no name");
             }
         }
 
+        private static boolean nextBoolean(JsonReader reader) throws IOException {
+            return reader.peek() == JsonToken.STRING ? Boolean.parseBoolean(reader.nextString()) : reader.nextBoolean();
+        }
+
         public String getName() {
             return name;
         }
@@ -313,11 +689,14 @@ public final class Bestiary {
         }
 
         public List<String> getLocations() {
-            return areas;
+            return Collections.unmodifiableList(areas);
         }
 
+        /**
+         * Gets the beast's animations. A beast may be shared by several lookups, so this is a copy.
+         */
         public PairList<String, Integer> getAnimations() {
-            return animations;
+            return new PairList<>(animations);
         }
 
         @Override
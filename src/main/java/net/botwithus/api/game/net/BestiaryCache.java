@@ -0,0 +1,366 @@
+package net.botwithus.api.game.net;
+
+import com.google.common.flogger.FluentLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Bestiary responses kept on disk, keyed by request address.
+ * <p>
+ * The file is a header followed by appended records of key, time and deflated response. It is read in full the first
+ * time the cache is used, later records replacing earlier ones, and rewritten once it holds twice as many records as
+ * the cache does. Entries are kept in least recently used order and the oldest are dropped past the capacity.
+ * <p>
+ * Only the process holding the lock file next to the cache writes it; other processes read it once and keep their
+ * new responses in memory. A file with an unknown format is discarded, and a record with a length past the end of the
+ * file is treated as the start of a damaged tail, which is dropped along with everything after it.
+ */
+final class BestiaryCache {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int MAGIC = 0x42574243; // "BWBC"
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private volatile long ttlMillis = 24 * 60 * 60_000L;
+    private int capacity = 4096;
+    private DataOutputStream out;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private int records;
+    private boolean loaded;
+
+    BestiaryCache(Path file) {
+        this.file = file;
+    }
+
+    void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    synchronized void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        trim();
+    }
+
+    /**
+     * Opens a cached response, inflated as it is read.
+     *
+     * @param key        the request address
+     * @param allowStale whether to return a response older than the time to live
+     * @return the response, or null if there is none
+     */
+    synchronized InputStream open(String key, boolean allowStale) {
+        load();
+        var entry = entries.get(key);
+        if (entry == null || !allowStale && System.currentTimeMillis() - entry.millis > ttlMillis) {
+            return null;
+        }
+        return new InflaterInputStream(new ByteArrayInputStream(entry.data));
+    }
+
+    /**
+     * Starts caching a response as it is read. It is deflated as it is written, so the raw response is never held in
+     * full, and stored once {@link Capture#commit()} is called.
+     *
+     * @param key the request address
+     * @return the stream to copy the response into, to be closed whether or not it was committed
+     */
+    Capture capture(String key) {
+        return new Capture(key);
+    }
+
+    private synchronized void put(String key, byte[] deflated) {
+        load();
+        var entry = new Entry(System.currentTimeMillis(), deflated);
+        entries.put(key, entry);
+        trim();
+        if (lock == null) {
+            return;
+        }
+        if (records >= Math.max(64, entries.size() * 2)) {
+            rewrite();
+            return;
+        }
+        try {
+            if (out == null) {
+                out = open();
+            }
+            write(out, key, entry);
+            out.flush();
+            records++;
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Failed to write the bestiary cache");
+            closeOutput();
+        }
+    }
+
+    /**
+     * Drops a response that could not be read back, so it is requested again.
+     */
+    synchronized void remove(String key) {
+        load();
+        if (entries.remove(key) != null) {
+            rewrite();
+        }
+    }
+
+    synchronized void clear() {
+        load();
+        entries.clear();
+        rewrite();
+    }
+
+    /**
+     * Closes the file and releases the lock. The file is read again on the next use.
+     */
+    synchronized void close() {
+        closeOutput();
+        unlock();
+        entries.clear();
+        records = 0;
+        loaded = false;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        lock();
+        if (!Files.exists(file)) {
+            return;
+        }
+        boolean intact = true;
+        try (var counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             var in = new DataInputStream(counter)) {
+            long size = Files.size(file);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.atWarning().log("Discarding a bestiary cache with an unknown format: " + file);
+                rewrite();
+                return;
+            }
+            while (counter.count < size) {
+                String key = in.readUTF();
+                long millis = in.readLong();
+                int length = in.readInt();
+                if (length < 0 || length > size - counter.count) {
+                    throw new IOException("Record length " + length + " is past the end of the file");
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+                entries.put(key, new Entry(millis, data));
+                records++;
+            }
+        } catch (IOException e) {
+            // A record cut short by a crash or damaged on disk; keep what was read before it and drop the rest
+            log.atWarning().withCause(e).log("Dropping the damaged end of the bestiary cache " + file);
+            intact = false;
+        }
+        trim();
+        if (!intact) {
+            rewrite();
+        }
+    }
+
+    /**
+     * Takes the lock file next to the cache, leaving the cache in memory only if another process holds it.
+     */
+    private void lock() {
+        var path = file.resolveSibling(file.getFileName() + ".lock");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            lockChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = lockChannel.tryLock();
+        } catch (IOException | OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            log.atWarning().log("Bestiary cache is in use elsewhere, new responses will only be cached in memory: " + file);
+            unlock();
+        }
+    }
+
+    private void unlock() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException ignored) {
+        }
+        lock = null;
+        lockChannel = null;
+    }
+
+    /**
+     * Rewrites the file with only the live entries.
+     */
+    private void rewrite() {
+        closeOutput();
+        if (lock == null) {
+            return;
+        }
+        var temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (var rewritten = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                rewritten.writeInt(MAGIC);
+                rewritten.writeInt(VERSION);
+                for (var entry : entries.entrySet()) {
+                    write(rewritten, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = entries.size();
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Failed to rewrite the bestiary cache");
+        }
+    }
+
+    private DataOutputStream open() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean created = !Files.exists(file) || Files.size(file) == 0;
+        var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                created ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND)));
+        if (created) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+        }
+        return stream;
+    }
+
+    private void closeOutput() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+        }
+    }
+
+    private static void write(DataOutputStream stream, String key, Entry entry) throws IOException {
+        stream.writeUTF(key);
+        stream.writeLong(entry.millis);
+        stream.writeInt(entry.data.length);
+        stream.write(entry.data);
+    }
+
+    /**
+     * A response being deflated into the cache as it is read.
+     */
+    final class Capture extends DeflaterOutputStream {
+        private final String key;
+        private long length;
+
+        private Capture(String key) {
+            super(new ByteArrayOutputStream(4096), new Deflater(Deflater.BEST_SPEED));
+            this.key = key;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            super.write(buffer, offset, length);
+            this.length += length;
+        }
+
+        /**
+         * Stores the response written so far, unless it was empty.
+         */
+        void commit() throws IOException {
+            finish();
+            if (length > 0) {
+                put(key, ((ByteArrayOutputStream) out).toByteArray());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read through it, so record lengths can be checked against what is left of the file.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static final class Entry {
+        private final long millis;
+        private final byte[] data;
+
+        private Entry(long millis, byte[] data) {
+            this.millis = millis;
+            this.data = data;
+        }
+    }
+}
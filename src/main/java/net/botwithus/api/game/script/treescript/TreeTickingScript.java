@@ -1,5 +1,6 @@
 package net.botwithus.api.game.script.treescript;
 
+import net.botwithus.api.game.GameTick;
 import net.botwithus.internal.scripts.ScriptDefinition;
 import net.botwithus.rs3.game.scene.entities.characters.player.LocalPlayer;
 import net.botwithus.rs3.script.TickingScript;
@@ -51,6 +52,7 @@ public abstract class TreeTickingScript extends TickingScript {
      */
     @Override
     public void onTick(LocalPlayer localPlayer) {
+        GameTick.advance();
         if (rootTask != null) {
             TreeTask.traverse(this, rootTask);
         } else {
@@ -1,5 +1,6 @@
 package net.botwithus.api.game.script.v2.base;
 
+import net.botwithus.api.game.GameTick;
 import net.botwithus.internal.scripts.ScriptDefinition;
 import net.botwithus.rs3.script.TickingScript;
 import net.botwithus.rs3.script.config.ScriptConfig;
@@ -21,6 +22,7 @@ public abstract class DelayableScript extends TickingScript {
 
     @Override
     public void onTick(LocalPlayer localPlayer) {
+        GameTick.advance();
         try {
             if (delayUntil != null) {
                 if (delayUntil.call() || delay <= 1) {
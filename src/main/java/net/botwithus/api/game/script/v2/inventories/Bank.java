@@ -2,29 +2,22 @@ package net.botwithus.api.game.script.v2.inventories;
 
 import com.google.common.flogger.FluentLogger;
 import net.botwithus.api.game.hud.inventories.Backpack;
+import net.botwithus.api.game.hud.inventories.BankEngine;
 import net.botwithus.api.game.hud.inventories.BankInventory;
+import net.botwithus.api.game.hud.inventories.BankOperation;
 import net.botwithus.api.game.hud.inventories.Inventory;
 import net.botwithus.api.game.script.v2.permissive.base.PermissiveScript;
-import net.botwithus.rs3.game.Distance;
 import net.botwithus.rs3.game.Item;
 import net.botwithus.rs3.game.hud.interfaces.Component;
 import net.botwithus.rs3.game.hud.interfaces.Interfaces;
 import net.botwithus.rs3.game.minimenu.MiniMenu;
 import net.botwithus.rs3.game.minimenu.actions.ComponentAction;
-import net.botwithus.rs3.game.minimenu.actions.ObjectAction;
-import net.botwithus.rs3.game.queries.builders.characters.NpcQuery;
 import net.botwithus.rs3.game.queries.builders.components.ComponentQuery;
 import net.botwithus.rs3.game.queries.builders.items.InventoryItemQuery;
-import net.botwithus.rs3.game.queries.builders.objects.SceneObjectQuery;
 import net.botwithus.rs3.game.vars.VarManager;
-import net.botwithus.rs3.script.ScriptConsole;
-import net.botwithus.rs3.util.RandomGenerator;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.function.BiFunction;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class Bank {
 
@@ -33,12 +26,6 @@ public class Bank {
     private static final Inventory BANK = new BankInventory();
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
-    private static final Pattern BANK_NAME_PATTERN = Pattern.compile("^(?!.*deposit).*(bank|counter).*$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern BANK_OPTION_PATTERN = Pattern.compile("^.*(Bank|Use).*$");
-    private static final String LAST_PRESET_OPTION = "Load Last Preset from";
-
-    private static int previousLoadedPreset = -1;
-
     private Bank() {
 
     }
@@ -49,53 +36,7 @@ public class Bank {
      * @return {@code true} if the bank was successfully opened, {@code false} otherwise.
      */
     public static boolean open(PermissiveScript script) {
-//        var obj = SceneObjectQuery.newQuery()
-//                .name(BANK_NAME_PATTERN)
-//                .option(BANK_OPTION_PATTERN).results().nearest();
-        var obj = SceneObjectQuery.newQuery().name(BANK_NAME_PATTERN).option("Use")
-                .or(SceneObjectQuery.newQuery().name(BANK_NAME_PATTERN).option("Bank"))
-                .or(SceneObjectQuery.newQuery().name("Shantay chest")).results().nearest();
-        var npc = NpcQuery.newQuery().option("Bank").results().nearest();
-        log.atInfo().log("[Bank] Just a test");
-        var useObj = true;
-
-        log.atInfo().log("Object is " + (obj != null ? "not null" : "null"));
-        log.atInfo().log("Npc is " + (npc != null ? "not null" : "null"));
-
-        if (obj != null && npc != null) {
-            log.atInfo().log("Distance.to(obj): " + Distance.to(obj));
-            log.atInfo().log("Distance.to(npc): " + Distance.to(npc));
-            var objDist = Distance.to(obj);
-            var npcDist = Distance.to(npc);
-            if (!Double.isNaN(objDist) && !Double.isNaN(npcDist))
-                useObj = Distance.to(obj) < Distance.to(npc);
-            log.atInfo().log("useObj: " + useObj);
-        }
-        if (obj != null && useObj) {
-            log.atInfo().log("Interacting via Object: " + obj.getName());
-            var actions = obj.getOptions();
-            log.atInfo().log("Available Options: " + actions);
-            if (!actions.isEmpty()) {
-                var action = actions.stream().filter(i -> i != null && !i.isEmpty()).findFirst();
-                log.atInfo().log("action.isPresent(): " + action.isPresent());
-                var result = action.isPresent() && obj.interact(action.get());
-                if (result) script.delayUntil(Bank::isOpen, 8);
-                log.atInfo().log("Interaction Result1: " + result);
-                if (!result) {
-                    result = obj.interact(ObjectAction.OBJECT2.getType());
-                    if (result) script.delayUntil(Bank::isOpen, 6);
-                }
-                return result;
-            } else {
-                log.atInfo().log("No options on object");
-            }
-        } else if (npc != null) {
-            var result = npc.interact("Bank");
-            script.delayUntil(Bank::isOpen, 6);
-            log.atInfo().log("Interacting via Npc: " + result);
-            return result;
-        }
-        return false;
+        return await(script, BankEngine.open(), 16);
     }
 
     /**
@@ -123,31 +64,7 @@ public class Bank {
     }
 
     public static boolean loadLastPreset() {
-        var obj = SceneObjectQuery.newQuery()
-                .option(LAST_PRESET_OPTION).results().nearest();
-        var npc = NpcQuery.newQuery().option(LAST_PRESET_OPTION).results().nearest();
-        var useObj = true;
-
-        log.atInfo().log("Object is " + (obj != null ? "not null" : "null"));
-        log.atInfo().log("Npc is " + (npc != null ? "not null" : "null"));
-
-        if (obj != null && npc != null) {
-            log.atInfo().log("Distance.to(obj): " + Distance.to(obj));
-            log.atInfo().log("Distance.to(npc): " + Distance.to(npc));
-            var objDist = Distance.to(obj);
-            var npcDist = Distance.to(npc);
-            if (!Double.isNaN(objDist) && !Double.isNaN(npcDist))
-                useObj = Distance.to(obj) < Distance.to(npc);
-            log.atInfo().log("useObj: " + useObj);
-        }
-        if (obj != null && useObj) {
-            log.atInfo().log("Interacting via Object: " + obj.getName());
-            return obj.interact(LAST_PRESET_OPTION);
-        } else if (npc != null) {
-            log.atInfo().log("Interacting via Npc: " + npc.getName());
-            return npc.interact(LAST_PRESET_OPTION);
-        }
-        return false;
+        return BankEngine.loadLastPreset().getState() != BankOperation.State.FAILED;
     }
 
     /**
@@ -156,7 +73,7 @@ public class Bank {
      * @return returns an array containing all items in the bank.
      */
     public static Item[] getItems() {
-        return InventoryItemQuery.newQuery(95).results().stream().filter(i -> i.getId() != -1).toArray(Item[]::new);
+        return BANK.getItems().toArray(Item[]::new);
     }
 
 
@@ -200,19 +117,19 @@ public class Bank {
     }
 
     public static boolean contains(String... itemNames) {
-        return !InventoryItemQuery.newQuery(95).name(itemNames).results().isEmpty();
+        return BankEngine.contains(itemNames);
     }
 
     public static boolean contains(Pattern itemNamePattern) {
-        return !InventoryItemQuery.newQuery(95).name(itemNamePattern).results().isEmpty();
+        return BankEngine.contains(itemNamePattern);
     }
 
     public static int getCount(String... itemNames) {
-        return count(InventoryItemQuery.newQuery(95).name(itemNames));
+        return BankEngine.getCount(itemNames);
     }
 
     public static int getCount(Pattern namePattern) {
-        return count(InventoryItemQuery.newQuery(95).name(namePattern));
+        return BankEngine.getCount(namePattern);
     }
 
     /**
@@ -222,14 +139,7 @@ public class Bank {
      * @param option the doAction option to execute on the item.
      */
     public static boolean withdraw(InventoryItemQuery query, int option) {
-        setTransferOption(TransferOptionType.ALL);
-        Item item = query.results().first();
-        if (item != null) {
-            ScriptConsole.println("Item: " + item.toString());
-        } else {
-            ScriptConsole.println("Item is null");
-        }
-        return item != null && BANK.interact(item.getSlot(), option);
+        return BankEngine.withdrawFirst(query, option);
     }
 
     /**
@@ -240,10 +150,7 @@ public class Bank {
      * @return True if the item was successfully withdrawn, false otherwise.
      */
     public static boolean withdraw(String itemName, int option) {
-        if (itemName != null && !itemName.isEmpty()) {
-            return withdraw(InventoryItemQuery.newQuery().inventories(95).name(itemName), option);
-        }
-        return false;
+        return BankEngine.withdrawFirst(itemName, option);
     }
 
     /**
@@ -254,10 +161,7 @@ public class Bank {
      * @return True if the item was successfully withdrawn, false otherwise.
      */
     public static boolean withdraw(int itemId, int option) {
-        if (itemId >= 0) {
-            return withdraw(InventoryItemQuery.newQuery().inventories(95).ids(itemId), option);
-        }
-        return false;
+        return BankEngine.withdrawFirst(itemId, option);
     }
 
     /**
@@ -268,10 +172,7 @@ public class Bank {
      * @return true if the item was successfully withdrawn, false otherwise.
      */
     public static boolean withdraw(Pattern pattern, int option) {
-        if (pattern != null) {
-            return withdraw(InventoryItemQuery.newQuery().inventories(95).name(pattern), option);
-        }
-        return false;
+        return BankEngine.withdrawFirst(pattern, option);
     }
 
     /**
@@ -289,7 +190,7 @@ public class Bank {
     }
 
     public static boolean withdrawAll(Pattern pattern) {
-        return withdraw(InventoryItemQuery.newQuery().inventories(95).name(pattern), 1);
+        return withdraw(pattern, 1);
     }
 
     /**
@@ -342,57 +243,31 @@ public class Bank {
     }
 
     public static boolean deposit(PermissiveScript script, Component comp, int option) {
-        setTransferOption(TransferOptionType.ALL);
-        var val = comp != null && comp.interact(option);
-        if (val) script.delayTicks(RandomGenerator.nextInt(1, 2));
-        return val;
+        return await(script, BankEngine.deposit(comp, option), 2);
     }
 
     public static boolean depositAll(PermissiveScript script, String... itemNames) {
-        return !InventoryItemQuery.newQuery(93).name(itemNames).results().stream().map(Item::getId).distinct().map(
-                i -> depositAll(script, ComponentQuery.newQuery(517).item(i))
-        ).toList().contains(false);
+        return depositAllOf(script, InventoryItemQuery.newQuery(93).name(itemNames).results().stream().mapToInt(Item::getId).distinct().toArray());
     }
 
     public static boolean depositAll(PermissiveScript script, int... itemIds) {
-        return !InventoryItemQuery.newQuery(93).ids(itemIds).results().stream().map(Item::getId).distinct().map(
-                i -> depositAll(script, ComponentQuery.newQuery(517).item(i))
-        ).toList().contains(false);
+        return depositAllOf(script, InventoryItemQuery.newQuery(93).ids(itemIds).results().stream().mapToInt(Item::getId).distinct().toArray());
     }
 
     public static boolean depositAll(PermissiveScript script, Pattern... patterns) {
-        return !InventoryItemQuery.newQuery(93).name(patterns).results().stream().map(Item::getId).distinct().map(
-                i -> depositAll(script, ComponentQuery.newQuery(517).item(i))
-        ).toList().contains(false);
+        return depositAllOf(script, Backpack.getItemIds(patterns));
     }
 
     public static boolean depositAllExcept(PermissiveScript script, String... itemNames) {
-        var nameSet = new HashSet<>(Arrays.asList(itemNames));
-        var idMap = Backpack.getItems().stream().filter(i -> Arrays.stream(itemNames).toList().contains(i)).collect(Collectors.toMap(Item::getId, Item::getName));
-        var items = ComponentQuery.newQuery(517).results().stream().filter(
-                        i -> !nameSet.contains(idMap.get(i.getItemId())) && (i.getOptions().contains("Deposit-All") || i.getOptions().contains("Deposit-1")))
-                .map(Component::getItemId)
-                .collect(Collectors.toSet());
-        return !items.stream().map(i -> depositAll(script, ComponentQuery.newQuery(517).item(i))).toList().contains(false);
+        return depositAllOf(script, BankEngine.depositableExcept(itemNames));
     }
 
     public static boolean depositAllExcept(PermissiveScript script, int... ids) {
-        var idSet = Arrays.stream(ids).boxed().collect(Collectors.toSet());
-        var items = ComponentQuery.newQuery(517).results().stream().filter(
-                        i -> !idSet.contains(i.getItemId()) && (i.getOptions().contains("Deposit-All") || i.getOptions().contains("Deposit-1")))
-                .map(Component::getItemId)
-                .collect(Collectors.toSet());
-        return !items.stream().map(i -> depositAll(script, ComponentQuery.newQuery(517).item(i))).toList().contains(false);
+        return depositAllOf(script, BankEngine.depositableExcept(ids));
     }
 
     public static boolean depositAllExcept(PermissiveScript script, Pattern... patterns) {
-        var idMap = Backpack.getItems().stream().filter(i -> i.getName() != null && Arrays.stream(patterns).map(p -> p.matcher(i.getName()).matches()).toList().contains(true))
-                .collect(Collectors.toMap(Item::getId, Item::getName));
-        var items = ComponentQuery.newQuery(517).results().stream().filter(
-                        i -> !idMap.containsKey(i.getItemId()) && (i.getOptions().contains("Deposit-All") || i.getOptions().contains("Deposit-1")))
-                .map(Component::getItemId)
-                .collect(Collectors.toSet());
-        return !items.stream().map(i -> depositAll(script, ComponentQuery.newQuery(517).item(i))).toList().contains(false);
+        return depositAllOf(script, BankEngine.depositableExcept(patterns));
     }
 
     /**
@@ -403,7 +278,7 @@ public class Bank {
      * @return True if the item was successfully deposited, false otherwise.
      */
     public static boolean deposit(PermissiveScript script, int itemId, int option) {
-        return deposit(script, ComponentQuery.newQuery(517).item(itemId), option);
+        return deposit(script, BankEngine.getDepositComponent(itemId), option);
     }
 
     /**
@@ -436,19 +311,8 @@ public class Bank {
      * @return true if the preset was successfully loaded, false otherwise
      * @throws InterruptedException if the thread is interrupted while sleeping
      */
-    // TODO: Update to no longer use MiniMenu.doAction
     public static boolean loadPreset(PermissiveScript script, int presetNumber) {
-        int presetBrowsingValue = VarManager.getVarbitValue(PRESET_BROWSING_VARBIT_ID);
-        if ((presetNumber >= 10 && presetBrowsingValue < 1) || (presetNumber < 10 && presetBrowsingValue > 0)) {
-            MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, 100, 33882231);
-            script.delayTicks(RandomGenerator.nextInt(1, 2));
-        }
-        var result = MiniMenu.interact(ComponentAction.COMPONENT.getType(), 1, ((presetNumber - 1) % 9) + 1,
-                33882231);//presetComp != null && presetComp.interact("Load");
-        if (result) {
-            previousLoadedPreset = presetNumber;
-        }
-        return result;
+        return await(script, BankEngine.loadPreset(presetNumber), 2);
     }
 
     /**
@@ -459,8 +323,7 @@ public class Bank {
      * @return The value of the varbit.
      */
     public static int getVarbitValue(int slot, int varbitId) {
-        var item = InventoryItemQuery.newQuery(95).slots(slot).results().first();
-        return item != null ? item.getVarbitValue(varbitId) : Integer.MIN_VALUE;
+        return BANK.getVarbitValue(slot, varbitId);
     }
 
     public static boolean setTransferOption(TransferOptionType transferoptionType) {
@@ -469,7 +332,23 @@ public class Bank {
     }
 
     public static int getPreviousLoadedPreset() {
-        return previousLoadedPreset;
+        return BankEngine.getPreviousLoadedPreset();
+    }
+
+    private static boolean depositAllOf(PermissiveScript script, int[] itemIds) {
+        return await(script, BankEngine.depositAll(itemIds), itemIds.length * 2 + 1);
+    }
+
+    /**
+     * Delays the script until the operation finishes, leaving it to run from the game tick.
+     *
+     * @return false if the operation has already failed or timed out
+     */
+    private static boolean await(PermissiveScript script, BankOperation operation, int timeoutTicks) {
+        if (!operation.isDone()) {
+            script.delayUntil(operation::isDone, timeoutTicks);
+        }
+        return !operation.isDone() || operation.isSuccessful();
     }
 
 }
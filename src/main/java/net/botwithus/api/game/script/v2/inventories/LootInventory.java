@@ -1,6 +1,8 @@
 package net.botwithus.api.game.script.v2.inventories;
 
+import net.botwithus.api.game.hud.inventories.ComponentIndex;
 import net.botwithus.api.game.hud.inventories.Inventory;
+import net.botwithus.api.game.hud.inventories.PatternMatchCache;
 import net.botwithus.api.game.script.v2.base.DelayableScript;
 import net.botwithus.rs3.game.Item;
 import net.botwithus.rs3.game.hud.interfaces.Component;
@@ -23,6 +25,7 @@ public final class LootInventory {
     private static final int LOOT_INTERFACE = 1622;
     private static final int LOOT_VARP = 5413;
     private static final int INVENTORY_ID = 773;
+    private static final ComponentIndex LOOT_COMPONENTS = ComponentIndex.of(LOOT_INTERFACE, -1, INVENTORY_ID);
     private static final Pattern ALL_PATTERN = Pattern.compile("^(.*)$");
     static final Inventory LOOT_INVENTORY = new Inventory(INVENTORY_ID, LOOT_INTERFACE, 5, i -> i + 1);
 
@@ -95,9 +98,9 @@ public final class LootInventory {
      * @param ids the ids to check the items against
      * @return true if at least one item doesn't match the ids
      */
-//    public static boolean containsAnyExcept(final int... ids) {
-//        return LOOT_INVENTORY.containsAnyExcept(ids);
-//    }
+    public static boolean containsAnyExcept(final int... ids) {
+        return LOOT_INVENTORY.containsAnyExcept(ids);
+    }
 
     /**
      * Checks if any items don't match the given names
@@ -169,7 +172,7 @@ public final class LootInventory {
     }
 
     public static List<Item> getItems(Pattern namePattern) {
-        return getItems().stream().filter(item -> namePattern.matcher(item.getName()).find()).toList();
+        return getItems().stream().filter(PatternMatchCache.FIND.predicate(namePattern)).toList();
     }
 
     public static List<Item> getItems(String... names) {
@@ -224,7 +227,7 @@ public final class LootInventory {
             return false;
         }
         int quantity = getQuantity(item.getId());
-        var itemComp = ComponentQuery.newQuery(LOOT_INTERFACE).item(item.getId()).results().first();
+        var itemComp = LOOT_COMPONENTS.forItem(item.getId());
         var result = itemComp != null && itemComp.interact(1);
         if (result)
             script.delayUntil(() -> quantity != getQuantity(item.getId()), 3);
@@ -1,6 +1,8 @@
 package net.botwithus.api.game.script.v2.nav;
 
 import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.navigation.Traversal;
+import net.botwithus.api.game.navigation.TraversalEngine;
 import net.botwithus.api.game.script.v2.permissive.base.PermissiveScript;
 import net.botwithus.rs3.game.Area;
 import net.botwithus.rs3.game.Client;
@@ -8,11 +10,15 @@ import net.botwithus.rs3.game.Coordinate;
 import net.botwithus.rs3.game.Distance;
 import net.botwithus.rs3.game.minimenu.MiniMenu;
 import net.botwithus.rs3.game.minimenu.actions.WalkAction;
-import net.botwithus.rs3.game.movement.Movement;
-import net.botwithus.rs3.game.movement.NavPath;
-import net.botwithus.rs3.game.movement.TraverseEvent;
 import net.botwithus.rs3.util.RandomGenerator;
 
+/**
+ * Walking helpers for {@link PermissiveScript}s, logging through {@link PermissiveScript#debug(String)}.
+ * <p>
+ * {@link #to(PermissiveScript, Coordinate)} and the {@code navPathTraverse} methods advance a {@link Traversal} by one
+ * step per call through {@link TraversalEngine}, so calling them every tick with the same destination follows one
+ * planned route instead of resolving it again each time.
+ */
 public class Traverse {
 
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
@@ -22,36 +28,11 @@ public class Traverse {
     }
 
     public static boolean to(PermissiveScript script, Coordinate coordinate, int stepSize) {
-        var player = Client.getLocalPlayer();
-        if (player == null) {
-            script.debug("[Traversev2#to]: Player is null");
-            return false;
-        }
-
-        var pCoord = player.getCoordinate();
-        if (pCoord != null && (pCoord.getX() > 6400 || pCoord.getY() > 12800)) {
-            script.debug("[Traversev2#to]: Player is in an instance, attempting to walk to: " + coordinate.getX() + " | " + coordinate.getY());
-            return bresenhamWalkTo(script, coordinate, true, stepSize);
-        }
-        TraverseEvent.State webMovement;
-        script.debug("[Traversev2#to]: Player is not in an instance, attempting to walk to " + coordinate.getX() + " | " + coordinate.getY() + " | " + (webMovement = Movement.traverse(NavPath.resolve(coordinate))));
-
-        if (webMovement == null || webMovement == TraverseEvent.State.FAILED || webMovement == TraverseEvent.State.NO_PATH) {
-            script.debug("[Traverse#to]: WebMovement failed, attempting to walk to via bresenham: " + coordinate.getX() + " | " + coordinate.getY());
-            return bresenhamWalkTo(script, coordinate, true, stepSize);
-        }
-
-        script.debug("[Traversev2#to]: Traversal failed.");
-        return false;
+        return TraversalEngine.traverse(Traversal.to(coordinate).flags(0).stepSize(stepSize).logger(script::debug));
     }
 
     public static boolean to(PermissiveScript script, Area area) {
-        var coordinate = area.getRandomWalkableCoordinate();
-        if (coordinate == null || (coordinate.getX() == 0 && coordinate.getY() == 0)) {
-            script.debug("[Traversev2#to]: Area#getRandomWalkableCoordinate returned null or (0, 0), picking a random coordinate");
-            coordinate = area.getRandomCoordinate();
-        }
-        return to(script, coordinate);
+        return TraversalEngine.traverse(Traversal.to(area).flags(0).logger(script::debug));
     }
 
     public static boolean bresenhamWalkTo(PermissiveScript script, Coordinate coordinate, boolean minimap, int stepSize) {
@@ -100,28 +81,11 @@ public class Traverse {
      * @return true if navigation was successful, false if failed
      */
     public static boolean navPathTraverse(PermissiveScript script, Coordinate coordinate, int flags, Area... blockedAreas) {
-        var player = Client.getLocalPlayer();
-        if (player == null) {
-            script.debug("[Traversev2#navPathTraverse]: Player is null");
-            return false;
-        }
-
-        if (coordinate == null || (coordinate.getX() == 0 && coordinate.getY() == 0)) {
+        if (coordinate == null) {
             script.debug("[Traversev2#navPathTraverse]: Coordinate is null or (0, 0)");
             return false;
         }
-
-        NavPath path = NavPath.resolve(coordinate, flags, blockedAreas);
-        TraverseEvent.State moveState = Movement.traverse(path);
-
-        script.debug("[Traversev2#navPathTraverse]: Attempting to walk to " + coordinate.getX() + " | " + coordinate.getY() + " | " + moveState);
-
-        if (moveState == null || moveState == TraverseEvent.State.FAILED || moveState == TraverseEvent.State.NO_PATH) {
-            script.debug("[Traversev2#navPathTraverse]: NavPath failed, attempting Bresenham fallback");
-            return bresenhamWalkTo(script, coordinate, true, RandomGenerator.nextInt(12, 20));
-        }
-
-        return moveState == TraverseEvent.State.FINISHED || moveState == TraverseEvent.State.IDLE || moveState == TraverseEvent.State.CONTINUE;
+        return TraversalEngine.traverse(Traversal.to(coordinate).flags(flags).avoid(blockedAreas).logger(script::debug));
     }
 
     /**
@@ -146,12 +110,7 @@ public class Traverse {
      * @return true if navigation was successful, false if failed
      */
     public static boolean navPathTraverse(PermissiveScript script, Area area, int flags, Area... blockedAreas) {
-        var coordinate = area.getRandomWalkableCoordinate();
-        if (coordinate == null || (coordinate.getX() == 0 && coordinate.getY() == 0)) {
-            script.debug("[Traversev2#navPathTraverse]: Area not mapped, using random coordinate");
-            coordinate = area.getRandomCoordinate();
-        }
-        return navPathTraverse(script, coordinate, flags, blockedAreas);
+        return TraversalEngine.traverse(Traversal.to(area).flags(flags).avoid(blockedAreas).logger(script::debug));
     }
 
     /**
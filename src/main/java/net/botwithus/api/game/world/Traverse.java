@@ -1,57 +1,53 @@
 package net.botwithus.api.game.world;
 
 import com.google.common.flogger.FluentLogger;
+import net.botwithus.api.game.navigation.MovementMonitor;
+import net.botwithus.api.game.navigation.Traversal;
+import net.botwithus.api.game.navigation.TraversalEngine;
 import net.botwithus.rs3.game.Client;
 import net.botwithus.rs3.game.Distance;
 import net.botwithus.rs3.game.minimenu.MiniMenu;
 import net.botwithus.rs3.game.minimenu.actions.WalkAction;
-import net.botwithus.rs3.game.movement.Movement;
-import net.botwithus.rs3.game.movement.NavPath;
-import net.botwithus.rs3.game.movement.TraverseEvent;
 import net.botwithus.rs3.script.Execution;
 import net.botwithus.rs3.script.ScriptConsole;
 import net.botwithus.rs3.util.RandomGenerator;
 import net.botwithus.rs3.game.Area;
 import net.botwithus.rs3.game.Coordinate;
 
+/**
+ * Walking helpers for blocking scripts.
+ * <p>
+ * {@link #to(Coordinate)} and the {@code navPathTraverse} methods advance a {@link Traversal} by one step per call
+ * through {@link TraversalEngine}, so calling them every loop with the same destination follows one planned route
+ * instead of resolving it again each time. {@link #bresenhamWalkTo(Coordinate, boolean, int)} watches repeated calls for
+ * the same coordinate and stops clicking once the player stops getting closer.
+ */
 public class Traverse {
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static MovementMonitor bresenhamMonitor;
+    private static Coordinate bresenhamTarget;
 
     public static boolean to(Coordinate coordinate) {
         return to(coordinate, RandomGenerator.nextInt(12, 20));
     }
 
     public static boolean to(Coordinate coordinate, int stepSize) {
-        var player = Client.getLocalPlayer();
-        if (player == null) {
-            ScriptConsole.println("[Traverse#to]: Player is null");
-            return false;
-        }
-
-        var pCoord = player.getCoordinate();
-        if (pCoord != null && (pCoord.getX() > 6400 || pCoord.getY() > 12800)) {
-            ScriptConsole.println("[Traverse#to]: Player is in an instance, attempting to walk to %s, %s", coordinate.getX(), coordinate.getY());
-            return Traverse.bresenhamWalkTo(coordinate, true, stepSize);
-        }
-        TraverseEvent.State webMovement;
-        ScriptConsole.println("[Traverse#to]: Player is not in an instance, attempting to walk to %s, %s | %s", coordinate.getX(), coordinate.getY(), webMovement = Movement.traverse(NavPath.resolve(coordinate)));
-
-        if (webMovement == null || webMovement == TraverseEvent.State.FAILED || webMovement == TraverseEvent.State.NO_PATH) {
-            ScriptConsole.println("[Traverse#to]: WebMovement failed, attempting to walk to via bresenham %s, %s", coordinate.getX(), coordinate.getY());
-            return Traverse.bresenhamWalkTo(coordinate, true, stepSize);
-        }
-
-        ScriptConsole.println("[Traverse#to]: Traversal failed.");
-        return false;
+        return TraversalEngine.traverse(Traversal.to(coordinate).flags(0).stepSize(stepSize));
     }
 
     public static boolean to(Area area) {
-        var coordinate = area.getRandomWalkableCoordinate();
-        if (coordinate == null || (coordinate.getX() == 0 && coordinate.getY() == 0)) {
-            ScriptConsole.println("[Traverse#to]: Area#getRandomWalkableCoordinate returned null or (0, 0), picking a random coordinate");
-            coordinate = area.getRandomCoordinate();
-        }
-        return to(coordinate);
+        return TraversalEngine.traverse(Traversal.to(area).flags(0));
+    }
+
+    /**
+     * Travels to a coordinate by whichever mix of lodestones, registered transports and walking the
+     * {@link net.botwithus.api.game.navigation.RoutePlanner} expects to be fastest.
+     *
+     * @param coordinate the destination
+     * @return false if the player is stuck or cannot be found, true otherwise
+     */
+    public static boolean fastestTo(Coordinate coordinate) {
+        return TraversalEngine.traverse(Traversal.to(coordinate).routing(true));
     }
 
     public static boolean bresenhamWalkTo(Coordinate coordinate, boolean minimap, int stepSize) {
@@ -61,6 +57,11 @@ public class Traverse {
             return false;
         } else {
             Coordinate currentCoordinate = player.getCoordinate();
+            var stuck = checkBresenham(coordinate, currentCoordinate, player.isMoving());
+            if (stuck != null) {
+                ScriptConsole.println("[Traverse#bresenhamWalkTo]: Stuck (%s) walking to %s, %s, not clicking again", stuck, coordinate.getX(), coordinate.getY());
+                return false;
+            }
             int dx = coordinate.getX() - currentCoordinate.getX();
             int dy = coordinate.getY() - currentCoordinate.getY();
             int distance = (int)Math.hypot(dx, dy);
@@ -78,6 +79,28 @@ public class Traverse {
         }
     }
 
+    /**
+     * Feeds a straight walk to its monitor, starting a new one when the coordinate changes.
+     *
+     * @return why the walk is stuck, or null if it is not
+     */
+    private static synchronized MovementMonitor.Reason checkBresenham(Coordinate coordinate, Coordinate position, boolean moving) {
+        if (bresenhamMonitor == null || !coordinate.equals(bresenhamTarget)) {
+            if (bresenhamMonitor != null) {
+                bresenhamMonitor.finish();
+            }
+            bresenhamMonitor = new MovementMonitor();
+            bresenhamTarget = coordinate;
+        }
+        bresenhamMonitor.record(position, coordinate.distanceTo(position), moving);
+        var reason = bresenhamMonitor.check();
+        if (reason != null) {
+            // Leave it to the caller to plan a way round, and give it a fresh window to do so
+            bresenhamMonitor.recovering(MovementMonitor.Recovery.REPLAN);
+        }
+        return reason;
+    }
+
     public static boolean walkTo(Coordinate coordinate, boolean minimap) {
         if (coordinate == null) {
             ScriptConsole.println("[Traverse#walkTo]: Coordinate is null");
@@ -100,58 +123,7 @@ public class Traverse {
      * @return true if navigation was successful or destination reached, false if failed
      */
     public static boolean navPathTraverse(Coordinate location, boolean useDive, boolean useSurge, boolean disableTeleports, int destinationDistance, int teleportDistance) {
-        var player = Client.getLocalPlayer();
-        if (player == null) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Player is null");
-            return false;
-        }
-
-        if (location == null || (location.getX() == 0 && location.getY() == 0)) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Location is null or (0, 0) - area may not be mapped by NavPath");
-            return false;
-        }
-
-        double distance = location.distanceTo(player.getCoordinate());
-        if (distance <= destinationDistance) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Already at destination (distance: %.1f)", distance);
-            return true;
-        }
-
-        int flags = 0;
-        if (!useDive) {
-            flags |= Movement.DISABLE_DIVE;
-        }
-
-        if (useSurge) {
-            flags |= Movement.ENABLE_SURGE;
-        }
-
-        // Disable teleports if requested or if location is close
-        if (disableTeleports || (distance < teleportDistance && location.isWalkable())) {
-            flags |= Movement.DISABLE_TELEPORTS;
-        }
-
-        NavPath path = NavPath.resolve(location, flags)
-                .interrupt(event -> location.isReachable() && location.distanceTo(player.getCoordinate()) <= destinationDistance);
-
-        TraverseEvent.State moveState = Movement.traverse(path);
-
-        switch (moveState) {
-            case IDLE:
-            case CONTINUE:
-            case FINISHED:
-                ScriptConsole.println("[Traverse#navPathTraverse]: Movement successful");
-                return true;
-            case INTERRUPTED:
-                ScriptConsole.println("[Traverse#navPathTraverse]: Movement interrupted, but destination is reachable");
-                return true;
-            case NO_PATH:
-                ScriptConsole.println("[Traverse#navPathTraverse]: NavPath can't resolve the path, attempting Bresenham fallback");
-                return Traverse.bresenhamWalkTo(location, true, RandomGenerator.nextInt(12, 20));
-            default:
-                ScriptConsole.println("[Traverse#navPathTraverse]: Failed to move");
-                return false;
-        }
+        return navPathTraverse(location, useDive, useSurge, disableTeleports, destinationDistance, teleportDistance, new Area[0]);
     }
 
     /**
@@ -192,7 +164,8 @@ public class Traverse {
 
     /**
      * Traverses to an area using NavPath with configurable movement abilities and distance thresholds.
-     * Handles unmapped areas by falling back to getRandomCoordinate() when getRandomWalkableCoordinate() returns (0, 0).
+     * Picks a walkable tile of the area with {@link net.botwithus.api.game.navigation.WalkableTiles} when it is in the loaded
+     * scene, and handles unmapped areas by falling back to getRandomCoordinate() when getRandomWalkableCoordinate() returns (0, 0).
      *
      * @param area the target area to navigate to
      * @param useDive whether to enable diving ability during traversal
@@ -203,18 +176,7 @@ public class Traverse {
      * @return true if navigation was successful or destination reached, false if failed
      */
     public static boolean navPathTraverse(Area area, boolean useDive, boolean useSurge, boolean disableTeleports, int destinationDistance, int teleportDistance) {
-        var coordinate = area.getRandomWalkableCoordinate();
-        if (coordinate == null || (coordinate.getX() == 0 && coordinate.getY() == 0)) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Area not mapped by NavPath, using random coordinate for Bresenham fallback");
-            coordinate = area.getRandomCoordinate();
-            if (coordinate == null) {
-                ScriptConsole.println("[Traverse#navPathTraverse]: Failed to get any coordinate from area");
-                return false;
-            }
-            // Area isn't mapped, skip NavPath and go straight to Bresenham
-            return bresenhamWalkTo(coordinate, true, RandomGenerator.nextInt(12, 20));
-        }
-        return navPathTraverse(coordinate, useDive, useSurge, disableTeleports, destinationDistance, teleportDistance);
+        return navPathTraverse(area, useDive, useSurge, disableTeleports, destinationDistance, teleportDistance, new Area[0]);
     }
 
     /**
@@ -241,58 +203,12 @@ public class Traverse {
      * @return true if navigation was successful or destination reached, false if failed
      */
     public static boolean navPathTraverse(Coordinate location, boolean useDive, boolean useSurge, boolean disableTeleports, int destinationDistance, int teleportDistance, Area... blockedAreas) {
-        var player = Client.getLocalPlayer();
-        if (player == null) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Player is null");
-            return false;
-        }
-
-        if (location == null || (location.getX() == 0 && location.getY() == 0)) {
+        if (location == null) {
             ScriptConsole.println("[Traverse#navPathTraverse]: Location is null or (0, 0) - area may not be mapped by NavPath");
             return false;
         }
-
-        double distance = location.distanceTo(player.getCoordinate());
-        if (distance <= destinationDistance) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Already at destination (distance: %.1f)", distance);
-            return true;
-        }
-
-        int flags = 0;
-        if (!useDive) {
-            flags |= Movement.DISABLE_DIVE;
-        }
-
-        if (useSurge) {
-            flags |= Movement.ENABLE_SURGE;
-        }
-
-        // Disable teleports if requested or if location is close
-        if (disableTeleports || (distance < teleportDistance && location.isWalkable())) {
-            flags |= Movement.DISABLE_TELEPORTS;
-        }
-
-        NavPath path = NavPath.resolve(location, flags, blockedAreas)
-                .interrupt(event -> location.isReachable() && location.distanceTo(player.getCoordinate()) <= destinationDistance);
-
-        TraverseEvent.State moveState = Movement.traverse(path);
-
-        switch (moveState) {
-            case IDLE:
-            case CONTINUE:
-            case FINISHED:
-                ScriptConsole.println("[Traverse#navPathTraverse]: Movement successful");
-                return true;
-            case INTERRUPTED:
-                ScriptConsole.println("[Traverse#navPathTraverse]: Movement interrupted, but destination is reachable");
-                return true;
-            case NO_PATH:
-                ScriptConsole.println("[Traverse#navPathTraverse]: NavPath can't resolve the path, attempting Bresenham fallback");
-                return Traverse.bresenhamWalkTo(location, true, RandomGenerator.nextInt(12, 20));
-            default:
-                ScriptConsole.println("[Traverse#navPathTraverse]: Failed to move");
-                return false;
-        }
+        return TraversalEngine.traverse(Traversal.to(location).dive(useDive).surge(useSurge).teleports(!disableTeleports)
+                .destinationDistance(destinationDistance).teleportDistance(teleportDistance).avoid(blockedAreas));
     }
 
     /**
@@ -333,18 +249,8 @@ public class Traverse {
      * @return true if navigation was successful or destination reached, false if failed
      */
     public static boolean navPathTraverse(Area area, boolean useDive, boolean useSurge, boolean disableTeleports, int destinationDistance, int teleportDistance, Area... blockedAreas) {
-        var coordinate = area.getRandomWalkableCoordinate();
-        if (coordinate == null || (coordinate.getX() == 0 && coordinate.getY() == 0)) {
-            ScriptConsole.println("[Traverse#navPathTraverse]: Area not mapped by NavPath, using random coordinate for Bresenham fallback");
-            coordinate = area.getRandomCoordinate();
-            if (coordinate == null) {
-                ScriptConsole.println("[Traverse#navPathTraverse]: Failed to get any coordinate from area");
-                return false;
-            }
-            // Area isn't mapped, skip NavPath and go straight to Bresenham
-            return bresenhamWalkTo(coordinate, true, RandomGenerator.nextInt(12, 20));
-        }
-        return navPathTraverse(coordinate, useDive, useSurge, disableTeleports, destinationDistance, teleportDistance, blockedAreas);
+        return TraversalEngine.traverse(Traversal.to(area).dive(useDive).surge(useSurge).teleports(!disableTeleports)
+                .destinationDistance(destinationDistance).teleportDistance(teleportDistance).avoid(blockedAreas));
     }
 
     /**
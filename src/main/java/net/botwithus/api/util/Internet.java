@@ -2,13 +2,32 @@ package net.botwithus.api.util;
 
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
+/**
+ * GET requests over one shared {@link HttpClient}, so connections are kept alive and reused between requests.
+ * Responses are requested gzipped and decoded transparently.
+ */
 public class Internet {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
 
     /**
      * Sends a GET request to the specified address and returns the response as a String.
@@ -18,17 +37,69 @@ public class Internet {
      * @throws IOException if an exception is thrown while establishing the connection or performing the GET request
      */
     public static String get(String address) throws IOException {
-        StringBuilder result = new StringBuilder();
-        URL url = URI.create(address).toURL();
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        try (BufferedReader rd = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-            String line;
-            while ((line = rd.readLine()) != null) {
-                result.append(line);
+        try (InputStream in = open(address)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Sends a GET request to the specified address without blocking.
+     *
+     * @param address the ip address or domain name to perform a GET request on
+     * @return the response as a String, completed exceptionally with an {@link UncheckedIOException} if the request
+     * fails
+     */
+    public static CompletableFuture<String> getAsync(String address) {
+        return CLIENT.sendAsync(request(address), HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            try (InputStream in = decode(response, new ByteArrayInputStream(response.body()))) {
+                return read(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } finally {
-            conn.disconnect();
+        });
+    }
+
+    /**
+     * Sends a GET request to the specified address and returns the decoded body as it arrives, so it can be parsed
+     * without holding the whole response in memory. The stream must be closed.
+     *
+     * @param address the ip address or domain name to perform a GET request on
+     * @return the response body
+     * @throws IOException if the request fails or the server answers with an error status
+     */
+    public static InputStream open(String address) throws IOException {
+        try {
+            var response = CLIENT.send(request(address), HttpResponse.BodyHandlers.ofInputStream());
+            return decode(response, response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + address);
+        }
+    }
+
+    private static HttpRequest request(String address) {
+        return HttpRequest.newBuilder(URI.create(address))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private static InputStream decode(HttpResponse<?> response, InputStream body) throws IOException {
+        if (response.statusCode() >= 400) {
+            body.close();
+            throw new IOException("Server returned HTTP response code: " + response.statusCode() + " for URL: " + response.uri());
+        }
+        boolean gzip = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        return gzip ? new GZIPInputStream(body) : body;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        StringBuilder result = new StringBuilder();
+        BufferedReader rd = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = rd.readLine()) != null) {
+            result.append(line);
         }
         return result.toString();
     }
@@ -0,0 +1,135 @@
+package net.botwithus.api.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from {@code int} to {@code int} that never boxes.
+ */
+public class IntIntMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[indexOf(key)];
+    }
+
+    /**
+     * Gets the value mapped to the key.
+     *
+     * @param key          the key
+     * @param defaultValue the value to return if the key is absent
+     * @return the mapped value, or {@code defaultValue}
+     */
+    public int get(int key, int defaultValue) {
+        int index = indexOf(key);
+        return used[index] ? values[index] : defaultValue;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the key was not mapped before
+     */
+    public boolean put(int key, int value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            values[index] = value;
+            return false;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the key, shifting later entries of the same probe run back so lookups keep working.
+     *
+     * @param key the key
+     * @return true if the key was mapped
+     */
+    public boolean remove(int key) {
+        int hole = indexOf(key);
+        if (!used[hole]) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int next = (hole + 1) & mask;
+        while (used[next]) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[hole] = false;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+        used = new boolean[oldKeys.length << 1];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
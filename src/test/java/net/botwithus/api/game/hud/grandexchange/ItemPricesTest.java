@@ -0,0 +1,125 @@
+package net.botwithus.api.game.hud.grandexchange;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemPricesTest {
+    private static final int RUNE_BAR = 2363;
+    private static final int YEW_LOGS = 1515;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void open() {
+        ItemPrices.setDirectory(directory);
+        ItemPrices.setTtlMillis(10 * 60_000);
+        ItemPrices.setCacheCapacity(2048);
+    }
+
+    @AfterEach
+    void close() {
+        ItemPrices.close();
+    }
+
+    @Test
+    void keepsTheLatestPriceAndTheMedianOfTheWindow() {
+        assertFalse(ItemPrices.contains(RUNE_BAR));
+        assertEquals(-1, ItemPrices.getLatest(RUNE_BAR));
+        assertEquals(0, ItemPrices.getValue(RUNE_BAR, 10));
+
+        ItemPrices.record(RUNE_BAR, 100, ItemPrices.Source.MANUAL);
+        ItemPrices.record(RUNE_BAR, 1000, ItemPrices.Source.MANUAL);
+        ItemPrices.record(RUNE_BAR, 110, ItemPrices.Source.MANUAL);
+        ItemPrices.record(RUNE_BAR, 120, ItemPrices.Source.MANUAL);
+        ItemPrices.record(RUNE_BAR, 0, ItemPrices.Source.MANUAL);
+
+        assertEquals(120, ItemPrices.getLatest(RUNE_BAR));
+        assertEquals(115, ItemPrices.getMedian(RUNE_BAR));
+        assertEquals(345, ItemPrices.getValue(RUNE_BAR, 3));
+
+        // Only the last 15 prices count
+        for (int price = 1; price <= 20; price++) {
+            ItemPrices.record(YEW_LOGS, price, ItemPrices.Source.GUIDE);
+        }
+        assertEquals(20, ItemPrices.getLatest(YEW_LOGS));
+        assertEquals(13, ItemPrices.getMedian(YEW_LOGS));
+    }
+
+    @Test
+    void readsPricesBackFromTheFile() {
+        for (int price = 1; price <= 20; price++) {
+            ItemPrices.record(YEW_LOGS, price, ItemPrices.Source.GUIDE);
+        }
+        ItemPrices.record(RUNE_BAR, 5000, ItemPrices.Source.GRAND_EXCHANGE);
+        ItemPrices.setDirectory(directory);
+
+        assertEquals(20, ItemPrices.getLatest(YEW_LOGS));
+        assertEquals(13, ItemPrices.getMedian(YEW_LOGS));
+        assertEquals(5000, ItemPrices.getLatest(RUNE_BAR));
+
+        // Items dropped from a small cache are read again from the log
+        ItemPrices.setCacheCapacity(1);
+        assertEquals(13, ItemPrices.getMedian(YEW_LOGS));
+        assertEquals(5000, ItemPrices.getMedian(RUNE_BAR));
+        assertEquals(20, ItemPrices.getLatest(YEW_LOGS));
+    }
+
+    @Test
+    void compactsALongLogToTheLastWindowOfEachItem() throws IOException {
+        int prices = (1 << 16) + 1000;
+        for (int i = 0; i < prices; i++) {
+            ItemPrices.record(i % 2 == 0 ? RUNE_BAR : YEW_LOGS, 1 + i % 100, ItemPrices.Source.IMPORT);
+        }
+        ItemPrices.close();
+
+        assertTrue(Files.size(directory.resolve("prices.bin")) < 2000L * 24, "file was not compacted");
+        ItemPrices.setDirectory(directory);
+        assertEquals(1 + (prices - 2) % 100, ItemPrices.getLatest(RUNE_BAR));
+        assertEquals(1 + (prices - 1) % 100, ItemPrices.getLatest(YEW_LOGS));
+    }
+
+    @Test
+    void movesAsideAFileWithAnUnknownFormat() throws IOException {
+        ItemPrices.close();
+        Files.write(directory.resolve("prices.bin"), new byte[64]);
+
+        assertEquals(-1, ItemPrices.getLatest(RUNE_BAR));
+        assertTrue(Files.exists(directory.resolve("prices.bin.bad")));
+
+        ItemPrices.record(RUNE_BAR, 5000, ItemPrices.Source.MANUAL);
+        ItemPrices.setDirectory(directory);
+        assertEquals(5000, ItemPrices.getLatest(RUNE_BAR));
+    }
+
+    @Test
+    void keepsPricesInMemoryWhileTheFileIsLockedElsewhere() throws IOException {
+        ItemPrices.record(RUNE_BAR, 100, ItemPrices.Source.MANUAL);
+        ItemPrices.close();
+
+        try (var other = FileChannel.open(directory.resolve("prices.bin"), StandardOpenOption.WRITE);
+             var ignored = other.lock()) {
+            ItemPrices.record(RUNE_BAR, 200, ItemPrices.Source.MANUAL);
+            assertEquals(200, ItemPrices.getLatest(RUNE_BAR));
+            assertEquals(150, ItemPrices.getMedian(RUNE_BAR));
+
+            // Expired entries are read back from memory with the new price, not from the file without it
+            ItemPrices.setTtlMillis(-1);
+            assertEquals(150, ItemPrices.getMedian(RUNE_BAR));
+            ItemPrices.close();
+        }
+
+        ItemPrices.setDirectory(directory);
+        assertEquals(100, ItemPrices.getLatest(RUNE_BAR));
+    }
+}
@@ -0,0 +1,57 @@
+package net.botwithus.api.game.hud.grandexchange;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepricePolicyTest {
+
+    @Test
+    void neverMovesThePrice() {
+        var order = GrandExchangeOrder.buy(440, 100, 150);
+
+        assertEquals(150, RepricePolicy.never().reprice(order, Long.MAX_VALUE));
+    }
+
+    @Test
+    void stepsBuyOffersUpAndSellOffersDown() {
+        var policy = RepricePolicy.step(100, 5, 3);
+
+        var buy = GrandExchangeOrder.buy(440, 100, 200);
+        assertEquals(200, policy.reprice(buy, 99));
+        assertEquals(210, policy.reprice(buy, 100));
+
+        var sell = GrandExchangeOrder.sell(440, 100, 200);
+        assertEquals(200, policy.reprice(sell, 99));
+        assertEquals(190, policy.reprice(sell, 100));
+    }
+
+    @Test
+    void movesCheapItemsByAtLeastOneCoin() {
+        var policy = RepricePolicy.step(0, 5, 3);
+
+        assertEquals(11, policy.reprice(GrandExchangeOrder.buy(440, 1, 10), 0));
+        assertEquals(9, policy.reprice(GrandExchangeOrder.sell(440, 1, 10), 0));
+        // A sell offer never drops below 1 coin
+        assertEquals(1, policy.reprice(GrandExchangeOrder.sell(440, 1, 1), 0));
+        // A buy offer never overflows
+        assertEquals(Integer.MAX_VALUE, policy.reprice(GrandExchangeOrder.buy(440, 1, Integer.MAX_VALUE - 1), 0));
+    }
+
+    @Test
+    void stopsAfterTheLastStep() {
+        var policy = RepricePolicy.step(0, 10, 2);
+        var order = GrandExchangeOrder.buy(440, 10, 100);
+
+        for (int step = 0; step < 2; step++) {
+            int price = policy.reprice(order, 0);
+            assertTrue(price > order.getPrice());
+            order.requestPrice(price);
+            order.released();
+        }
+
+        assertEquals(2, order.getRepriceCount());
+        assertEquals(121, order.getPrice());
+        assertEquals(121, policy.reprice(order, 1_000));
+    }
+}
@@ -0,0 +1,61 @@
+package net.botwithus.api.game.hud.inventories;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryIndexTest {
+
+    @Test
+    void indexesSlotsByItemId() {
+        var snapshot = InventorySnapshot.of(93, 0,
+                new int[]{995, -1, 440, 440, -1, 453, 440},
+                new int[]{1000, 0, 1, 1, 0, 5, 1});
+        var index = snapshot.getIndex();
+
+        assertSame(index, snapshot.getIndex());
+        assertEquals(4, index.entryCount());
+        assertEquals(5, index.occupiedCount());
+        assertEquals(995, index.entryId(0));
+        assertEquals(2, index.entrySlot(2));
+
+        assertTrue(index.contains(440));
+        assertTrue(index.contains(-1));
+        assertFalse(index.contains(1511));
+        assertEquals(2, index.firstSlot(440));
+        assertEquals(-1, index.firstSlot(1511));
+        assertEquals(3, index.slotCount(440));
+        assertEquals(0, index.slotCount(1511));
+        assertTrue(index.isInSlot(453, 5));
+        assertFalse(index.isInSlot(453, 6));
+        assertFalse(index.isInSlot(453, 40));
+    }
+
+    @Test
+    void answersQueriesOverSeveralIds() {
+        var index = InventorySnapshot.of(93, 0, new int[]{-1, 440, 453, 440, 995}, new int[]{0, 1, 1, 1, 50}).getIndex();
+
+        assertTrue(index.containsAny(1511, 453));
+        assertFalse(index.containsAny(1511, 1513));
+        assertTrue(index.containsAll(440, 453));
+        assertFalse(index.containsAll(440, 1511));
+        assertEquals(1, index.firstSlotOfAny(1511, 453, 440));
+        assertEquals(-1, index.firstSlotOfAny(1511));
+        // Repeated ids are counted once
+        assertEquals(3, index.slotCountOfAny(440, 453, 440));
+        assertTrue(index.containsAnyExcept(440, 453));
+        assertFalse(index.containsAnyExcept(440, 453, 995));
+        assertFalse(index.containsAnyExcept(440, 453, 995, -1));
+    }
+
+    @Test
+    void indexesAnEmptyInventory() {
+        var index = InventorySnapshot.of(93, 0, new int[0], new int[0]).getIndex();
+
+        assertEquals(0, index.entryCount());
+        assertEquals(0, index.occupiedCount());
+        assertFalse(index.contains(-1));
+        assertEquals(-1, index.firstSlotOfAny(995));
+        assertFalse(index.containsAnyExcept());
+    }
+}
@@ -0,0 +1,65 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Area;
+import net.botwithus.rs3.game.Coordinate;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockedAreaIndexTest {
+
+    @Test
+    void reusesTheIndexOfTheSameAreas() {
+        var area = new Area.Rectangular(new Coordinate(3200, 3200, 0), new Coordinate(3204, 3204, 0));
+
+        assertSame(BlockedAreaIndex.EMPTY, BlockedAreaIndex.of());
+        assertSame(BlockedAreaIndex.EMPTY, BlockedAreaIndex.of((Area[]) null));
+        assertSame(BlockedAreaIndex.of(area), BlockedAreaIndex.of(area));
+        assertTrue(BlockedAreaIndex.EMPTY.isEmpty());
+        assertFalse(BlockedAreaIndex.EMPTY.isBlocked(3200, 3200, 0));
+    }
+
+    @Test
+    void blocksEveryTileOfItsAreasOnce() {
+        // Two overlapping areas, the second crossing a region boundary at x = 3264
+        var index = BlockedAreaIndex.of(
+                new Area.Rectangular(new Coordinate(3260, 3200, 0), new Coordinate(3265, 3201, 0)),
+                new Area.Rectangular(new Coordinate(3263, 3200, 0), new Coordinate(3267, 3200, 0)),
+                null);
+
+        assertEquals(12 + 2, index.getTileCount());
+        assertTrue(index.isBlocked(3260, 3200, 0));
+        assertTrue(index.isBlocked(3264, 3201, 0));
+        assertTrue(index.isBlocked(new Coordinate(3267, 3200, 0)));
+        assertFalse(index.isBlocked(3267, 3201, 0));
+        assertFalse(index.isBlocked(3259, 3200, 0));
+        assertFalse(index.isBlocked(3260, 3200, 1));
+        assertFalse(index.isBlocked(null));
+        assertEquals(3, index.getAreas().length);
+    }
+
+    @Test
+    void clipsLinesAtTheFirstBlockedTile() {
+        var index = BlockedAreaIndex.of(new Area.Rectangular(new Coordinate(10, 5, 0), new Coordinate(10, 15, 0)));
+        var from = new Coordinate(0, 10, 0);
+
+        assertTrue(index.intersects(from, new Coordinate(20, 10, 0)));
+        assertEquals(new Coordinate(9, 10, 0), index.clip(from, new Coordinate(20, 10, 0)));
+        assertTrue(index.intersects(from, new Coordinate(20, 0, 0)));
+
+        var clear = new Coordinate(9, 30, 0);
+        assertFalse(index.intersects(from, clear));
+        assertSame(clear, index.clip(from, clear));
+        assertFalse(index.intersects(from, null));
+        assertFalse(index.intersects(new Coordinate(0, 10, 1), new Coordinate(20, 10, 1)));
+    }
+
+    @Test
+    void isPickedOutOfThePathOptions() {
+        var index = BlockedAreaIndex.of(new Area.Rectangular(new Coordinate(1, 1, 0), new Coordinate(2, 2, 0)));
+
+        assertSame(index, BlockedAreaIndex.from(CommonPathOptions.MANAGE_RUN_ACTIVATION, index));
+        assertSame(BlockedAreaIndex.EMPTY, BlockedAreaIndex.from(CommonPathOptions.RESTORE_ENERGY));
+        assertSame(BlockedAreaIndex.EMPTY, BlockedAreaIndex.from());
+    }
+}
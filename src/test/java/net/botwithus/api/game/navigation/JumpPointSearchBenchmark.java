@@ -0,0 +1,69 @@
+package net.botwithus.api.game.navigation;
+
+import java.util.Random;
+
+/**
+ * Times {@link JumpPointSearch} on synthetic maps. It is not a test; run its main method on its own.
+ * <p>
+ * Each map is a square of random walls at the given density, and each search runs between two random tiles with the
+ * same margin {@link JumpPointPathBuilder} uses. The maps are read once up front so only the search is timed.
+ */
+public final class JumpPointSearchBenchmark {
+    private static final int MAPS = 64;
+    private static final int SEARCHES = 200;
+    private static final int WARMUP_ROUNDS = 10;
+
+    private JumpPointSearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int size : new int[]{64, 128, 208}) {
+            for (double walls : new double[]{0.0, 0.15, 0.3}) {
+                run(size, walls);
+            }
+        }
+    }
+
+    private static void run(int size, double walls) {
+        var random = new Random(size * 31L + (long) (walls * 100));
+        var maps = new boolean[MAPS][];
+        for (int i = 0; i < MAPS; i++) {
+            maps[i] = new boolean[size * size];
+            for (int tile = 0; tile < maps[i].length; tile++) {
+                maps[i][tile] = random.nextDouble() >= walls;
+            }
+        }
+        int[] ends = new int[SEARCHES * 4];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = random.nextInt(size);
+        }
+        var map = new boolean[1][];
+        GridProvider grid = (x, y, plane) -> x >= 0 && y >= 0 && x < size && y < size && map[0][y * size + x];
+        var search = new JumpPointSearch(grid);
+
+        long nanos = 0, expanded = 0;
+        int found = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            nanos = 0;
+            expanded = 0;
+            found = 0;
+            for (int i = 0; i < SEARCHES; i++) {
+                map[0] = maps[i % MAPS];
+                int margin = 24;
+                int span = Math.max(Math.abs(ends[i * 4] - ends[i * 4 + 2]), Math.abs(ends[i * 4 + 1] - ends[i * 4 + 3]));
+                if (span + 1 + margin * 2 > JumpPointSearch.MAX_SPAN) {
+                    margin = (JumpPointSearch.MAX_SPAN - span - 1) / 2;
+                }
+                long start = System.nanoTime();
+                int[] points = search.search(0, ends[i * 4], ends[i * 4 + 1], ends[i * 4 + 2], ends[i * 4 + 3], margin);
+                nanos += System.nanoTime() - start;
+                expanded += search.getExpandedCount();
+                if (points != null) {
+                    found++;
+                }
+            }
+        }
+        System.out.printf("%3dx%-3d walls %2.0f%%: %7.1f us/search, %6.1f expanded/search, %3d/%d found%n",
+                size, size, walls * 100, nanos / 1000.0 / SEARCHES, (double) expanded / SEARCHES, found, SEARCHES);
+    }
+}
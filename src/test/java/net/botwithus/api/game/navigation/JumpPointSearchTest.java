@@ -0,0 +1,308 @@
+package net.botwithus.api.game.navigation;
+
+import net.botwithus.rs3.game.Area;
+import net.botwithus.rs3.game.Coordinate;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JumpPointSearchTest {
+    private static final double SQRT2 = Math.sqrt(2);
+
+    @Test
+    void crossesAnOpenFieldInAStraightLine() {
+        var grid = Grid.open(64, 64);
+        var search = new JumpPointSearch(grid);
+
+        int[] points = search.search(0, 2, 3, 50, 23, 4);
+
+        assertPath(grid, points, 2, 3, 50, 23);
+        assertEquals(octile(48, 20), cost(points), 1e-3);
+        // One diagonal run and one straight run
+        assertEquals(3, points.length / 2);
+    }
+
+    @Test
+    void followsACorridor() {
+        var grid = Grid.parse(
+                "##########",
+                "#S.......#",
+                "########.#",
+                "#........#",
+                "#.########",
+                "#.......G#",
+                "##########");
+        var search = new JumpPointSearch(grid);
+
+        int[] points = search.search(0, grid.startX, grid.startY, grid.goalX, grid.goalY, 2);
+
+        assertPath(grid, points, grid.startX, grid.startY, grid.goalX, grid.goalY);
+        assertEquals(shortest(grid, 2), cost(points), 1e-3);
+    }
+
+    @Test
+    void neverCutsCornersOfDiagonalWalls() {
+        var squeeze = Grid.parse(
+                "S#",
+                "#G");
+        assertNull(new JumpPointSearch(squeeze).search(0, squeeze.startX, squeeze.startY, squeeze.goalX, squeeze.goalY, 1));
+
+        var grid = Grid.parse(
+                ".........",
+                ".S..#....",
+                "...#.....",
+                "..#......",
+                ".#.....G.",
+                ".........");
+        var search = new JumpPointSearch(grid);
+        // Inside the box around the two ends the wall only has diagonal gaps
+        assertNull(search.search(0, grid.startX, grid.startY, grid.goalX, grid.goalY, 0));
+
+        int[] points = search.search(0, grid.startX, grid.startY, grid.goalX, grid.goalY, 1);
+        assertPath(grid, points, grid.startX, grid.startY, grid.goalX, grid.goalY);
+        assertEquals(shortest(grid, 1), cost(points), 1e-3);
+    }
+
+    @Test
+    void givesUpOnUnreachableGoals() {
+        var walledIn = Grid.parse(
+                "S....",
+                ".###.",
+                ".#G#.",
+                ".###.",
+                ".....");
+        var search = new JumpPointSearch(walledIn);
+        assertNull(search.search(0, walledIn.startX, walledIn.startY, walledIn.goalX, walledIn.goalY, 3));
+
+        var blockedGoal = Grid.parse("S...#");
+        assertNull(new JumpPointSearch(blockedGoal).search(0, blockedGoal.startX, blockedGoal.startY, 4, 0, 1));
+
+        var open = Grid.open(8, 8);
+        assertNull(new JumpPointSearch(open).search(0, 0, 0, JumpPointSearch.MAX_SPAN, 0, 0));
+    }
+
+    @Test
+    void returnsTheStartWhenItIsTheGoal() {
+        // The player's own tile counts as walkable even if the collision data disagrees
+        GridProvider grid = (x, y, plane) -> !(x == 5 && y == 5);
+        int[] points = new JumpPointSearch(grid).search(0, 5, 5, 5, 5, 3);
+
+        assertArrayEquals(new int[]{5, 5}, points);
+    }
+
+    @Test
+    void breaksTiesTowardsTheGoal() {
+        // Regular pillars give many jump points with the same estimated cost; taking the one furthest along first
+        // keeps the search heading for the goal instead of fanning out
+        var grid = Grid.open(100, 100);
+        for (int y = 1; y < 100; y += 6) {
+            for (int x = 1; x < 100; x += 6) {
+                grid.walkable[y][x] = false;
+            }
+        }
+        grid.goalX = 96;
+        grid.goalY = 40;
+        var search = new JumpPointSearch(grid);
+
+        int[] points = search.search(0, 0, 0, 96, 40, 0);
+        assertPath(grid, points, 0, 0, 96, 40);
+        assertEquals(shortest(grid, 0), cost(points), 1e-3);
+        assertTrue(search.getExpandedCount() <= 100, "expanded " + search.getExpandedCount());
+
+        var open = new JumpPointSearch(Grid.open(200, 200));
+        assertPath(Grid.open(200, 200), open.search(0, 10, 10, 190, 190, 4), 10, 10, 190, 190);
+        assertTrue(open.getExpandedCount() <= 4, "expanded " + open.getExpandedCount());
+
+        assertArrayEquals(points, search.search(0, 0, 0, 96, 40, 0));
+    }
+
+    @Test
+    void findsShortestPathsOnRandomMaps() {
+        var random = new java.util.Random(7);
+        var search = new JumpPointSearch((x, y, plane) -> false);
+        for (int map = 0; map < 50; map++) {
+            var grid = Grid.random(random, 40, 40, 0.3);
+            search.setGrid(grid);
+            int[] points = search.search(0, grid.startX, grid.startY, grid.goalX, grid.goalY, 0);
+            double expected = shortest(grid, 0);
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertNull(points, "map " + map);
+            } else {
+                assertPath(grid, points, grid.startX, grid.startY, grid.goalX, grid.goalY);
+                assertEquals(expected, cost(points), 1e-3, "map " + map);
+            }
+        }
+    }
+
+    @Test
+    void builderPlansOnTheGridAndAvoidsBlockedAreas() {
+        var grid = Grid.open(64, 64);
+        var builder = new JumpPointPathBuilder(grid).setMargin(8);
+
+        var path = builder.build(new Coordinate(10, 10, 0), new Coordinate(30, 10, 0));
+        assertNotNull(path);
+        assertEquals(20, path.getLength());
+        assertEquals(new Coordinate(30, 10, 0), path.getWaypoints().get(path.getWaypoints().size() - 1));
+
+        var wall = BlockedAreaIndex.of(new Area.Rectangular(new Coordinate(20, 6, 0), new Coordinate(20, 14, 0)));
+        var detour = builder.build(new Coordinate(10, 10, 0), new Coordinate(30, 10, 0), wall);
+        assertNotNull(detour);
+        assertTrue(detour.getWaypoints().size() > 2);
+        int[] points = new int[detour.getWaypoints().size() * 2];
+        for (int i = 0; i < points.length / 2; i++) {
+            points[i * 2] = detour.getWaypoints().get(i).getX();
+            points[i * 2 + 1] = detour.getWaypoints().get(i).getY();
+        }
+        assertPath(grid.avoiding(wall), points, 10, 10, 30, 10);
+
+        assertNull(builder.build(new Coordinate(10, 10, 0), new Coordinate(30, 10, 1)));
+        assertNull(builder.build(null, new Coordinate(30, 10, 0)));
+    }
+
+    /**
+     * Checks that a path runs from start to goal in straight or diagonal runs over walkable tiles without cutting
+     * corners.
+     */
+    private static void assertPath(GridProvider grid, int[] points, int startX, int startY, int goalX, int goalY) {
+        assertNotNull(points);
+        assertEquals(startX, points[0]);
+        assertEquals(startY, points[1]);
+        assertEquals(goalX, points[points.length - 2]);
+        assertEquals(goalY, points[points.length - 1]);
+        for (int i = 2; i < points.length; i += 2) {
+            int x = points[i - 2], y = points[i - 1];
+            int dx = Integer.signum(points[i] - x), dy = Integer.signum(points[i + 1] - y);
+            int steps = Math.max(Math.abs(points[i] - x), Math.abs(points[i + 1] - y));
+            assertTrue(Math.abs(points[i] - x) == Math.abs(points[i + 1] - y) || dx == 0 || dy == 0,
+                    "run " + i / 2 + " is not straight or diagonal");
+            for (int step = 0; step < steps; step++) {
+                assertTrue(grid.isWalkable(x + dx, y + dy, 0), "blocked tile at " + (x + dx) + ", " + (y + dy));
+                if (dx != 0 && dy != 0) {
+                    assertTrue(grid.isWalkable(x + dx, y, 0) && grid.isWalkable(x, y + dy, 0),
+                            "cut a corner at " + x + ", " + y);
+                }
+                x += dx;
+                y += dy;
+            }
+        }
+    }
+
+    private static double cost(int[] points) {
+        double cost = 0;
+        for (int i = 2; i < points.length; i += 2) {
+            cost += octile(Math.abs(points[i] - points[i - 2]), Math.abs(points[i + 1] - points[i - 1]));
+        }
+        return cost;
+    }
+
+    private static double octile(int dx, int dy) {
+        return Math.max(dx, dy) + (SQRT2 - 1) * Math.min(dx, dy);
+    }
+
+    /**
+     * Dijkstra over every tile with the same moves as the search, to check its paths are the shortest.
+     */
+    private static double shortest(Grid grid, int margin) {
+        int minX = Math.min(grid.startX, grid.goalX) - margin, maxX = Math.max(grid.startX, grid.goalX) + margin;
+        int minY = Math.min(grid.startY, grid.goalY) - margin, maxY = Math.max(grid.startY, grid.goalY) + margin;
+        int width = maxX - minX + 1, height = maxY - minY + 1;
+        double[] distance = new double[width * height];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        var open = new PriorityQueue<double[]>((a, b) -> Double.compare(a[0], b[0]));
+        distance[(grid.startY - minY) * width + grid.startX - minX] = 0;
+        open.add(new double[]{0, grid.startX, grid.startY});
+        while (!open.isEmpty()) {
+            double[] next = open.poll();
+            int x = (int) next[1], y = (int) next[2];
+            if (next[0] > distance[(y - minY) * width + x - minX]) {
+                continue;
+            }
+            if (x == grid.goalX && y == grid.goalY) {
+                return next[0];
+            }
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int nx = x + dx, ny = y + dy;
+                    if (dx == 0 && dy == 0 || nx < minX || ny < minY || nx > maxX || ny > maxY || !grid.isWalkable(nx, ny, 0)) {
+                        continue;
+                    }
+                    if (dx != 0 && dy != 0 && !(grid.isWalkable(x + dx, y, 0) && grid.isWalkable(x, y + dy, 0))) {
+                        continue;
+                    }
+                    double cost = next[0] + (dx != 0 && dy != 0 ? SQRT2 : 1);
+                    int index = (ny - minY) * width + nx - minX;
+                    if (cost < distance[index]) {
+                        distance[index] = cost;
+                        open.add(new double[]{cost, nx, ny});
+                    }
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * A synthetic map, row {@code y} of the text being tile row {@code y}.
+     */
+    static final class Grid implements GridProvider {
+        private final boolean[][] walkable;
+        int startX;
+        int startY;
+        int goalX;
+        int goalY;
+
+        private Grid(boolean[][] walkable) {
+            this.walkable = walkable;
+        }
+
+        static Grid open(int width, int height) {
+            var tiles = new boolean[height][width];
+            for (boolean[] row : tiles) {
+                Arrays.fill(row, true);
+            }
+            return new Grid(tiles);
+        }
+
+        static Grid parse(String... rows) {
+            var grid = new Grid(new boolean[rows.length][rows[0].length()]);
+            for (int y = 0; y < rows.length; y++) {
+                for (int x = 0; x < rows[y].length(); x++) {
+                    char tile = rows[y].charAt(x);
+                    grid.walkable[y][x] = tile != '#';
+                    if (tile == 'S') {
+                        grid.startX = x;
+                        grid.startY = y;
+                    } else if (tile == 'G') {
+                        grid.goalX = x;
+                        grid.goalY = y;
+                    }
+                }
+            }
+            return grid;
+        }
+
+        static Grid random(java.util.Random random, int width, int height, double wallChance) {
+            var grid = new Grid(new boolean[height][width]);
+            for (boolean[] row : grid.walkable) {
+                for (int x = 0; x < width; x++) {
+                    row[x] = random.nextDouble() >= wallChance;
+                }
+            }
+            grid.startX = random.nextInt(width);
+            grid.startY = random.nextInt(height);
+            grid.goalX = random.nextInt(width);
+            grid.goalY = random.nextInt(height);
+            grid.walkable[grid.startY][grid.startX] = true;
+            grid.walkable[grid.goalY][grid.goalX] = true;
+            return grid;
+        }
+
+        @Override
+        public boolean isWalkable(int x, int y, int plane) {
+            return plane == 0 && y >= 0 && y < walkable.length && x >= 0 && x < walkable[y].length && walkable[y][x];
+        }
+    }
+}
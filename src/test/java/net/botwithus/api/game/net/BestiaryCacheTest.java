@@ -0,0 +1,161 @@
+package net.botwithus.api.game.net;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestiaryCacheTest {
+    private final List<BestiaryCache> caches = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void close() {
+        caches.forEach(BestiaryCache::close);
+    }
+
+    @Test
+    void storesOnlyCommittedResponses() throws IOException {
+        var cache = cache();
+        put(cache, "beastData.json?beastid=1", "{\"id\":1}");
+        try (var capture = cache.capture("beastData.json?beastid=2")) {
+            capture.write("{\"id\":".getBytes(StandardCharsets.UTF_8));
+        }
+        try (var capture = cache.capture("beastData.json?beastid=3")) {
+            capture.commit();
+        }
+
+        assertEquals("{\"id\":1}", read(cache.open("beastData.json?beastid=1", false)));
+        assertNull(cache.open("beastData.json?beastid=2", true));
+        assertNull(cache.open("beastData.json?beastid=3", true));
+
+        cache.remove("beastData.json?beastid=1");
+        assertNull(cache.open("beastData.json?beastid=1", true));
+    }
+
+    @Test
+    void servesStaleResponsesOnlyWhenAskedTo() throws IOException {
+        var cache = cache();
+        put(cache, "a", "first");
+        cache.setTtlMillis(-1);
+
+        assertNull(cache.open("a", false));
+        assertEquals("first", read(cache.open("a", true)));
+    }
+
+    @Test
+    void dropsTheLeastRecentlyUsedResponses() throws IOException {
+        var cache = cache();
+        cache.setCapacity(2);
+        put(cache, "a", "1");
+        put(cache, "b", "2");
+        read(cache.open("a", false));
+        put(cache, "c", "3");
+
+        assertEquals("1", read(cache.open("a", false)));
+        assertNull(cache.open("b", true));
+        assertEquals("3", read(cache.open("c", false)));
+    }
+
+    @Test
+    void readsResponsesBackFromTheFile() throws IOException {
+        var cache = cache();
+        put(cache, "a", "1");
+        put(cache, "b", "2");
+        put(cache, "a", "3");
+        cache.close();
+
+        var reopened = cache();
+        assertEquals("3", read(reopened.open("a", false)));
+        assertEquals("2", read(reopened.open("b", false)));
+
+        reopened.clear();
+        reopened.close();
+        assertNull(cache().open("a", true));
+    }
+
+    @Test
+    void dropsADamagedTail() throws IOException {
+        var cache = cache();
+        put(cache, "a", "1");
+        put(cache, "b", "2");
+        cache.close();
+        var file = directory.resolve("bestiary.bin");
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        var reopened = cache();
+        assertEquals("1", read(reopened.open("a", false)));
+        assertNull(reopened.open("b", true));
+        put(reopened, "c", "3");
+        reopened.close();
+
+        var again = cache();
+        assertEquals("1", read(again.open("a", false)));
+        assertEquals("3", read(again.open("c", false)));
+    }
+
+    @Test
+    void discardsAFileWithAnUnknownFormat() throws IOException {
+        var file = directory.resolve("bestiary.bin");
+        Files.write(file, "not a cache".getBytes(StandardCharsets.UTF_8));
+
+        var cache = cache();
+        assertNull(cache.open("a", true));
+        put(cache, "a", "1");
+        cache.close();
+
+        assertEquals("1", read(cache().open("a", false)));
+    }
+
+    @Test
+    void keepsResponsesInMemoryWhileAnotherCacheHoldsTheFile() throws IOException {
+        var owner = cache();
+        put(owner, "a", "1");
+
+        var other = cache();
+        assertEquals("1", read(other.open("a", false)));
+        put(other, "b", "2");
+        assertEquals("2", read(other.open("b", false)));
+        other.close();
+        owner.close();
+
+        var reopened = cache();
+        assertEquals("1", read(reopened.open("a", false)));
+        assertNull(reopened.open("b", true));
+    }
+
+    private BestiaryCache cache() {
+        var cache = new BestiaryCache(directory.resolve("bestiary.bin"));
+        caches.add(cache);
+        return cache;
+    }
+
+    private static void put(BestiaryCache cache, String key, String response) throws IOException {
+        try (var capture = cache.capture(key)) {
+            capture.write(response.getBytes(StandardCharsets.UTF_8));
+            capture.commit();
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        assertNotNull(in);
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package net.botwithus.api.game.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestiaryTest {
+    private HttpServer server;
+    private ExecutorService executor;
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    @TempDir
+    Path directory;
+
+    @FunctionalInterface
+    private interface Response {
+        void send(HttpExchange exchange) throws Exception;
+    }
+
+    @BeforeEach
+    void start() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            String request = exchange.getRequestURI().getRawPath().substring(1);
+            if (exchange.getRequestURI().getRawQuery() != null) {
+                request += "?" + exchange.getRequestURI().getRawQuery();
+            }
+            hits.computeIfAbsent(request, key -> new AtomicInteger()).incrementAndGet();
+            try {
+                responses.getOrDefault(request, e -> send(e, 404, "")).send(exchange);
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        Bestiary.setBaseAddress("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        Bestiary.setCacheFile(directory.resolve("bestiary.bin"));
+        Bestiary.setCacheTtlMillis(24 * 60 * 60_000L);
+        Bestiary.setMaxConcurrency(8);
+        Bestiary.setOffline(false);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        Bestiary.setCacheFile(null);
+        Bestiary.setBaseAddress(null);
+    }
+
+    @Test
+    void beastsArriveInTheOrderTheServiceListsThem() {
+        responses.put("beastSearch.json?term=cow", e -> send(e, 200,
+                "[{\"label\":\"cow\",\"value\":3},{\"label\":\"calf\",\"value\":4},{\"label\":\"cow\",\"value\":1},{\"label\":\"cow\",\"value\":2}]"));
+        // The first beast listed answers last
+        beast(3, 300);
+        beast(1, 0);
+        beast(2, 100);
+
+        assertEquals(List.of(3, 1, 2), ids(Bestiary.lookupByName("cow")));
+
+        List<Integer> streamed = new ArrayList<>();
+        Bestiary.lookupByName("cow", beast -> streamed.add(beast.getId())).join();
+        assertEquals(List.of(3, 1, 2), streamed);
+        assertNull(hits.get("beastData.json?beastid=4"));
+    }
+
+    @Test
+    void concurrentLookupsShareOneRequest() throws Exception {
+        var release = new CountDownLatch(1);
+        responses.put("beastData.json?beastid=7", e -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            send(e, 200, beastJson(7, "Goblin", 5));
+        });
+        long coalesced = Bestiary.getCoalescedCount();
+        List<CompletableFuture<Bestiary.Beast>> lookups = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> Bestiary.lookupById(7), executor));
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Bestiary.getCoalescedCount() - coalesced < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (var lookup : lookups) {
+            assertEquals("Goblin", lookup.get(10, TimeUnit.SECONDS).getName());
+        }
+        assertEquals(4, Bestiary.getCoalescedCount() - coalesced);
+        assertEquals(1, hits.get("beastData.json?beastid=7").get());
+        assertThrows(UnsupportedOperationException.class, () -> lookups.get(0).join().getLocations().add("Lumbridge"));
+    }
+
+    @Test
+    void errorResponsesFailTheLookup() {
+        responses.put("beastData.json?beastid=10", e -> send(e, 500, "Internal error"));
+        responses.put("beastData.json?beastid=11", e -> send(e, 200, "<html>Down for maintenance</html>"));
+        responses.put("beastData.json?beastid=12", e -> send(e, 200, "{\"id\":12}"));
+
+        assertNull(Bestiary.lookupById(10));
+        assertNull(Bestiary.lookupById(11));
+        assertNull(Bestiary.lookupById(12));
+        assertNull(Bestiary.lookupById(13));
+        assertEquals(List.of(), Bestiary.lookupByName("nothing"));
+
+        // Failed responses are not cached
+        Bestiary.lookupById(10);
+        assertEquals(2, hits.get("beastData.json?beastid=10").get());
+    }
+
+    @Test
+    void staleCacheAnswersWhenAResponseBreaksMidParse() {
+        beast(9, 0);
+        assertEquals(2, Bestiary.lookupById(9).getCombatLevel());
+
+        Bestiary.setCacheTtlMillis(-1);
+        responses.put("beastData.json?beastid=9", e -> {
+            // A response cut off after the headers promised a whole beast
+            e.sendResponseHeaders(200, 0);
+            e.getResponseBody().write("{\"id\":9,\"name\":\"Cow\",\"level\":".getBytes(StandardCharsets.UTF_8));
+        });
+        var stale = Bestiary.lookupById(9);
+        assertNotNull(stale);
+        assertEquals(2, stale.getCombatLevel());
+        assertEquals(2, hits.get("beastData.json?beastid=9").get());
+
+        responses.put("beastData.json?beastid=9", e -> send(e, 503, ""));
+        assertEquals(2, Bestiary.lookupById(9).getCombatLevel());
+
+        Bestiary.setOffline(true);
+        assertEquals(2, Bestiary.lookupById(9).getCombatLevel());
+        assertNull(Bestiary.lookupById(8));
+        assertEquals(3, hits.get("beastData.json?beastid=9").get());
+    }
+
+    private void beast(int id, long delayMillis) {
+        responses.put("beastData.json?beastid=" + id, e -> {
+            Thread.sleep(delayMillis);
+            send(e, 200, beastJson(id, "Cow", 2));
+        });
+    }
+
+    private static String beastJson(int id, String name, int level) {
+        return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"level\":" + level + ",\"areas\":[\"Lumbridge\"],\"animations\":{\"death\":1}}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static List<Integer> ids(List<Bestiary.Beast> beasts) {
+        return beasts.stream().map(Bestiary.Beast::getId).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package net.botwithus.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+
+    @Test
+    void putsGetsAndRemoves() {
+        var map = new IntIntMap();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(5, -1));
+
+        assertTrue(map.put(5, 50));
+        assertFalse(map.put(5, 55));
+        assertTrue(map.put(-1, 10));
+        assertTrue(map.put(0, 0));
+
+        assertEquals(3, map.size());
+        assertEquals(55, map.get(5, -1));
+        assertEquals(10, map.get(-1, -1));
+        assertTrue(map.containsKey(0));
+
+        assertTrue(map.remove(5));
+        assertFalse(map.remove(5));
+        assertFalse(map.containsKey(5));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(-1));
+    }
+
+    @Test
+    void keepsProbeRunsIntactAcrossGrowthAndRemoval() {
+        var map = new IntIntMap(4);
+        var expected = new HashMap<Integer, Integer>();
+        var random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            // A small key range makes collisions, removals in the middle of probe runs and regrowth common
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                int value = random.nextInt();
+                assertEquals(expected.put(key, value) == null, map.put(key, value));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.getOrDefault(key, Integer.MIN_VALUE), map.get(key, Integer.MIN_VALUE));
+        }
+    }
+}